@@ -0,0 +1,182 @@
+package com.safetynetalerts.safetynet.cache;
+
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynetalerts.safetynet.repository.DataSnapshot;
+import com.safetynetalerts.safetynet.repository.DataStore;
+import com.safetynetalerts.safetynet.util.AgeCalculator;
+
+/**
+ * Cache of the JSON bodies of the alert endpoints
+ *
+ * A body is stored as the UTF-8 bytes written by Jackson, keyed on the endpoint and its parameters,
+ * along with the versions of the sources it was computed from: the sections of the data and, for
+ * bodies holding ages, the current date. A body is served again as long as none of its sources
+ * changed, so a write only invalidates the bodies depending on the section it changed.
+ *
+ * The versions are read from the snapshot the repository indexes are known to have caught up with,
+ * before the body is computed: a write landing meanwhile can only make the entry look older than
+ * it is, never newer. The cache is bounded by the total size of its bodies and evicts the least
+ * recently used ones first.
+ */
+@Component
+public class ResponseCache {
+
+    /**
+     * What a cached body can depend on
+     */
+    public enum Source {
+        PERSONS(DataSnapshot::getPersonsVersion),
+        FIRESTATIONS(DataSnapshot::getFireStationsVersion),
+        MEDICALRECORDS(DataSnapshot::getMedicalRecordsVersion),
+        TODAY(snapshot -> AgeCalculator.todayEpochDay());
+
+        private final ToLongFunction<DataSnapshot> version;
+
+        Source(ToLongFunction<DataSnapshot> version) {
+            this.version = version;
+        }
+    }
+
+    // Rough size of an entry besides its body: the map node, the entry, the key and the versions
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final DataStore dataStore;
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+
+    // In access order, guarded by this
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxSize upper bound of the total size of the cached bodies
+     */
+    @Autowired
+    public ResponseCache(DataStore dataStore, ObjectMapper objectMapper,
+                         @Value("${safetynet.cache.max-size:16MB}") DataSize maxSize) {
+        this.dataStore = dataStore;
+        this.objectMapper = objectMapper;
+        this.maxBytes = maxSize.toBytes();
+    }
+
+    /**
+     * @param endpoint path of the endpoint
+     * @param parameters the parameters of the request, as converted by the controller
+     * @param sources what the body depends on
+     * @param response computes the response on a miss
+     * @return the JSON body of the response
+     */
+    public byte[] get(String endpoint, String parameters, Set<Source> sources, Supplier<?> response) {
+        String key = endpoint + '\u0000' + parameters;
+        long[] versions = versions(sources);
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry != null && Arrays.equals(entry.versions, versions)) {
+            hits.increment();
+            return entry.body;
+        }
+        misses.increment();
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(response.get());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        put(key, new Entry(versions, body));
+        return body;
+    }
+
+    /**
+     * @return a 200 response holding a JSON body
+     */
+    public static ResponseEntity<byte[]> ok(byte[] body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private long[] versions(Set<Source> sources) {
+        DataSnapshot snapshot = dataStore.getIndexedSnapshot();
+        long[] versions = new long[Source.values().length];
+        for (Source source : sources) {
+            versions[source.ordinal()] = source.version.applyAsLong(snapshot);
+        }
+        return versions;
+    }
+
+    private synchronized void put(String key, Entry entry) {
+        if (entry.size > maxBytes) {
+            Entry previous = entries.remove(key);
+            if (previous != null) {
+                bytes -= previous.size;
+            }
+            return;
+        }
+        Entry previous = entries.put(key, entry);
+        bytes += entry.size - (previous == null ? 0 : previous.size);
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes) {
+            bytes -= eldest.next().getValue().size;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the estimated size of the cached entries, in bytes
+     */
+    public synchronized long getSize() {
+        return bytes;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+
+        private final long[] versions;
+        private final byte[] body;
+        private final long size;
+
+        private Entry(long[] versions, byte[] body) {
+            this.versions = versions;
+            this.body = body;
+            this.size = body.length + ENTRY_OVERHEAD;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.safetynetalerts.safetynet.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+
+import com.safetynetalerts.safetynet.repository.DataStore;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * PersistenceMetricsConfig Configuration class exposing the write-behind state of the DataStore.
+ * 
+ * The queue depth, the flush latency and the startup load time are available under /actuator/metrics.
+ * 
+ */
+@Configuration
+public class PersistenceMetricsConfig implements MeterBinder {
+
+	@Autowired
+	private DataStore dataStore;
+	
+	/**
+	 * Registers the persistence meters. 
+	 * 
+	 * @param registry : the registry to add the meters to 
+	 */
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("safetynet.persistence.queue.depth", dataStore, DataStore::getPendingSaves)
+				.description("Saves not yet flushed to the journal")
+				.register(registry);
+		FunctionTimer.builder("safetynet.persistence.flush", dataStore,
+				DataStore::getFlushCount, DataStore::getFlushTimeNanos, TimeUnit.NANOSECONDS)
+				.description("Write-behind flushes to the journal")
+				.register(registry);
+		TimeGauge.builder("safetynet.data.load", dataStore, TimeUnit.NANOSECONDS, DataStore::getLoadTimeNanos)
+				.description("Time spent loading the data at startup")
+				.tag("source", dataStore.isLoadedFromSnapshot() ? "snapshot" : "json")
+				.register(registry);
+	}
+}
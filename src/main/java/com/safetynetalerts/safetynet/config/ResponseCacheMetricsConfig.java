@@ -0,0 +1,51 @@
+package com.safetynetalerts.safetynet.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+
+import com.safetynetalerts.safetynet.cache.ResponseCache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * ResponseCacheMetricsConfig Configuration class exposing the state of the ResponseCache.
+ *
+ * The hits, misses, evictions and size of the cache are available under /actuator/metrics.
+ *
+ */
+@Configuration
+public class ResponseCacheMetricsConfig implements MeterBinder {
+
+	@Autowired
+	private ResponseCache responseCache;
+
+	/**
+	 * Registers the response cache meters.
+	 *
+	 * @param registry : the registry to add the meters to
+	 */
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("safetynet.cache.requests", responseCache, ResponseCache::getHits)
+				.description("Alert responses served from the cache")
+				.tag("result", "hit")
+				.register(registry);
+		FunctionCounter.builder("safetynet.cache.requests", responseCache, ResponseCache::getMisses)
+				.description("Alert responses computed and stored in the cache")
+				.tag("result", "miss")
+				.register(registry);
+		FunctionCounter.builder("safetynet.cache.evictions", responseCache, ResponseCache::getEvictions)
+				.description("Cached responses evicted to stay under the maximum size")
+				.register(registry);
+		Gauge.builder("safetynet.cache.size", responseCache, ResponseCache::getSize)
+				.description("Estimated size of the cached responses")
+				.baseUnit("bytes")
+				.register(registry);
+		Gauge.builder("safetynet.cache.entries", responseCache, ResponseCache::getEntryCount)
+				.description("Number of cached responses")
+				.register(registry);
+	}
+}
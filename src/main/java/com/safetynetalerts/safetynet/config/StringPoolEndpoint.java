@@ -0,0 +1,64 @@
+package com.safetynetalerts.safetynet.config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import com.safetynetalerts.safetynet.model.FireStation;
+import com.safetynetalerts.safetynet.model.Person;
+import com.safetynetalerts.safetynet.repository.DataSnapshot;
+import com.safetynetalerts.safetynet.repository.DataStore;
+import com.safetynetalerts.safetynet.util.StringPool;
+
+/**
+ * StringPoolEndpoint Actuator endpoint reporting the canonicalization of addresses, cities and zips.
+ *
+ * Available under /actuator/stringpool. The saved bytes are computed from the current snapshot,
+ * so they only count the entities still alive.
+ *
+ */
+@Component
+@Endpoint(id = "stringpool")
+public class StringPoolEndpoint {
+
+	private final DataStore dataStore;
+
+	public StringPoolEndpoint(DataStore dataStore) {
+		this.dataStore = dataStore;
+	}
+
+	/**
+	 * @return the size of the pool and the memory saved by sharing its values
+	 */
+	@ReadOperation
+	public Map<String, Object> stringPool() {
+		Map<String, Object> stringPool = new LinkedHashMap<>();
+		stringPool.put("distinctValues", StringPool.size());
+		stringPool.put("lookups", StringPool.getLookups());
+		stringPool.put("deduplicated", StringPool.getDeduplicated());
+		stringPool.put("savedBytes", StringPool.savedBytes(pooledValues(dataStore.getSnapshot())));
+		return stringPool;
+	}
+
+	/**
+	 * @return every occurrence of the fields passed through the pool
+	 */
+	private static List<String> pooledValues(DataSnapshot snapshot) {
+		List<String> values = new ArrayList<>();
+		for (Person person : snapshot.getPersons()) {
+			values.add(person.getAddress());
+			values.add(person.getCity());
+			values.add(person.getZip());
+		}
+		for (FireStation fireStation : snapshot.getFireStations()) {
+			values.add(fireStation.getAddress());
+			values.add(fireStation.getStation());
+		}
+		return values;
+	}
+}
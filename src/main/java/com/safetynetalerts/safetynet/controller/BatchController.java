@@ -0,0 +1,50 @@
+package com.safetynetalerts.safetynet.controller;
+
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.safetynetalerts.safetynet.dto.BatchResultDTO;
+import com.safetynetalerts.safetynet.dto.MutationDTO;
+import com.safetynetalerts.safetynet.service.BatchService;
+
+/**
+ * Controller class to handle batches of mutations of persons, fire stations and medical records.
+ */
+@RestController
+public class BatchController {
+
+    private static final Logger logger = LogManager.getLogger(BatchController.class);
+
+    @Autowired
+    private BatchService batchService;
+
+    /**
+     * @param mutations the mutations, applied in order
+     * @return Response HTTP 200 (ok) once every mutation is applied and saved as a single write,
+     * 400 (bad request) with the error of the first invalid mutation, in which case none is applied
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResultDTO> applyBatch(@RequestBody List<MutationDTO> mutations) {
+        logger.debug("Applying a batch of {} mutations", mutations.size());
+
+        try {
+            batchService.applyBatch(mutations);
+            logger.info("Applied a batch of {} mutations successfully", mutations.size());
+            return ResponseEntity.ok(new BatchResultDTO(mutations.size(), null));
+        } catch (IllegalArgumentException e) {
+            logger.error("Rejected batch: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new BatchResultDTO(0, e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error applying a batch: ", e);
+            return ResponseEntity.status(500).build();
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package com.safetynetalerts.safetynet.controller;
 
-import java.util.List;
+import java.util.EnumSet;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -9,7 +9,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.safetynetalerts.safetynet.dto.ChildAlertDTO;
+import com.safetynetalerts.safetynet.cache.ResponseCache;
+import com.safetynetalerts.safetynet.cache.ResponseCache.Source;
 import com.safetynetalerts.safetynet.service.ChildAlertService;
 
 @RestController
@@ -28,11 +29,16 @@ public class ChildAlertController {
     @Autowired
     private ChildAlertService childAlertService;
 
+    @Autowired
+    private ResponseCache responseCache;
+
 
     @GetMapping
-    public ResponseEntity<List<ChildAlertDTO>> getChildrenByAddress(@RequestParam("address") String address) {
-        List<ChildAlertDTO> children = childAlertService.getChildrenByAddress(address);
-        return ResponseEntity.ok(children);
+    public ResponseEntity<byte[]> getChildrenByAddress(@RequestParam("address") String address) {
+        byte[] children = responseCache.get("/childAlert", address,
+                EnumSet.of(Source.PERSONS, Source.MEDICALRECORDS, Source.TODAY),
+                () -> childAlertService.getChildrenByAddress(address));
+        return ResponseCache.ok(children);
     }
 
 }
@@ -1,6 +1,6 @@
 package com.safetynetalerts.safetynet.controller;
 
-import java.util.List;
+import java.util.EnumSet;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -8,6 +8,8 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.safetynetalerts.safetynet.cache.ResponseCache;
+import com.safetynetalerts.safetynet.cache.ResponseCache.Source;
 import com.safetynetalerts.safetynet.service.CommunityEmailService;
 
 @RestController
@@ -16,13 +18,17 @@ public class CommunityEmailController {
     @Autowired
     private CommunityEmailService communityEmailService;
 
+    @Autowired
+    private ResponseCache responseCache;
+
     /**
      * @param city
      * @return a ResponseEntity containing a list of mails retrieves by city
      */
     @GetMapping("/communityEmail")
-    public ResponseEntity<List<String>> getEmailsByCity (@RequestParam("city") String city) {
-        List<String> emails = communityEmailService.getEmailsByCity(city);
-        return ResponseEntity.ok(emails);
+    public ResponseEntity<byte[]> getEmailsByCity (@RequestParam("city") String city) {
+        byte[] emails = responseCache.get("/communityEmail", city, EnumSet.of(Source.PERSONS),
+                () -> communityEmailService.getEmailsByCity(city));
+        return ResponseCache.ok(emails);
     }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.safetynetalerts.safetynet.controller;
+
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Strong entity tags of the list endpoints, derived from the version of a repository
+ *
+ * Repository versions are never reused, even across restarts, so a tag only matches the exact
+ * content it was handed out with.
+ */
+final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    /**
+     * Answers a conditional GET from the version alone, the body is only computed when the client
+     * copy is stale. The tag is left out when the version moved while the body was computed, as the
+     * body may then be newer than the version it was read with.
+     *
+     * @param name name of the resource, part of the tag
+     * @param version version of the repository the body is read from
+     * @param body computes the body
+     * @return the response, 304 (Not Modified) when the client holds the current version
+     */
+    static <T> ResponseEntity<T> ifNoneMatch(WebRequest request, String name, LongSupplier version,
+                                             Supplier<ResponseEntity<T>> body) {
+        long before = version.getAsLong();
+        String tag = tag(name, before);
+        if (matches(request.getHeaderValues(HttpHeaders.IF_NONE_MATCH), tag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).build();
+        }
+        ResponseEntity<T> response = body.get();
+        if (!response.getStatusCode().is2xxSuccessful() || version.getAsLong() != before) {
+            return response;
+        }
+        return ResponseEntity.status(response.getStatusCode()).headers(response.getHeaders()).eTag(tag)
+                .body(response.getBody());
+    }
+
+    /**
+     * @return true if one of the If-None-Match values is the tag or a wildcard, weak tags matching
+     * their strong counterpart as required for If-None-Match
+     */
+    private static boolean matches(String[] ifNoneMatch, String tag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String header : ifNoneMatch) {
+            for (String candidate : header.split(",")) {
+                candidate = candidate.trim();
+                if (candidate.startsWith("W/")) {
+                    candidate = candidate.substring(2);
+                }
+                if (candidate.equals(tag) || candidate.equals("*")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    static String tag(String name, long version) {
+        return "\"" + name + "-" + version + "\"";
+    }
+}
@@ -1,6 +1,6 @@
 package com.safetynetalerts.safetynet.controller;
 
-import java.util.List;
+import java.util.EnumSet;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -9,7 +9,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.safetynetalerts.safetynet.dto.FireDTO;
+import com.safetynetalerts.safetynet.cache.ResponseCache;
+import com.safetynetalerts.safetynet.cache.ResponseCache.Source;
 import com.safetynetalerts.safetynet.service.FireService;
 
 @RestController
@@ -19,13 +20,18 @@ public class FireController {
     @Autowired
     private FireService fireService;
 
+    @Autowired
+    private ResponseCache responseCache;
+
     /**
      * @param address
-     * @return a responseEntity containing a list of persons
+     * @return a responseEntity containing a list of persons, served from the cache while the data
+     * and the date are unchanged
      */
     @GetMapping(params = "address")
-    public ResponseEntity<List<FireDTO>> getPersonsByAddress(@RequestParam("address") String address){
-        List<FireDTO> persons = fireService.getPersonsByAddress(address);
-        return ResponseEntity.ok(persons);
+    public ResponseEntity<byte[]> getPersonsByAddress(@RequestParam("address") String address){
+        byte[] persons = responseCache.get("/fire", address, EnumSet.allOf(Source.class),
+                () -> fireService.getPersonsByAddress(address));
+        return ResponseCache.ok(persons);
     }
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,9 +16,15 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynetalerts.safetynet.dto.ChangesDTO;
 import com.safetynetalerts.safetynet.dto.FireStationCoverageDTO;
 import com.safetynetalerts.safetynet.dto.FireStationDTO;
+import com.safetynetalerts.safetynet.dto.PageDTO;
+import com.safetynetalerts.safetynet.repository.FireStationRepository;
 import com.safetynetalerts.safetynet.service.FireStationService;
 
 import lombok.Data;
@@ -32,12 +39,25 @@ public class FireStationController {
     @Autowired
     private FireStationService fireStationService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private FireStationRepository fireStationRepository;
+
     /**
      *
-     * @return Status ok (200) if no exception (fetching all fireStations)
+     * @param request carrying the If-None-Match header of a conditional GET
+     * @return Status ok (200) if no exception (fetching all fireStations), tagged with their version,
+     * or 304 (not modified) without fetching them if the client already holds that version
      */
     @GetMapping
-    public ResponseEntity<List<FireStationDTO>> getAllFireStations() {
+    public ResponseEntity<List<FireStationDTO>> getAllFireStations(WebRequest request) {
+        return EntityTags.ifNoneMatch(request, "firestations", fireStationRepository::getVersion,
+                this::fetchAllFireStations);
+    }
+
+    private ResponseEntity<List<FireStationDTO>> fetchAllFireStations() {
         logger.debug("Fetching all fireStations.");
 
         try {
@@ -50,19 +70,82 @@ public class FireStationController {
         }
     }
 
+    /**
+     * @param limit maximum number of fireStations of the page
+     * @param cursor next cursor of the previous page, none for the first page
+     * @return Response HTTP 200 (ok) with one page of fireStations ordered by address and station and the cursor of the next page,
+     * 400 (bad request) for a limit out of range or an invalid cursor
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<PageDTO<FireStationDTO>> getFireStationsPage(@RequestParam("limit") int limit,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        logger.debug("Fetching a page of {} fireStations after cursor {}", limit, cursor);
+
+        try {
+            PageDTO<FireStationDTO> page = fireStationService.getFireStationsPage(cursor, limit);
+            logger.info("Fetched a page of fireStations successfully. Number of fireStations: {}", page.getItems().size());
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid page of fireStations: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            logger.error("Error fetching a page of fireStations: ", e);
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    /**
+     * @return Response HTTP 200 (ok) streaming every fireStation as newline delimited JSON, written one by one
+     * from the store without building the whole list
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamFireStations() {
+        logger.debug("Streaming all fireStations");
+        return NdjsonStream.of(objectMapper, fireStationService.streamAllFireStations());
+    }
+
+    /**
+     * @param since version of the fireStations held by the client, as returned by the previous call
+     * @return Response HTTP 200 (ok) with the fireStations inserted, updated and deleted since that version,
+     * or all of them flagged as a resync when the client is too far behind
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ChangesDTO<FireStationDTO>> getFireStationChanges(@RequestParam("since") long since) {
+        logger.debug("Fetching fireStations changed since version {}", since);
+
+        try {
+            ChangesDTO<FireStationDTO> changes = fireStationService.getChangesSince(since);
+            logger.info("Fetched fireStations changes up to version {}, resync: {}", changes.getVersion(), changes.isResync());
+            return ResponseEntity.ok(changes);
+        } catch (Exception e) {
+            logger.error("Error fetching fireStations changes: ", e);
+            return ResponseEntity.status(500).build();
+        }
+    }
+
     /**
      * @param stationNumber
+     * @param minAge optional, the minimum age of the persons
+     * @param maxAge optional, the maximum age of the persons
      * @return a list of persons covered by the corresponding fireStation
      * if status ok
      */
     @GetMapping(params = "stationNumber")
-    public ResponseEntity<FireStationCoverageDTO> getCoverageByStationNumber(@RequestParam("stationNumber") int stationNumber) {
+    public ResponseEntity<FireStationCoverageDTO> getCoverageByStationNumber(@RequestParam("stationNumber") int stationNumber,
+                                                                             @RequestParam(required = false) Integer minAge,
+                                                                             @RequestParam(required = false) Integer maxAge) {
         logger.debug("Getting a list of persons covered by the corresponding fireStation.");
 
         try {
-            FireStationCoverageDTO coverage = fireStationService.getCoverageByStationNumber(stationNumber);
+            FireStationCoverageDTO coverage = minAge == null && maxAge == null
+                    ? fireStationService.getCoverageByStationNumber(stationNumber)
+                    : fireStationService.getCoverageByStationNumber(stationNumber,
+                            minAge == null ? 0 : minAge, maxAge == null ? Integer.MAX_VALUE : maxAge);
             logger.info("Getting a list of persons covered by the corresponding fireStation , successfully.");
             return ResponseEntity.ok(coverage);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid age range: {} to {}", minAge, maxAge);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         } catch (Exception e) {
             logger.error("Error fetching the list: ", e);
             return ResponseEntity.status(500).build();
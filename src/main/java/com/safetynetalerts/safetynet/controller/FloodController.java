@@ -1,33 +1,60 @@
 package com.safetynetalerts.safetynet.controller;
 
+import java.util.EnumSet;
 import java.util.List;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import com.safetynetalerts.safetynet.dto.FloodDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynetalerts.safetynet.cache.ResponseCache;
+import com.safetynetalerts.safetynet.cache.ResponseCache.Source;
 import com.safetynetalerts.safetynet.service.FloodService;
 
 @RestController
 @RequestMapping("/flood")
 public class FloodController {
 
+    private static final Logger logger = LogManager.getLogger(FloodController.class);
+
     @Autowired
     private FloodService floodService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ResponseCache responseCache;
+
     /**
      * Retrieves flood information for the specified fire station numbers
      * @param stationNumbers
      * @return a responseEntity containing a list of FloodDTO objects with the flood information
-     * for the specified stations.
+     * for the specified stations, served from the cache while the data and the date are unchanged.
      */
     @GetMapping("/stations")
-    public ResponseEntity<List<FloodDTO>> getFloodInformation(@RequestParam("stations") List<Integer> stationNumbers) {
-        List<FloodDTO> floodInformation = floodService.getFloodInformation(stationNumbers);
-        return ResponseEntity.ok(floodInformation);
+    public ResponseEntity<byte[]> getFloodInformation(@RequestParam("stations") List<Integer> stationNumbers) {
+        byte[] floodInformation = responseCache.get("/flood/stations", stationNumbers.toString(),
+                EnumSet.allOf(Source.class), () -> floodService.getFloodInformation(stationNumbers));
+        return ResponseCache.ok(floodInformation);
+    }
+
+    /**
+     * @param stationNumbers
+     * @return Response HTTP 200 (ok) streaming the households of the stations as newline delimited JSON,
+     * in the same order as the list, each one written as soon as it is built
+     */
+    @GetMapping(value = "/stations", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamFloodInformation(@RequestParam("stations") List<Integer> stationNumbers) {
+        logger.debug("Streaming the households of stations {}", stationNumbers);
+        return NdjsonStream.of(objectMapper, floodService.streamFloodInformation(stationNumbers));
     }
 }
\ No newline at end of file
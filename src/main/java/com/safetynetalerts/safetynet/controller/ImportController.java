@@ -0,0 +1,62 @@
+package com.safetynetalerts.safetynet.controller;
+
+import java.io.InputStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.safetynetalerts.safetynet.dto.ImportReportDTO;
+import com.safetynetalerts.safetynet.service.ImportService;
+import com.safetynetalerts.safetynet.service.ImportService.Format;
+
+/**
+ * Controller class to handle bulk imports of persons, fire stations and medical records.
+ */
+@RestController
+@RequestMapping("/import")
+public class ImportController {
+
+    private static final Logger logger = LogManager.getLogger(ImportController.class);
+
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    @Autowired
+    private ImportService importService;
+
+    /**
+     * @param section persons, firestations or medicalrecords
+     * @param contentType application/x-ndjson for one JSON record per line, text/csv for a header line then one record per line
+     * @param body the records, streamed to the parser
+     * @return Response HTTP 200 (ok) with the report of the import, invalid records being rejected and reported,
+     * 400 (bad request) for an unknown section or CSV columns
+     */
+    @PostMapping(value = "/{section}", consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE})
+    public ResponseEntity<ImportReportDTO> importRecords(@PathVariable("section") String section,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+        Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(contentType))
+                ? Format.NDJSON : Format.CSV;
+        logger.debug("Importing {} from {}", section, format);
+
+        try {
+            ImportReportDTO report = importService.importRecords(section, format, body);
+            logger.info("Imported {} successfully: {}", section, report);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid import of {}: {}", section, e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            logger.error("Error importing {}: ", section, e);
+            return ResponseEntity.status(500).build();
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,8 +16,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynetalerts.safetynet.dto.ChangesDTO;
 import com.safetynetalerts.safetynet.dto.MedicalRecordDTO;
+import com.safetynetalerts.safetynet.dto.PageDTO;
+import com.safetynetalerts.safetynet.repository.MedicalRecordRepository;
 import com.safetynetalerts.safetynet.service.MedicalRecordService;
 
 import lombok.Data;
@@ -31,12 +38,25 @@ public class MedicalRecordController {
     @Autowired
     private MedicalRecordService medicalRecordService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
     /**
      *
-     * @return if status ok (200), get a list of medical records
+     * @param request carrying the If-None-Match header of a conditional GET
+     * @return if status ok (200), get a list of medical records tagged with their version,
+     * 304 (not modified) without reading them if the client already holds that version
      */
     @GetMapping
-    public ResponseEntity<List<MedicalRecordDTO>> getAllMedicalRecords() {
+    public ResponseEntity<List<MedicalRecordDTO>> getAllMedicalRecords(WebRequest request) {
+        return EntityTags.ifNoneMatch(request, "medicalrecords", medicalRecordRepository::getVersion,
+                this::fetchAllMedicalRecords);
+    }
+
+    private ResponseEntity<List<MedicalRecordDTO>> fetchAllMedicalRecords() {
         logger.debug("Fetching all medical records");
 
         List<MedicalRecordDTO> medicalRecords;
@@ -51,10 +71,63 @@ public class MedicalRecordController {
         }
     }
 
+    /**
+     * @param limit maximum number of medical records of the page
+     * @param cursor next cursor of the previous page, none for the first page
+     * @return Response HTTP 200 (ok) with one page of medical records ordered by first and last name and the cursor of the next page,
+     * 400 (bad request) for a limit out of range or an invalid cursor
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<PageDTO<MedicalRecordDTO>> getMedicalRecordsPage(@RequestParam("limit") int limit,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        logger.debug("Fetching a page of {} medical records after cursor {}", limit, cursor);
+
+        try {
+            PageDTO<MedicalRecordDTO> page = medicalRecordService.getMedicalRecordsPage(cursor, limit);
+            logger.info("Fetched a page of medical records successfully. Number of medical records: {}", page.getItems().size());
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid page of medical records: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            logger.error("Error fetching a page of medical records: ", e);
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    /**
+     * @return Response HTTP 200 (ok) streaming every medical record as newline delimited JSON, written one by one
+     * from the store without building the whole list
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMedicalRecords() {
+        logger.debug("Streaming all medical records");
+        return NdjsonStream.of(objectMapper, medicalRecordService.streamAllMedicalRecords());
+    }
+
+    /**
+     * @param since version of the medical records held by the client, as returned by the previous call
+     * @return Response HTTP 200 (ok) with the medical records inserted, updated and deleted since that version,
+     * or all of them flagged as a resync when the client is too far behind
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ChangesDTO<MedicalRecordDTO>> getMedicalRecordChanges(@RequestParam("since") long since) {
+        logger.debug("Fetching medical records changed since version {}", since);
+
+        try {
+            ChangesDTO<MedicalRecordDTO> changes = medicalRecordService.getChangesSince(since);
+            logger.info("Fetched medical records changes up to version {}, resync: {}", changes.getVersion(), changes.isResync());
+            return ResponseEntity.ok(changes);
+        } catch (Exception e) {
+            logger.error("Error fetching medical records changes: ", e);
+            return ResponseEntity.status(500).build();
+        }
+    }
+
     /**
      *
      * @param medicalRecordDTO
-     * @return if status ok, add medical records
+     * @return if status ok, add medical records, 409 (conflict) if a record with the same names exists
      */
     @PostMapping
     public ResponseEntity<Void> addMedicalRecord(@RequestBody MedicalRecordDTO medicalRecordDTO) {
@@ -73,6 +146,9 @@ public class MedicalRecordController {
             logger.info("Added medical records successfully. {}", medicalRecordDTO);
             return ResponseEntity.ok().build();
 
+        } catch (IllegalStateException e) {
+            logger.error("Medical record not added: {} {}", e.getMessage(), medicalRecordDTO);
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             logger.error("Error adding medical records: ", medicalRecordDTO ,e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
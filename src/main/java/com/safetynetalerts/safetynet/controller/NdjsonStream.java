@@ -0,0 +1,52 @@
+package com.safetynetalerts.safetynet.controller;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Newline delimited JSON responses of the list endpoints
+ *
+ * Each entity is written to the response by one JsonGenerator as the stream hands it out, one
+ * JSON object per line, so the listing never exists as a whole in memory.
+ */
+final class NdjsonStream {
+
+    private NdjsonStream() {
+    }
+
+    /**
+     * @param entities the entities to write, consumed and closed by the response
+     * @return a 200 response writing the entities while it is sent
+     */
+    static <T> ResponseEntity<StreamingResponseBody> of(ObjectMapper objectMapper, Stream<T> entities) {
+        // Lets the response buffer decide when to send, rather than flushing after each entity
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (Stream<T> stream = entities;
+                 JsonGenerator generator = writer.createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                // Separates the root values by a newline instead of a space
+                generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+                Iterator<T> iterator = stream.iterator();
+                if (!iterator.hasNext()) {
+                    return;
+                }
+                while (iterator.hasNext()) {
+                    writer.writeValue(generator, iterator.next());
+                }
+                generator.writeRaw('\n');
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+}
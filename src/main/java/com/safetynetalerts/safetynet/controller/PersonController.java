@@ -6,6 +6,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -17,8 +18,14 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynetalerts.safetynet.dto.ChangesDTO;
+import com.safetynetalerts.safetynet.dto.PageDTO;
 import com.safetynetalerts.safetynet.dto.PersonDTO;
+import com.safetynetalerts.safetynet.repository.PersonRepository;
 import com.safetynetalerts.safetynet.service.PersonService;
 
 import lombok.Data;
@@ -33,11 +40,23 @@ public class PersonController {
     @Autowired
     private PersonService personService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PersonRepository personRepository;
+
     /**
-     * @return Response HTTP 200 (ok) list of persons if no error
+     * @param request carrying the If-None-Match header of a conditional GET
+     * @return Response HTTP 200 (ok) list of persons if no error, tagged with the version of the persons,
+     * or 304 (not modified) without reading the persons if the client already holds that version
      */
     @GetMapping
-    public ResponseEntity<List<PersonDTO>> getAllPersons() {
+    public ResponseEntity<List<PersonDTO>> getAllPersons(WebRequest request) {
+        return EntityTags.ifNoneMatch(request, "persons", personRepository::getVersion, this::fetchAllPersons);
+    }
+
+    private ResponseEntity<List<PersonDTO>> fetchAllPersons() {
         logger.debug("Fetching all persons");
 
         List<PersonDTO> persons;
@@ -54,11 +73,64 @@ public class PersonController {
 
     }
 
+    /**
+     * @param limit maximum number of persons of the page
+     * @param cursor next cursor of the previous page, none for the first page
+     * @return Response HTTP 200 (ok) with one page of persons ordered by first and last name and the cursor of the next page,
+     * 400 (bad request) for a limit out of range or an invalid cursor
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<PageDTO<PersonDTO>> getPersonsPage(@RequestParam("limit") int limit,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        logger.debug("Fetching a page of {} persons after cursor {}", limit, cursor);
+
+        try {
+            PageDTO<PersonDTO> page = personService.getPersonsPage(cursor, limit);
+            logger.info("Fetched a page of persons successfully. Number of persons: {}", page.getItems().size());
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid page of persons: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            logger.error("Error fetching a page of persons: ", e);
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    /**
+     * @return Response HTTP 200 (ok) streaming every person as newline delimited JSON, written one by one
+     * from the store without building the whole list
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamPersons() {
+        logger.debug("Streaming all persons");
+        return NdjsonStream.of(objectMapper, personService.streamAllPersons());
+    }
+
+    /**
+     * @param since version of the persons held by the client, as returned by the previous call
+     * @return Response HTTP 200 (ok) with the persons inserted, updated and deleted since that version,
+     * or all of them flagged as a resync when the client is too far behind
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ChangesDTO<PersonDTO>> getPersonChanges(@RequestParam("since") long since) {
+        logger.debug("Fetching persons changed since version {}", since);
+
+        try {
+            ChangesDTO<PersonDTO> changes = personService.getChangesSince(since);
+            logger.info("Fetched persons changes up to version {}, resync: {}", changes.getVersion(), changes.isResync());
+            return ResponseEntity.ok(changes);
+        } catch (Exception e) {
+            logger.error("Error fetching persons changes: ", e);
+            return ResponseEntity.status(500).build();
+        }
+    }
+
 
     /**
      *
      * @param personDTO
-     * @return add person (HTTP 200)
+     * @return add person (HTTP 200), 409 (conflict) if a person with the same names exists
      */
     @PostMapping
     public ResponseEntity<Void> addPerson(@RequestBody PersonDTO personDTO) {
@@ -77,6 +149,9 @@ public class PersonController {
             logger.info("Added person successfully. {}", personDTO);
             return ResponseEntity.ok().build();
 
+        } catch (IllegalStateException e) {
+            logger.error("Person not added: {} {}", e.getMessage(), personDTO);
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             logger.error("Error adding persons: ", personDTO ,e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -1,6 +1,6 @@
 package com.safetynetalerts.safetynet.controller;
 
-import java.util.List;
+import java.util.EnumSet;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -8,6 +8,8 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.safetynetalerts.safetynet.cache.ResponseCache;
+import com.safetynetalerts.safetynet.cache.ResponseCache.Source;
 import com.safetynetalerts.safetynet.service.PhoneAlertService;
 
 /**
@@ -19,14 +21,19 @@ public class PhoneAlertController {
     @Autowired
     private PhoneAlertService phoneAlertService;
 
+    @Autowired
+    private ResponseCache responseCache;
+
     /**
      * HTTP GET requests
      * @param stationNumber the fireStation number to fetch phone numbers for
      * @return A ResponseEntity containing a list of phone numbers
      */
     @GetMapping("/phoneAlert")
-    public ResponseEntity<List<String>> getPhoneNumbersByFireStation(@RequestParam("fireStation") int stationNumber) {
-        List<String> phoneNumbers = phoneAlertService.getPhoneNumbersByFireStation(stationNumber);
-        return ResponseEntity.ok(phoneNumbers);
+    public ResponseEntity<byte[]> getPhoneNumbersByFireStation(@RequestParam("fireStation") int stationNumber) {
+        byte[] phoneNumbers = responseCache.get("/phoneAlert", String.valueOf(stationNumber),
+                EnumSet.of(Source.PERSONS, Source.FIRESTATIONS),
+                () -> phoneAlertService.getPhoneNumbersByFireStation(stationNumber));
+        return ResponseCache.ok(phoneNumbers);
     }
 }
\ No newline at end of file
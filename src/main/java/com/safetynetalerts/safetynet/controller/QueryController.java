@@ -0,0 +1,50 @@
+package com.safetynetalerts.safetynet.controller;
+
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.safetynetalerts.safetynet.dto.QueryResultDTO;
+import com.safetynetalerts.safetynet.dto.SubQueryDTO;
+import com.safetynetalerts.safetynet.service.QueryService;
+
+/**
+ * Controller class to answer several alert queries in one request.
+ */
+@RestController
+public class QueryController {
+
+    private static final Logger logger = LogManager.getLogger(QueryController.class);
+
+    @Autowired
+    private QueryService queryService;
+
+    /**
+     * @param queries the named sub-queries, each one the query and parameters of an alert URL
+     * @return Response HTTP 200 (ok) with the result and timing of each sub-query, all read from the same version of the data,
+     * 400 (bad request) for a missing or repeated name, an unknown query or a missing parameter
+     */
+    @PostMapping("/query")
+    public ResponseEntity<QueryResultDTO> runQueries(@RequestBody List<SubQueryDTO> queries) {
+        logger.debug("Running {} sub-queries", queries.size());
+
+        try {
+            QueryResultDTO result = queryService.runQueries(queries);
+            logger.info("Ran {} sub-queries successfully in {} us", queries.size(), result.getElapsedMicros());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid sub-queries: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            logger.error("Error running sub-queries: ", e);
+            return ResponseEntity.status(500).build();
+        }
+    }
+}
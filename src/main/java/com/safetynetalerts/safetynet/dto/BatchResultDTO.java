@@ -0,0 +1,19 @@
+package com.safetynetalerts.safetynet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Provide the results of URL "/batch": the number of mutations applied, all of them or none,
+ * and when none the error of the first mutation which could not be applied
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResultDTO {
+
+    private int applied;
+    private String error;
+
+}
@@ -0,0 +1,25 @@
+package com.safetynetalerts.safetynet.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Provide the results of the "/changes" URLs: what changed since the version held by the client
+ *
+ * When resync is true the client is too far behind, upserted then holds every entity and
+ * the client drops what it held. Deleted holds the entities as they were when deleted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangesDTO<T> {
+
+    private long version;
+    private boolean resync;
+    private List<T> upserted;
+    private List<T> deleted;
+
+}
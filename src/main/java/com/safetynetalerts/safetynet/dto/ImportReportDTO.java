@@ -0,0 +1,31 @@
+package com.safetynetalerts.safetynet.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Provide the results of URL "/import": what a bulk import read, kept and applied
+ *
+ * Received counts the records read, rejected those which could not be parsed or failed the
+ * validation, duplicates those replaced by a later record with the same key in the same import,
+ * and imported the records applied. Errors holds the first errors, each with its line number.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReportDTO {
+
+    private String section;
+    private String format;
+    private int received;
+    private int rejected;
+    private int duplicates;
+    private int imported;
+    private List<String> errors;
+    private long elapsedMillis;
+    private double recordsPerSecond;
+
+}
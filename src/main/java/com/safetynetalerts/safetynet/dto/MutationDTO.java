@@ -0,0 +1,25 @@
+package com.safetynetalerts.safetynet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One mutation of the batch of URL "/batch"
+ *
+ * Operation is add, update or delete, applied to the one of person, fireStation or medicalRecord
+ * which is set. A delete only needs the names, or the address of the fire station. Cascade, on the
+ * delete of a person or a medical record, also deletes the other one with the same names.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MutationDTO {
+
+    private String operation;
+    private PersonDTO person;
+    private FireStationDTO fireStation;
+    private MedicalRecordDTO medicalRecord;
+    private boolean cascade;
+
+}
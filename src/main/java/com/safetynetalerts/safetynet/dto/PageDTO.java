@@ -0,0 +1,20 @@
+package com.safetynetalerts.safetynet.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Provide one page of a listing: the items, and the cursor of the next page or null on the last one
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageDTO<T> {
+
+    private List<T> items;
+    private String next;
+
+}
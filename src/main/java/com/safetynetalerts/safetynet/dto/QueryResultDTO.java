@@ -0,0 +1,22 @@
+package com.safetynetalerts.safetynet.dto;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Provide the results of URL "/query": the result of each sub-query by name, in the order of the
+ * request, all of them read from the data at the given version
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryResultDTO {
+
+    private long version;
+    private Map<String, SubQueryResultDTO> results;
+    private long elapsedMicros;
+
+}
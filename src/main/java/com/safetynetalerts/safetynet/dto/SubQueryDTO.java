@@ -0,0 +1,25 @@
+package com.safetynetalerts.safetynet.dto;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One named sub-query of URL "/query"
+ *
+ * Query names the alert URL to answer: fire, childAlert, phoneAlert, flood, communityEmail,
+ * personInfo or firestation. Params holds its request parameters by name, the stations of flood
+ * being separated by commas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubQueryDTO {
+
+    private String name;
+    private String query;
+    private Map<String, String> params;
+
+}
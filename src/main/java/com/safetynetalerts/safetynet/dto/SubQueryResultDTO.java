@@ -0,0 +1,20 @@
+package com.safetynetalerts.safetynet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of one sub-query of URL "/query": the body its alert URL would return, or the error
+ * which failed it, and the time it took
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubQueryResultDTO {
+
+    private Object result;
+    private String error;
+    private long elapsedMicros;
+
+}
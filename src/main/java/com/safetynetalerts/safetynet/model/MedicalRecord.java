@@ -2,9 +2,18 @@ package com.safetynetalerts.safetynet.model;
 
 import java.util.List;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.safetynetalerts.safetynet.util.AgeCalculator;
+import com.safetynetalerts.safetynet.util.TermDictionary;
+
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 /**
  * MedicalRecord Model
@@ -15,13 +24,134 @@ import lombok.NoArgsConstructor;
 
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
+@JsonPropertyOrder({"firstName", "lastName", "birthdate", "medications", "allergies"})
 public class MedicalRecord {
 
     private String firstName;
     private String lastName;
     private String birthdate;
-    private List<String> medications;
-    private List<String> allergies;
+
+    /**
+     * Medications and allergies as codes of a {@link TermDictionary}, decoded when they are read.
+     * Replaced as a whole, so a reader never mixes the codes of one dictionary with another.
+     */
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private EncodedTerms terms = EncodedTerms.NONE;
+
+    /**
+     * Birthdate parsed as epoch day when it is set, {@link AgeCalculator#UNKNOWN} without birthdate
+     */
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private long birthEpochDay = AgeCalculator.UNKNOWN;
+
+    public MedicalRecord(String firstName, String lastName, String birthdate, List<String> medications, List<String> allergies) {
+        this.firstName = firstName;
+        this.lastName = lastName;
+        setBirthdate(birthdate);
+        setMedications(medications);
+        setAllergies(allergies);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the birthdate is not formatted as MM/dd/yyyy
+     */
+    public void setBirthdate(String birthdate) {
+        this.birthEpochDay = AgeCalculator.parseBirthdate(birthdate);
+        this.birthdate = birthdate;
+    }
+
+    @EqualsAndHashCode.Include
+    @ToString.Include(name = "medications")
+    public List<String> getMedications() {
+        return terms.medications();
+    }
+
+    public void setMedications(List<String> medications) {
+        EncodedTerms current = terms.in(TermDictionary.current());
+        this.terms = new EncodedTerms(current.dictionary, current.dictionary.encode(medications), current.allergies);
+    }
+
+    @EqualsAndHashCode.Include
+    @ToString.Include(name = "allergies")
+    public List<String> getAllergies() {
+        return terms.allergies();
+    }
+
+    public void setAllergies(List<String> allergies) {
+        EncodedTerms current = terms.in(TermDictionary.current());
+        this.terms = new EncodedTerms(current.dictionary, current.medications, current.dictionary.encode(allergies));
+    }
+
+    /**
+     * Encodes the medications and allergies again with the current dictionary, which leaves them
+     * as they are but lets an older dictionary be collected once no record uses it
+     */
+    public void recode() {
+        this.terms = terms.in(TermDictionary.current());
+    }
+
+    /**
+     * @param medication the term looked for
+     * @return true if the medications hold the term, comparing codes
+     */
+    public boolean hasMedication(TermDictionary.Term medication) {
+        EncodedTerms current = terms;
+        if (current.medications == null || current.dictionary == null) {
+            return false;
+        }
+        int code = medication.codeIn(current.dictionary);
+        if (code == TermDictionary.NULL) {
+            return false;
+        }
+        for (int medicationCode : current.medications) {
+            if (medicationCode == code) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Codes of the medications and allergies along with the dictionary they belong to
+     */
+    private static final class EncodedTerms {
+
+        private static final EncodedTerms NONE = new EncodedTerms(null, null, null);
+
+        private final TermDictionary dictionary;
+        private final int[] medications;
+        private final int[] allergies;
+
+        private EncodedTerms(TermDictionary dictionary, int[] medications, int[] allergies) {
+            this.dictionary = dictionary;
+            this.medications = medications;
+            this.allergies = allergies;
+        }
+
+        private List<String> medications() {
+            return medications == null ? null : dictionary.decode(medications);
+        }
+
+        private List<String> allergies() {
+            return allergies == null ? null : dictionary.decode(allergies);
+        }
+
+        /**
+         * @return the same terms encoded with the dictionary
+         */
+        private EncodedTerms in(TermDictionary dictionary) {
+            if (this.dictionary == dictionary) {
+                return this;
+            }
+            return new EncodedTerms(dictionary, dictionary.encode(medications()), dictionary.encode(allergies()));
+        }
+    }
 
 }
@@ -0,0 +1,38 @@
+package com.safetynetalerts.safetynet.model;
+
+import java.util.List;
+
+import com.safetynetalerts.safetynet.util.AgeCalculator;
+
+import lombok.Value;
+
+/**
+ * Resident Model
+ *
+ * A person joined with its medical record and the stations covering its address.
+ * Residents are immutable: a change of any of the three entities builds a new resident.
+ *
+ */
+
+@Value
+public class Resident {
+
+    Person person;
+    MedicalRecord medicalRecord;
+    List<Integer> stations;
+
+    /**
+     * @return the birthdate of the medical record as epoch day, {@link AgeCalculator#UNKNOWN} without medical record
+     */
+    public long getBirthEpochDay() {
+        return medicalRecord == null ? AgeCalculator.UNKNOWN : medicalRecord.getBirthEpochDay();
+    }
+
+    /**
+     * @return the first station covering the address, or an empty string if the address is not covered
+     */
+    public String getStationNumber() {
+        return stations.isEmpty() ? "" : String.valueOf(stations.get(0));
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.safetynetalerts.safetynet.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * StationCoverage Model
+ *
+ * Residents covered by a fireStation, with the number of adults and children among them
+ *
+ */
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StationCoverage {
+
+    private List<Resident> residents;
+    private int numberOfAdults;
+    private int numberOfChildren;
+
+}
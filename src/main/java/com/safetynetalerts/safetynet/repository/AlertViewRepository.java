@@ -0,0 +1,16 @@
+package com.safetynetalerts.safetynet.repository;
+
+import java.util.List;
+
+import com.safetynetalerts.safetynet.model.Resident;
+import com.safetynetalerts.safetynet.model.StationCoverage;
+
+public interface AlertViewRepository {
+
+    StationCoverage getCoverage(int stationNumber);
+    StationCoverage getCoverage(int stationNumber, int minAge, int maxAge);
+    List<String> getPhoneNumbers(int stationNumber);
+    List<String> getEmailsByCity(String city);
+    List<Resident> getResidentsByAge(String address, int minAge, int maxAge);
+
+}
@@ -0,0 +1,249 @@
+package com.safetynetalerts.safetynet.repository;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import org.pcollections.HashTreePMap;
+import org.pcollections.IntTreePMap;
+import org.pcollections.PMap;
+import org.springframework.stereotype.Repository;
+
+import com.safetynetalerts.safetynet.model.FireStation;
+import com.safetynetalerts.safetynet.model.MedicalRecord;
+import com.safetynetalerts.safetynet.model.Person;
+import com.safetynetalerts.safetynet.model.Resident;
+import com.safetynetalerts.safetynet.model.StationCoverage;
+import com.safetynetalerts.safetynet.util.AgeCalculator;
+
+/**
+ * Implementation of the AlertViewRepository and ResidentRepository interfaces
+ * This class keeps the answers of the alert endpoints as materialized views
+ *
+ * Each person is joined once with its medical record and the stations covering its address into
+ * a {@link Resident}, which is rebuilt when one of the three entities changes. The coverage of each
+ * station (residents and phone numbers), the households of each address, the residents of each
+ * last name and the emails of each city are updated from these changes, so that reading them is a
+ * lookup instead of a pass over the whole dataset. Residents are sorted by birthdate, which turns
+ * children and age ranges into range lookups bounded by cutoff days of the current date.
+ * The views are immutable and published through volatile fields by the listeners, which the
+ * {@link DataStore} calls one at a time.
+ */
+@Repository
+public class AlertViewRepositoryImpl implements AlertViewRepository, ResidentRepository {
+
+    // Source indexes, only used while updating the views
+    private PMap<String, Resident> residents = HashTreePMap.empty();
+    private GroupIndex<Resident> residentsByName = GroupIndex.of(List.of(),
+            resident -> MedicalRecordIndex.key(resident.getPerson().getFirstName(), resident.getPerson().getLastName()),
+            AlertViewRepositoryImpl::key);
+    private StationIndex stationIndex = StationIndex.EMPTY;
+    private MedicalRecordIndex medicalRecordIndex = MedicalRecordIndex.of(List.of());
+
+    private volatile IntTreePMap<StationView> stationViews = IntTreePMap.empty();
+    private volatile PMap<String, BirthdateIndex> households = HashTreePMap.empty();
+    private volatile GroupIndex<Resident> residentsByLastName = GroupIndex.of(List.of(),
+            resident -> resident.getPerson().getLastName(), AlertViewRepositoryImpl::key);
+    private volatile PMap<String, DistinctValues> emailsByCity = HashTreePMap.empty();
+
+    //Constructor
+    public AlertViewRepositoryImpl(DataStore dataStore) {
+        synchronized (this) {
+            dataStore.getMedicalRecords().forEach(medicalRecord -> medicalRecordChanged(null, medicalRecord));
+            dataStore.getFireStations().forEach(fireStation -> fireStationChanged(null, fireStation));
+            dataStore.getPersons().forEach(person -> personChanged(null, person));
+        }
+        dataStore.addPersonListener(this::personChanged);
+        dataStore.addFireStationListener(this::fireStationChanged);
+        dataStore.addMedicalRecordListener(this::medicalRecordChanged);
+    }
+
+    private static String key(Person person) {
+        return DataStore.key(person.getFirstName(), person.getLastName());
+    }
+
+    private static String key(Resident resident) {
+        return key(resident.getPerson());
+    }
+
+    @Override
+    public StationCoverage getCoverage(int stationNumber) {
+        BirthdateIndex covered = stationViews.getOrDefault(stationNumber, StationView.EMPTY).getResidents();
+        List<Resident> residentList = covered.getResidents();
+        int children = covered.countBornBetween(bornAfter(AgeCalculator.CHILD_MAX_AGE), Long.MAX_VALUE);
+        return new StationCoverage(residentList, residentList.size() - children, children);
+    }
+
+    /**
+     * @return the residents covered by the station whose age is within the bounds, from the oldest to the youngest
+     */
+    @Override
+    public StationCoverage getCoverage(int stationNumber, int minAge, int maxAge) {
+        BirthdateIndex covered = stationViews.getOrDefault(stationNumber, StationView.EMPTY).getResidents();
+        long after = bornAfter(maxAge);
+        long notAfter = bornNotAfter(minAge);
+        List<Resident> residentList = covered.bornBetween(after, notAfter);
+        int children = covered.countBornBetween(Math.max(after, bornAfter(AgeCalculator.CHILD_MAX_AGE)), notAfter);
+        return new StationCoverage(residentList, residentList.size() - children, children);
+    }
+
+    @Override
+    public List<String> getPhoneNumbers(int stationNumber) {
+        StationView view = stationViews.get(stationNumber);
+        return view == null ? Collections.emptyList() : view.getPhoneNumbers();
+    }
+
+    @Override
+    public List<String> getEmailsByCity(String city) {
+        DistinctValues emails = city == null ? null : emailsByCity.get(city);
+        return emails == null ? Collections.emptyList() : emails.list();
+    }
+
+    /**
+     * @return the residents of the address whose age is within the bounds, from the oldest to the youngest
+     */
+    @Override
+    public List<Resident> getResidentsByAge(String address, int minAge, int maxAge) {
+        return household(address).bornBetween(bornAfter(maxAge), bornNotAfter(minAge));
+    }
+
+    @Override
+    public List<Resident> getResidentsByAddress(String address) {
+        return household(address).getResidents();
+    }
+
+    @Override
+    public Function<String, List<Resident>> getHouseholds() {
+        PMap<String, BirthdateIndex> current = households;
+        return address -> {
+            BirthdateIndex household = address == null ? null : current.get(address);
+            return household == null ? Collections.emptyList() : household.getResidents();
+        };
+    }
+
+    @Override
+    public List<Resident> getResidentsByLastName(String lastName) {
+        return residentsByLastName.get(lastName);
+    }
+
+    /**
+     * @return the epoch day after which persons are at most the given age, excluding unknown birthdates
+     */
+    private static long bornAfter(int maxAge) {
+        return maxAge == Integer.MAX_VALUE ? AgeCalculator.UNKNOWN : AgeCalculator.latestBirthEpochDay(maxAge + 1);
+    }
+
+    /**
+     * @return the epoch day up to which persons are at least the given age
+     */
+    private static long bornNotAfter(int minAge) {
+        return AgeCalculator.latestBirthEpochDay(minAge);
+    }
+
+    private synchronized void personChanged(Person previous, Person current) {
+        Resident previousResident = previous == null ? null : residents.get(key(previous));
+        residentChanged(previousResident, current == null ? null : join(current));
+
+        if (previous == null || current == null || !Objects.equals(previous.getCity(), current.getCity())
+                || !Objects.equals(previous.getEmail(), current.getEmail())) {
+            if (previous != null) {
+                updateCity(previous.getCity(), emails -> emails.minus(previous.getEmail()));
+            }
+            if (current != null) {
+                updateCity(current.getCity(), emails -> emails.plus(current.getEmail()));
+            }
+        }
+    }
+
+    private synchronized void fireStationChanged(FireStation previous, FireStation current) {
+        stationIndex = stationIndex.changed(previous, current);
+        if (previous != null) {
+            rejoin(household(previous.getAddress()).getResidents());
+        }
+        if (current != null && (previous == null || !Objects.equals(previous.getAddress(), current.getAddress()))) {
+            rejoin(household(current.getAddress()).getResidents());
+        }
+    }
+
+    private synchronized void medicalRecordChanged(MedicalRecord previous, MedicalRecord current) {
+        medicalRecordIndex = medicalRecordIndex.changed(previous, current);
+        String previousName = previous == null ? null : MedicalRecordIndex.key(previous.getFirstName(), previous.getLastName());
+        String currentName = current == null ? null : MedicalRecordIndex.key(current.getFirstName(), current.getLastName());
+        rejoin(residentsByName.get(previousName));
+        if (!Objects.equals(previousName, currentName)) {
+            rejoin(residentsByName.get(currentName));
+        }
+    }
+
+    private Resident join(Person person) {
+        return new Resident(person, medicalRecordIndex.get(person.getFirstName(), person.getLastName()),
+                stationIndex.stations(person.getAddress()));
+    }
+
+    /**
+     * Joins again the given residents with the current medical records and stations
+     */
+    private void rejoin(List<Resident> toRejoin) {
+        for (Resident resident : toRejoin) {
+            Resident rejoined = join(resident.getPerson());
+            if (!rejoined.equals(resident)) {
+                residentChanged(resident, rejoined);
+            }
+        }
+    }
+
+    /**
+     * Replaces a resident in every view, the previous one being null for a new person and the current one for a deleted person
+     */
+    private void residentChanged(Resident previous, Resident current) {
+        String key = previous != null ? key(previous) : key(current);
+        List<Integer> stationsAfter = current == null ? List.of() : current.getStations();
+        if (previous != null) {
+            for (int station : previous.getStations()) {
+                if (!stationsAfter.contains(station)) {
+                    updateStation(station, view -> view.remove(key));
+                }
+            }
+            if (current == null || !Objects.equals(previous.getPerson().getAddress(), current.getPerson().getAddress())) {
+                updateHousehold(previous.getPerson().getAddress(), household -> household.remove(key));
+            }
+        }
+        if (current != null) {
+            for (int station : stationsAfter) {
+                updateStation(station, view -> view.put(key, current));
+            }
+            updateHousehold(current.getPerson().getAddress(), household -> household.put(key, current));
+        }
+        residents = current == null ? residents.minus(key) : residents.plus(key, current);
+        residentsByName = residentsByName.changed(previous, current);
+        residentsByLastName = residentsByLastName.changed(previous, current);
+    }
+
+    private BirthdateIndex household(String address) {
+        BirthdateIndex household = address == null ? null : households.get(address);
+        return household == null ? BirthdateIndex.EMPTY : household;
+    }
+
+    private void updateStation(int station, UnaryOperator<StationView> change) {
+        StationView view = change.apply(stationViews.getOrDefault(station, StationView.EMPTY));
+        stationViews = view.isEmpty() ? stationViews.minus(station) : stationViews.plus(station, view);
+    }
+
+    private void updateHousehold(String address, UnaryOperator<BirthdateIndex> change) {
+        if (address == null) {
+            return;
+        }
+        BirthdateIndex household = change.apply(household(address));
+        households = household.isEmpty() ? households.minus(address) : households.plus(address, household);
+    }
+
+    private void updateCity(String city, UnaryOperator<DistinctValues> change) {
+        if (city == null) {
+            return;
+        }
+        DistinctValues emails = change.apply(emailsByCity.getOrDefault(city, DistinctValues.EMPTY));
+        emailsByCity = emails.isEmpty() ? emailsByCity.minus(city) : emailsByCity.plus(city, emails);
+    }
+}
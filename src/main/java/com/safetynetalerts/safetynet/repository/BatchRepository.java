@@ -0,0 +1,9 @@
+package com.safetynetalerts.safetynet.repository;
+
+import java.util.List;
+
+public interface BatchRepository {
+
+    void applyBatch(List<Mutation> mutations);
+
+}
@@ -0,0 +1,158 @@
+package com.safetynetalerts.safetynet.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.pcollections.OrderedPMap;
+import org.springframework.stereotype.Repository;
+
+import com.safetynetalerts.safetynet.model.FireStation;
+import com.safetynetalerts.safetynet.model.MedicalRecord;
+import com.safetynetalerts.safetynet.model.Person;
+
+/**
+ * Applies batches of mutations across the persons, fire stations and medical records
+ *
+ * A batch is played in order, under the write lock of the store, against working copies of the
+ * three tables taken from one snapshot, so each mutation sees the effect of the previous ones.
+ * The first mutation which can not be applied rejects the whole batch. Otherwise its net changes
+ * are published under a single version and journaled as one line, see
+ * {@link DataStore#writeAtomically}.
+ */
+@Repository
+public class BatchRepositoryImpl implements BatchRepository {
+
+    private final DataStore dataStore;
+
+    /**
+     * Constructor
+     */
+    public BatchRepositoryImpl(DataStore dataStore) {
+        this.dataStore = dataStore;
+    }
+
+    /**
+     * @throws IllegalArgumentException naming the index of the first mutation which can not be
+     * applied, in which case nothing is applied
+     */
+    @Override
+    public void applyBatch(List<Mutation> mutations) {
+        dataStore.writeAtomically(snapshot -> {
+            Working<Person> persons = new Working<>(snapshot.table(DataStore.PERSONS));
+            Working<FireStation> fireStations = new Working<>(snapshot.table(DataStore.FIRESTATIONS));
+            Working<MedicalRecord> medicalRecords = new Working<>(snapshot.table(DataStore.MEDICALRECORDS));
+            for (int i = 0; i < mutations.size(); i++) {
+                try {
+                    apply(mutations.get(i), persons, fireStations, medicalRecords);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Mutation " + i + ": " + e.getMessage(), e);
+                }
+            }
+            Map<String, Map<String, ?>> changes = new LinkedHashMap<>();
+            changes.put(DataStore.PERSONS, persons.changes);
+            changes.put(DataStore.FIRESTATIONS, fireStations.changes);
+            changes.put(DataStore.MEDICALRECORDS, medicalRecords.changes);
+            return changes;
+        });
+    }
+
+    private static void apply(Mutation mutation, Working<Person> persons, Working<FireStation> fireStations,
+                              Working<MedicalRecord> medicalRecords) {
+        if (mutation.getPerson() != null) {
+            Person person = mutation.getPerson();
+            String key = DataStore.key(person.getFirstName(), person.getLastName());
+            switch (mutation.getOperation()) {
+                case ADD -> persons.add(key, person, "Person already exists");
+                case UPDATE -> persons.replace(key, person, "Person not found");
+                case DELETE -> {
+                    persons.replace(key, null, "Person not found");
+                    if (mutation.isCascade()) {
+                        medicalRecords.put(key, null);
+                    }
+                }
+            }
+        } else if (mutation.getFireStation() != null) {
+            FireStation fireStation = mutation.getFireStation();
+            String key = DataStore.key(fireStation.getAddress(), fireStation.getStation());
+            switch (mutation.getOperation()) {
+                case ADD -> fireStations.put(key, fireStation);
+                case UPDATE -> {
+                    removeAddress(fireStations, fireStation.getAddress());
+                    fireStations.put(key, fireStation);
+                }
+                case DELETE -> removeAddress(fireStations, fireStation.getAddress());
+            }
+        } else if (mutation.getMedicalRecord() != null) {
+            MedicalRecord medicalRecord = mutation.getMedicalRecord();
+            String key = DataStore.key(medicalRecord.getFirstName(), medicalRecord.getLastName());
+            switch (mutation.getOperation()) {
+                case ADD -> medicalRecords.add(key, medicalRecord, "Medical record already exists");
+                case UPDATE -> medicalRecords.replace(key, medicalRecord, "Medical record not found");
+                case DELETE -> {
+                    medicalRecords.replace(key, null, "Medical record not found");
+                    if (mutation.isCascade()) {
+                        persons.put(key, null);
+                    }
+                }
+            }
+        } else {
+            throw new IllegalArgumentException("No person, fire station or medical record");
+        }
+    }
+
+    /**
+     * Removes every mapping of the address, the fire station table being small enough to be scanned
+     */
+    private static void removeAddress(Working<FireStation> fireStations, String address) {
+        List<String> keys = new ArrayList<>();
+        for (Map.Entry<String, FireStation> entry : fireStations.table.entrySet()) {
+            if (entry.getValue().getAddress().equals(address)) {
+                keys.add(entry.getKey());
+            }
+        }
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("FireStation not found");
+        }
+        for (String key : keys) {
+            fireStations.put(key, null);
+        }
+    }
+
+    /**
+     * Table of one section as changed by the mutations played so far, and the keyed change
+     * bringing the snapshot to it
+     */
+    private static final class Working<T> {
+
+        private OrderedPMap<String, T> table;
+        private final Map<String, T> changes = new LinkedHashMap<>();
+
+        private Working(OrderedPMap<String, T> table) {
+            this.table = table;
+        }
+
+        /**
+         * @param entity the new entity of the key, null to remove the key
+         */
+        private void put(String key, T entity) {
+            table = entity == null ? table.minus(key) : table.plus(key, entity);
+            changes.put(key, entity);
+        }
+
+        private void add(String key, T entity, String alreadyExists) {
+            if (table.containsKey(key)) {
+                throw new IllegalArgumentException(alreadyExists);
+            }
+            put(key, entity);
+        }
+
+        private void replace(String key, T entity, String notFound) {
+            if (!table.containsKey(key)) {
+                throw new IllegalArgumentException(notFound);
+            }
+            put(key, entity);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.safetynetalerts.safetynet.repository;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.safetynetalerts.safetynet.model.FireStation;
+import com.safetynetalerts.safetynet.model.MedicalRecord;
+import com.safetynetalerts.safetynet.model.Person;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Binary image of the data file, loaded at startup instead of parsing the JSON text
+ *
+ * The file starts with the size and modification time of the data file it was written from,
+ * so a data file changed since is detected and the JSON is read instead. The header is followed
+ * by a table holding each distinct string once, then by the entities of each section written as
+ * indexes in that table, then by the sections the store does not know, kept as JSON.
+ *
+ * Reading maps the file in memory and decodes each string once: every entity sharing a value,
+ * such as a city or an address, gets the same String instance.
+ *
+ * The indexes of the repositories are not part of the file. They are persistent maps holding the
+ * very entity instances of the store, kept by its change listeners, and the journal is replayed
+ * through those listeners after the load anyway. Stored indexes would need an entity id scheme
+ * and a format change with every new index, to save one pass over entities already decoded.
+ */
+final class BinarySnapshot {
+
+    private static final int MAGIC = 0x534E4150;
+    private static final int FORMAT_VERSION = 1;
+    private static final int NULL = -1;
+
+    private BinarySnapshot() {
+    }
+
+    /**
+     * @return the path of the snapshot of the given data file
+     */
+    static Path pathOf(Path dataFile) {
+        return dataFile.resolveSibling(dataFile.getFileName() + ".snapshot");
+    }
+
+    /**
+     * Writes the snapshot of the data file to a temporary file which then replaces the snapshot
+     *
+     * @param dataFile the data file holding the same entities, as just written
+     * @param otherSections the sections the store does not know, as JSON
+     */
+    static void write(Path dataFile, Collection<Person> persons, Collection<FireStation> fireStations,
+                      Collection<MedicalRecord> medicalRecords, byte[] otherSections) throws IOException {
+        Path target = pathOf(dataFile.toAbsolutePath());
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            StringTable strings = new StringTable();
+            for (Person person : persons) {
+                strings.add(person.getFirstName(), person.getLastName(), person.getAddress(), person.getCity(),
+                        person.getZip(), person.getPhone(), person.getEmail());
+            }
+            for (FireStation fireStation : fireStations) {
+                strings.add(fireStation.getAddress(), fireStation.getStation());
+            }
+            for (MedicalRecord medicalRecord : medicalRecords) {
+                strings.add(medicalRecord.getFirstName(), medicalRecord.getLastName(), medicalRecord.getBirthdate());
+                strings.addAll(medicalRecord.getMedications());
+                strings.addAll(medicalRecord.getAllergies());
+            }
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(Files.size(dataFile));
+                out.writeLong(Files.getLastModifiedTime(dataFile).toMillis());
+
+                out.writeInt(strings.values.size());
+                for (String value : strings.values) {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+
+                out.writeInt(persons.size());
+                for (Person person : persons) {
+                    strings.write(out, person.getFirstName(), person.getLastName(), person.getAddress(), person.getCity(),
+                            person.getZip(), person.getPhone(), person.getEmail());
+                }
+                out.writeInt(fireStations.size());
+                for (FireStation fireStation : fireStations) {
+                    strings.write(out, fireStation.getAddress(), fireStation.getStation());
+                }
+                out.writeInt(medicalRecords.size());
+                for (MedicalRecord medicalRecord : medicalRecords) {
+                    strings.write(out, medicalRecord.getFirstName(), medicalRecord.getLastName(), medicalRecord.getBirthdate());
+                    strings.writeList(out, medicalRecord.getMedications());
+                    strings.writeList(out, medicalRecord.getAllergies());
+                }
+
+                out.writeInt(otherSections.length);
+                out.write(otherSections);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * @param dataFile the data file the snapshot must match
+     * @return the content of the snapshot, or null when there is no snapshot or when the data file
+     * changed since it was written
+     * @throws IOException if the snapshot can not be read or is not a snapshot of this format
+     */
+    static Content read(Path dataFile) throws IOException {
+        Path path = pathOf(dataFile);
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new IOException("Not a snapshot of format " + FORMAT_VERSION + ": " + path);
+            }
+            if (buffer.getLong() != Files.size(dataFile)
+                    || buffer.getLong() != Files.getLastModifiedTime(dataFile).toMillis()) {
+                return null;
+            }
+
+            String[] strings = new String[buffer.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            int personCount = buffer.getInt();
+            List<Person> persons = new ArrayList<>(personCount);
+            for (int i = 0; i < personCount; i++) {
+                persons.add(new Person(string(buffer, strings), string(buffer, strings), string(buffer, strings),
+                        string(buffer, strings), string(buffer, strings), string(buffer, strings), string(buffer, strings)));
+            }
+            int fireStationCount = buffer.getInt();
+            List<FireStation> fireStations = new ArrayList<>(fireStationCount);
+            for (int i = 0; i < fireStationCount; i++) {
+                fireStations.add(new FireStation(string(buffer, strings), string(buffer, strings)));
+            }
+            int medicalRecordCount = buffer.getInt();
+            List<MedicalRecord> medicalRecords = new ArrayList<>(medicalRecordCount);
+            for (int i = 0; i < medicalRecordCount; i++) {
+                medicalRecords.add(new MedicalRecord(string(buffer, strings), string(buffer, strings), string(buffer, strings),
+                        list(buffer, strings), list(buffer, strings)));
+            }
+
+            byte[] otherSections = new byte[buffer.getInt()];
+            buffer.get(otherSections);
+            return new Content(persons, fireStations, medicalRecords, otherSections);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Truncated snapshot: " + path, e);
+        }
+    }
+
+    private static String string(MappedByteBuffer buffer, String[] strings) {
+        int index = buffer.getInt();
+        return index == NULL ? null : strings[index];
+    }
+
+    private static List<String> list(MappedByteBuffer buffer, String[] strings) {
+        int size = buffer.getInt();
+        if (size == NULL) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(string(buffer, strings));
+        }
+        return values;
+    }
+
+    /**
+     * Entities and unknown sections read from a snapshot
+     */
+    @Getter
+    @AllArgsConstructor
+    static final class Content {
+
+        private final List<Person> persons;
+        private final List<FireStation> fireStations;
+        private final List<MedicalRecord> medicalRecords;
+        private final byte[] otherSections;
+    }
+
+    /**
+     * Distinct strings of the snapshot, numbered in the order they are first added
+     */
+    private static final class StringTable {
+
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        private void add(String... values) {
+            for (String value : values) {
+                if (value != null && indexes.putIfAbsent(value, this.values.size()) == null) {
+                    this.values.add(value);
+                }
+            }
+        }
+
+        private void addAll(List<String> values) {
+            if (values != null) {
+                values.forEach(this::add);
+            }
+        }
+
+        private void write(DataOutputStream out, String... values) throws IOException {
+            for (String value : values) {
+                out.writeInt(value == null ? NULL : indexes.get(value));
+            }
+        }
+
+        private void writeList(DataOutputStream out, List<String> values) throws IOException {
+            if (values == null) {
+                out.writeInt(NULL);
+                return;
+            }
+            out.writeInt(values.size());
+            for (String value : values) {
+                write(out, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.safetynetalerts.safetynet.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.pcollections.HashTreePMap;
+import org.pcollections.OrderedPMap;
+import org.pcollections.PMap;
+import org.pcollections.TreePMap;
+
+import com.safetynetalerts.safetynet.model.Resident;
+
+/**
+ * Immutable index of the residents of a group (an address or a station) sorted by birthdate
+ *
+ * Residents are kept in the order they joined the group and, at the same time, by the epoch day
+ * of their birthdate, so that the residents within an age range are a range of the sorted map
+ * bounded by cutoff days of the current date. As the bounds are computed from the date at each
+ * lookup, the ranges move forward by themselves every day.
+ */
+final class BirthdateIndex {
+
+    static final BirthdateIndex EMPTY = new BirthdateIndex(OrderedPMap.empty(), HashTreePMap.empty(), TreePMap.empty());
+
+    private final OrderedPMap<String, Resident> residents;
+    private final PMap<String, Long> birthEpochDays;
+    private final TreePMap<Long, OrderedPMap<String, Resident>> residentsByBirthEpochDay;
+
+    private BirthdateIndex(OrderedPMap<String, Resident> residents, PMap<String, Long> birthEpochDays,
+                           TreePMap<Long, OrderedPMap<String, Resident>> residentsByBirthEpochDay) {
+        this.residents = residents;
+        this.birthEpochDays = birthEpochDays;
+        this.residentsByBirthEpochDay = residentsByBirthEpochDay;
+    }
+
+    /**
+     * @return every resident, in the order they joined the group
+     */
+    List<Resident> getResidents() {
+        return new TableList<>(residents);
+    }
+
+    Resident getResident(String key) {
+        return residents.get(key);
+    }
+
+    boolean isEmpty() {
+        return residents.isEmpty();
+    }
+
+    /**
+     * @return the residents born after the first day and up to the second one, from the oldest to the youngest
+     */
+    List<Resident> bornBetween(long after, long notAfter) {
+        if (after >= notAfter) {
+            return Collections.emptyList();
+        }
+        List<Resident> born = new ArrayList<>();
+        for (OrderedPMap<String, Resident> sameDay : residentsByBirthEpochDay.subMap(after, false, notAfter, true).values()) {
+            born.addAll(sameDay.values());
+        }
+        return born;
+    }
+
+    /**
+     * @return how many residents are born after the first day and up to the second one
+     */
+    int countBornBetween(long after, long notAfter) {
+        if (after >= notAfter) {
+            return 0;
+        }
+        int count = 0;
+        for (OrderedPMap<String, Resident> sameDay : residentsByBirthEpochDay.subMap(after, false, notAfter, true).values()) {
+            count += sameDay.size();
+        }
+        return count;
+    }
+
+    /**
+     * Adds the resident, or replaces it in place if the key is already indexed
+     */
+    BirthdateIndex put(String key, Resident resident) {
+        long birthEpochDay = resident.getBirthEpochDay();
+        Long previousBirthEpochDay = birthEpochDays.get(key);
+        if (previousBirthEpochDay != null && previousBirthEpochDay == birthEpochDay && residents.get(key) == resident) {
+            return this;
+        }
+        TreePMap<Long, OrderedPMap<String, Resident>> byBirthEpochDay = residentsByBirthEpochDay;
+        if (previousBirthEpochDay != null && previousBirthEpochDay != birthEpochDay) {
+            byBirthEpochDay = minus(byBirthEpochDay, previousBirthEpochDay, key);
+        }
+        OrderedPMap<String, Resident> sameDay = byBirthEpochDay.getOrDefault(birthEpochDay, OrderedPMap.empty());
+        return new BirthdateIndex(residents.plus(key, resident), birthEpochDays.plus(key, birthEpochDay),
+                byBirthEpochDay.plus(birthEpochDay, sameDay.plus(key, resident)));
+    }
+
+    BirthdateIndex remove(String key) {
+        Long birthEpochDay = birthEpochDays.get(key);
+        if (birthEpochDay == null) {
+            return this;
+        }
+        return new BirthdateIndex(residents.minus(key), birthEpochDays.minus(key),
+                minus(residentsByBirthEpochDay, birthEpochDay, key));
+    }
+
+    private static TreePMap<Long, OrderedPMap<String, Resident>> minus(TreePMap<Long, OrderedPMap<String, Resident>> byBirthEpochDay,
+                                                                      long birthEpochDay, String key) {
+        OrderedPMap<String, Resident> sameDay = byBirthEpochDay.get(birthEpochDay).minus(key);
+        return sameDay.isEmpty() ? byBirthEpochDay.minus(birthEpochDay) : byBirthEpochDay.plus(birthEpochDay, sameDay);
+    }
+}
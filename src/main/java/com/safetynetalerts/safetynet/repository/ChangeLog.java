@@ -0,0 +1,101 @@
+package com.safetynetalerts.safetynet.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded log of the latest changes of one section
+ *
+ * Each change holds the key of the entity, the entity before and after the change, and the version
+ * of the section the change was published in. The log is a ring: once full, each new change drops
+ * the oldest one. The floor is the latest version whose changes may have been dropped, the changes
+ * since any version from the floor on are all in the log.
+ */
+final class ChangeLog<T> {
+
+    private long[] versions = new long[0];
+    private String[] keys = new String[0];
+    private Object[] before = new Object[0];
+    private Object[] after = new Object[0];
+    // Slot of the oldest change and number of changes
+    private int head;
+    private int size;
+
+    private long floor;
+    private long version;
+
+    /**
+     * Empties the log
+     *
+     * @param capacity number of changes kept
+     * @param version current version of the section
+     */
+    synchronized void start(int capacity, long version) {
+        versions = new long[capacity];
+        keys = new String[capacity];
+        before = new Object[capacity];
+        after = new Object[capacity];
+        head = 0;
+        size = 0;
+        floor = version;
+        this.version = version;
+    }
+
+    /**
+     * @param version version of the section holding the change
+     * @param previous the entity before the change, null for an insert
+     * @param current the entity after the change, null for a delete
+     */
+    synchronized void append(long version, String key, T previous, T current) {
+        this.version = version;
+        if (versions.length == 0) {
+            floor = version;
+            return;
+        }
+        if (size == versions.length) {
+            floor = versions[head];
+            before[head] = null;
+            after[head] = null;
+            head = (head + 1) % versions.length;
+            size--;
+        }
+        int slot = (head + size) % versions.length;
+        versions[slot] = version;
+        keys[slot] = key;
+        before[slot] = previous;
+        after[slot] = current;
+        size++;
+    }
+
+    /**
+     * @return the last state of each entity changed after the given version, or null if the log does
+     * not reach back to that version
+     */
+    @SuppressWarnings("unchecked")
+    synchronized Changes<T> since(long since) {
+        if (since < floor || since > version) {
+            return null;
+        }
+        // Last change of each key, in order of that last change
+        Map<String, Integer> last = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            int slot = (head + i) % versions.length;
+            if (versions[slot] > since) {
+                last.remove(keys[slot]);
+                last.put(keys[slot], slot);
+            }
+        }
+        List<T> upserted = new ArrayList<>();
+        List<T> deleted = new ArrayList<>();
+        for (int slot : last.values()) {
+            if (after[slot] != null) {
+                upserted.add((T) after[slot]);
+            } else {
+                deleted.add((T) before[slot]);
+            }
+        }
+        return new Changes<>(version, false, upserted, deleted);
+    }
+}
@@ -0,0 +1,24 @@
+package com.safetynetalerts.safetynet.repository;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Changes of a section since a version
+ *
+ * When the change log no longer reaches back to the requested version, the changes are a full
+ * resync instead: every entity of the section is upserted and the caller drops whatever it held.
+ */
+@Getter
+@AllArgsConstructor
+public final class Changes<T> {
+
+    // Version of the section the changes bring the caller to
+    private final long version;
+    private final boolean resync;
+    private final List<T> upserted;
+    // Entities as they were when deleted
+    private final List<T> deleted;
+}
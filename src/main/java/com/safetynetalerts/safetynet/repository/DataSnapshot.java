@@ -0,0 +1,192 @@
+package com.safetynetalerts.safetynet.repository;
+
+import java.util.List;
+import java.util.Map;
+
+import org.pcollections.OrderedPMap;
+import org.pcollections.TreePSet;
+
+import com.safetynetalerts.safetynet.model.FireStation;
+import com.safetynetalerts.safetynet.model.MedicalRecord;
+import com.safetynetalerts.safetynet.model.Person;
+
+/**
+ * Immutable version of the whole dataset
+ *
+ * Each section is a persistent map from the entity key to the entity, kept in insertion order.
+ * A write builds the next version by adding or removing entries, which shares every untouched
+ * node with the previous version instead of copying the section, and the {@link DataStore}
+ * then publishes it with a single reference swap. Readers therefore traverse a snapshot without
+ * any lock and are never affected by a write made after they got it.
+ *
+ * The keys of each section are also kept in a persistent sorted set, changed along with the
+ * section, so a reader can seek to a key and walk the section in key order.
+ *
+ * Besides the global version, each section carries the version of the last write which changed it,
+ * so a result derived from some sections can tell whether those sections changed since.
+ */
+public final class DataSnapshot {
+
+    static final DataSnapshot EMPTY = startingAt(0);
+
+    private final long version;
+    private final OrderedPMap<String, Person> persons;
+    private final long personsVersion;
+    private final OrderedPMap<String, FireStation> fireStations;
+    private final long fireStationsVersion;
+    private final OrderedPMap<String, MedicalRecord> medicalRecords;
+    private final long medicalRecordsVersion;
+    private final TreePSet<String> personKeys;
+    private final TreePSet<String> fireStationKeys;
+    private final TreePSet<String> medicalRecordKeys;
+
+    /**
+     * @return an empty dataset whose versions, global and per section, are the given one
+     */
+    static DataSnapshot startingAt(long version) {
+        return new DataSnapshot(version, OrderedPMap.empty(), version, OrderedPMap.empty(), version,
+                OrderedPMap.empty(), version, TreePSet.empty(), TreePSet.empty(), TreePSet.empty());
+    }
+
+    private DataSnapshot(long version, OrderedPMap<String, Person> persons, long personsVersion,
+                         OrderedPMap<String, FireStation> fireStations, long fireStationsVersion,
+                         OrderedPMap<String, MedicalRecord> medicalRecords, long medicalRecordsVersion,
+                         TreePSet<String> personKeys, TreePSet<String> fireStationKeys,
+                         TreePSet<String> medicalRecordKeys) {
+        this.version = version;
+        this.persons = persons;
+        this.personsVersion = personsVersion;
+        this.fireStations = fireStations;
+        this.fireStationsVersion = fireStationsVersion;
+        this.medicalRecords = medicalRecords;
+        this.medicalRecordsVersion = medicalRecordsVersion;
+        this.personKeys = personKeys;
+        this.fireStationKeys = fireStationKeys;
+        this.medicalRecordKeys = medicalRecordKeys;
+    }
+
+    /**
+     * @return the version of the dataset, increased by each published write
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the version of the last write which changed the persons
+     */
+    public long getPersonsVersion() {
+        return personsVersion;
+    }
+
+    /**
+     * @return the version of the last write which changed the fireStations
+     */
+    public long getFireStationsVersion() {
+        return fireStationsVersion;
+    }
+
+    /**
+     * @return the version of the last write which changed the medical records
+     */
+    public long getMedicalRecordsVersion() {
+        return medicalRecordsVersion;
+    }
+
+    public List<Person> getPersons() {
+        return new TableList<>(persons);
+    }
+
+    public List<FireStation> getFireStations() {
+        return new TableList<>(fireStations);
+    }
+
+    public List<MedicalRecord> getMedicalRecords() {
+        return new TableList<>(medicalRecords);
+    }
+
+    /**
+     * @return the version of the last write which changed the given section
+     */
+    long version(String section) {
+        return switch (section) {
+            case DataStore.PERSONS -> personsVersion;
+            case DataStore.FIRESTATIONS -> fireStationsVersion;
+            case DataStore.MEDICALRECORDS -> medicalRecordsVersion;
+            default -> throw new IllegalArgumentException("Unknown section: " + section);
+        };
+    }
+
+    /**
+     * @return the table of the given section, keyed like the journal entries of that section
+     */
+    @SuppressWarnings("unchecked")
+    <T> OrderedPMap<String, T> table(String section) {
+        return (OrderedPMap<String, T>) switch (section) {
+            case DataStore.PERSONS -> persons;
+            case DataStore.FIRESTATIONS -> fireStations;
+            case DataStore.MEDICALRECORDS -> medicalRecords;
+            default -> throw new IllegalArgumentException("Unknown section: " + section);
+        };
+    }
+
+    /**
+     * @return the keys of the given section, in key order
+     */
+    TreePSet<String> keys(String section) {
+        return switch (section) {
+            case DataStore.PERSONS -> personKeys;
+            case DataStore.FIRESTATIONS -> fireStationKeys;
+            case DataStore.MEDICALRECORDS -> medicalRecordKeys;
+            default -> throw new IllegalArgumentException("Unknown section: " + section);
+        };
+    }
+
+    /**
+     * @return the next version, with the table of the given section replaced and its keys sorted anew
+     */
+    DataSnapshot with(String section, OrderedPMap<String, ?> table) {
+        return with(Map.of(section, table), Map.of(section, TreePSet.from(table.keySet())));
+    }
+
+    /**
+     * @param keys the keys of each replaced table, in key order
+     * @return the next version, with the tables of the given sections replaced, every one of them
+     * changed under that single version
+     */
+    @SuppressWarnings("unchecked")
+    DataSnapshot with(Map<String, ? extends OrderedPMap<String, ?>> tables, Map<String, TreePSet<String>> keys) {
+        long next = version + 1;
+        OrderedPMap<String, Person> nextPersons = persons;
+        long nextPersonsVersion = personsVersion;
+        OrderedPMap<String, FireStation> nextFireStations = fireStations;
+        long nextFireStationsVersion = fireStationsVersion;
+        OrderedPMap<String, MedicalRecord> nextMedicalRecords = medicalRecords;
+        long nextMedicalRecordsVersion = medicalRecordsVersion;
+        TreePSet<String> nextPersonKeys = personKeys;
+        TreePSet<String> nextFireStationKeys = fireStationKeys;
+        TreePSet<String> nextMedicalRecordKeys = medicalRecordKeys;
+        for (Map.Entry<String, ? extends OrderedPMap<String, ?>> table : tables.entrySet()) {
+            switch (table.getKey()) {
+                case DataStore.PERSONS -> {
+                    nextPersons = (OrderedPMap<String, Person>) table.getValue();
+                    nextPersonsVersion = next;
+                    nextPersonKeys = keys.get(DataStore.PERSONS);
+                }
+                case DataStore.FIRESTATIONS -> {
+                    nextFireStations = (OrderedPMap<String, FireStation>) table.getValue();
+                    nextFireStationsVersion = next;
+                    nextFireStationKeys = keys.get(DataStore.FIRESTATIONS);
+                }
+                case DataStore.MEDICALRECORDS -> {
+                    nextMedicalRecords = (OrderedPMap<String, MedicalRecord>) table.getValue();
+                    nextMedicalRecordsVersion = next;
+                    nextMedicalRecordKeys = keys.get(DataStore.MEDICALRECORDS);
+                }
+                default -> throw new IllegalArgumentException("Unknown section: " + table.getKey());
+            }
+        }
+        return new DataSnapshot(next, nextPersons, nextPersonsVersion, nextFireStations, nextFireStationsVersion,
+                nextMedicalRecords, nextMedicalRecordsVersion, nextPersonKeys, nextFireStationKeys, nextMedicalRecordKeys);
+    }
+}
@@ -0,0 +1,1068 @@
+package com.safetynetalerts.safetynet.repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.pcollections.OrderedPMap;
+import org.pcollections.TreePSet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.safetynetalerts.safetynet.model.FireStation;
+import com.safetynetalerts.safetynet.model.MedicalRecord;
+import com.safetynetalerts.safetynet.model.Person;
+import com.safetynetalerts.safetynet.util.StringPool;
+import com.safetynetalerts.safetynet.util.TermDictionary;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Single owner of the JSON data file
+ *
+ * The file is parsed once at startup, in a single streaming pass, and each repository gets
+ * its typed section from here. Reads are served from an immutable {@link DataSnapshot}, each write
+ * builds the next snapshot with structural sharing and publishes it with one reference swap.
+ *
+ * Every write is a keyed change: a map from entity key to the new entity, or to null for a
+ * removal. A save of a whole section is turned into the change between the section and the
+ * saved list. Writes do not rewrite the data file: only the changed entities are appended to
+ * a {@link MutationJournal}, so the cost of a write depends on the size of the change and not
+ * on the size of the dataset. On startup the journal is replayed over the data file. Once the
+ * journal holds enough entries, a background compaction writes a new data file from memory
+ * and drops the journal entries it contains. Listeners registered per section hear about each
+ * changed entity, which lets the repositories maintain their indexes incrementally.
+ *
+ * In write-behind mode a write only updates memory and marks its keys dirty. A single flusher
+ * thread then journals the dirty sections once the oldest pending save is older than the maximum
+ * delay, or as soon as the maximum batch size is reached, so a burst of saves costs one append
+ * and one fsync. Pending saves are always flushed when the store is closed.
+ *
+ * An atomic write changes several sections under a single version and journals its entries, with
+ * any pending write-behind saves, as one line of the journal: a crash keeps all of it or none.
+ *
+ * Each section also keeps a bounded {@link ChangeLog} of its latest changes, from which a client
+ * holding the section as of some version gets only what changed since. Versions start from the
+ * start time of the store, so a version handed out before a restart is never handed out again.
+ *
+ * When snapshots are enabled, each compaction and the shutdown also write a {@link BinarySnapshot}
+ * of the data file, which the next startup maps in memory instead of parsing the JSON text as
+ * long as the data file did not change since.
+ *
+ * All writes are serialized on one lock, so concurrent saves of different sections can not
+ * overwrite each other. Reads spanning several lookups can hold off the publication of writes to
+ * see one consistent state. Unknown top level sections of the file are kept as they are.
+ */
+@Component
+public class DataStore {
+
+    private static final Logger logger = LogManager.getLogger(DataStore.class);
+
+    static final String PERSONS = "persons";
+    static final String FIRESTATIONS = "firestations";
+    static final String MEDICALRECORDS = "medicalrecords";
+
+    static final long DEFAULT_COMPACTION_THRESHOLD = 1000;
+    static final int DEFAULT_CHANGE_LOG_CAPACITY = 1000;
+
+    private final File dataFile;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Object writeLock = new Object();
+    // Held for writing while a write publishes its snapshot and updates the listeners
+    private final ReentrantReadWriteLock publication = new ReentrantReadWriteLock();
+
+    private final Section<Person> persons = new Section<>(PERSONS, Person.class,
+            person -> key(person.getFirstName(), person.getLastName()),
+            person -> {
+                person.setAddress(StringPool.canonical(person.getAddress()));
+                person.setCity(StringPool.canonical(person.getCity()));
+                person.setZip(StringPool.canonical(person.getZip()));
+            });
+    private final Section<FireStation> fireStations = new Section<>(FIRESTATIONS, FireStation.class,
+            fireStation -> key(fireStation.getAddress(), fireStation.getStation()),
+            fireStation -> {
+                fireStation.setAddress(StringPool.canonical(fireStation.getAddress()));
+                fireStation.setStation(StringPool.canonical(station(fireStation.getStation())));
+            });
+    private final Section<MedicalRecord> medicalRecords = new Section<>(MEDICALRECORDS, MedicalRecord.class,
+            medicalRecord -> key(medicalRecord.getFirstName(), medicalRecord.getLastName()),
+            medicalRecord -> { });
+    private final Map<String, JsonNode> otherSections = new LinkedHashMap<>();
+
+    // Current version of the data, replaced under the write lock and read without any lock
+    private volatile DataSnapshot snapshot = DataSnapshot.startingAt(System.currentTimeMillis() * 1000);
+    // Latest snapshot whose changes every listener has applied
+    private volatile DataSnapshot indexedSnapshot = DataSnapshot.EMPTY;
+
+    private final MutationJournal journal;
+    private final long compactionThreshold;
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+    private final ExecutorService compactionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "data-compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Write-behind state, the counters are guarded by flushSignal
+    private final boolean writeBehind;
+    private final long maxDelayNanos;
+    private final int maxBatchSize;
+    private final Object flushSignal = new Object();
+    private final Thread flusher;
+    private int pendingSaves;
+    private long oldestPendingSave;
+    private volatile boolean closed;
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushTimeNanos = new AtomicLong();
+
+    // Binary snapshot state, current while the snapshot file matches the data file
+    private final boolean snapshotEnabled;
+    private volatile boolean snapshotCurrent;
+    private boolean loadedFromSnapshot;
+    private long loadTimeNanos;
+
+    /**
+     * @param dataFilePath path of the JSON data file
+     * @param compactionThreshold number of journal entries which triggers a compaction
+     * @param writeBehind true to journal saves from a background flusher instead of the calling thread
+     * @param maxDelay longest time a save waits for the flusher in write-behind mode
+     * @param maxBatchSize number of pending saves which triggers a flush right away in write-behind mode
+     * @param snapshotEnabled true to start from the binary snapshot of the data file and to keep it up to date
+     * @param changeLogCapacity number of changes kept per section to answer the changes since a version
+     */
+    @Autowired
+    public DataStore(@Value("${safetynet.data.filepath:src/main/resources/data.json}") String dataFilePath,
+                     @Value("${safetynet.journal.compaction-threshold:1000}") long compactionThreshold,
+                     @Value("${safetynet.persistence.write-behind.enabled:false}") boolean writeBehind,
+                     @Value("${safetynet.persistence.write-behind.max-delay:200ms}") Duration maxDelay,
+                     @Value("${safetynet.persistence.write-behind.max-batch-size:500}") int maxBatchSize,
+                     @Value("${safetynet.data.snapshot.enabled:false}") boolean snapshotEnabled,
+                     @Value("${safetynet.changes.capacity:1000}") int changeLogCapacity) {
+        this.dataFile = new File(dataFilePath);
+        this.compactionThreshold = compactionThreshold;
+        this.writeBehind = writeBehind;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.snapshotEnabled = snapshotEnabled;
+        this.journal = new MutationJournal(dataFile.toPath().resolveSibling(dataFile.getName() + ".journal"), objectMapper);
+        long start = System.nanoTime();
+        if (!snapshotEnabled || !loadSnapshot()) {
+            load();
+        }
+        loadTimeNanos = System.nanoTime() - start;
+        replayJournal();
+        indexedSnapshot = snapshot;
+        for (Section<?> section : List.of(persons, fireStations, medicalRecords)) {
+            section.changes.start(Math.max(0, changeLogCapacity), snapshot.version(section.name));
+        }
+
+        if (writeBehind) {
+            flusher = new Thread(this::flushLoop, "data-flusher");
+            flusher.setDaemon(true);
+            flusher.start();
+        } else {
+            flusher = null;
+        }
+    }
+
+    /**
+     * @param dataFilePath path of the JSON data file
+     * @param compactionThreshold number of journal entries which triggers a compaction
+     * @param writeBehind true to journal saves from a background flusher instead of the calling thread
+     * @param maxDelay longest time a save waits for the flusher in write-behind mode
+     * @param maxBatchSize number of pending saves which triggers a flush right away in write-behind mode
+     * @param snapshotEnabled true to start from the binary snapshot of the data file and to keep it up to date
+     */
+    public DataStore(String dataFilePath, long compactionThreshold, boolean writeBehind, Duration maxDelay, int maxBatchSize,
+                     boolean snapshotEnabled) {
+        this(dataFilePath, compactionThreshold, writeBehind, maxDelay, maxBatchSize, snapshotEnabled,
+                DEFAULT_CHANGE_LOG_CAPACITY);
+    }
+
+    /**
+     * @param dataFilePath path of the JSON data file
+     * @param compactionThreshold number of journal entries which triggers a compaction
+     * @param writeBehind true to journal saves from a background flusher instead of the calling thread
+     * @param maxDelay longest time a save waits for the flusher in write-behind mode
+     * @param maxBatchSize number of pending saves which triggers a flush right away in write-behind mode
+     */
+    public DataStore(String dataFilePath, long compactionThreshold, boolean writeBehind, Duration maxDelay, int maxBatchSize) {
+        this(dataFilePath, compactionThreshold, writeBehind, maxDelay, maxBatchSize, false);
+    }
+
+    /**
+     * @param dataFilePath path of the JSON data file
+     * @param compactionThreshold number of journal entries which triggers a compaction
+     */
+    public DataStore(String dataFilePath, long compactionThreshold) {
+        this(dataFilePath, compactionThreshold, false, Duration.ZERO, 1);
+    }
+
+    /**
+     * @param dataFilePath path of the JSON data file
+     */
+    public DataStore(String dataFilePath) {
+        this(dataFilePath, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Reads the data file in a single streaming pass: the entities of each section are bound
+     * one at a time straight from the parser, without building a tree of the whole file first,
+     * so the memory used while loading stays close to the size of the loaded data.
+     *
+     * A missing data file starts the store empty. A data file which can not be read whole, such
+     * as one with a birthdate that does not parse, fails the startup instead: the sections read
+     * so far would otherwise be compacted over the data file and the others lost with it.
+     *
+     * @throws IllegalStateException if the data file exists but can not be read
+     */
+    private void load() {
+        if (!dataFile.exists()) {
+            logger.error("Missing json file: {}, starting without data", dataFile);
+            return;
+        }
+        try (JsonParser parser = objectMapper.getFactory().createParser(dataFile)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a json object at the root of the data file");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String section = parser.currentName();
+                parser.nextToken();
+                switch (section) {
+                    case PERSONS -> loaded(persons, readSection(parser, Person.class));
+                    case FIRESTATIONS -> loaded(fireStations, readSection(parser, FireStation.class));
+                    case MEDICALRECORDS -> loaded(medicalRecords, readSection(parser, MedicalRecord.class));
+                    default -> otherSections.put(section, objectMapper.readTree(parser));
+                }
+            }
+            logger.info("Loaded {} persons, {} fireStations and {} medical records from json file: {}",
+                    snapshot.getPersons().size(), snapshot.getFireStations().size(), snapshot.getMedicalRecords().size(), dataFile);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.error("Failed to load data from json file: {}", dataFile, e);
+            throw new IllegalStateException("Failed to load data from json file: " + dataFile, e);
+        }
+    }
+
+    /**
+     * @param parser positioned on the first token of the section
+     * @param type the entity type of the section
+     * @return the entities of the section, the parser is left on the closing token of the section
+     */
+    private <T> List<T> readSection(JsonParser parser, Class<T> type) throws IOException {
+        List<T> entities = new ArrayList<>();
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return entities;
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "Expected an array for section: " + parser.currentName());
+        }
+        ObjectReader reader = objectMapper.readerFor(type);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            entities.add(reader.readValue(parser));
+        }
+        return entities;
+    }
+
+    /**
+     * Reads the binary snapshot of the data file in place of the data file
+     *
+     * @return false if there is no snapshot matching the data file, nothing is loaded then
+     */
+    private boolean loadSnapshot() {
+        try {
+            BinarySnapshot.Content content = BinarySnapshot.read(dataFile.toPath());
+            if (content == null) {
+                logger.info("No up to date snapshot of json file: {}", dataFile);
+                return false;
+            }
+            JsonNode others = objectMapper.readTree(content.getOtherSections());
+            loaded(persons, content.getPersons());
+            loaded(fireStations, content.getFireStations());
+            loaded(medicalRecords, content.getMedicalRecords());
+            others.fields().forEachRemaining(section -> otherSections.put(section.getKey(), section.getValue()));
+            snapshotCurrent = true;
+            loadedFromSnapshot = true;
+            logger.info("Loaded {} persons, {} fireStations and {} medical records from the snapshot of json file: {}",
+                    snapshot.getPersons().size(), snapshot.getFireStations().size(), snapshot.getMedicalRecords().size(), dataFile);
+            return true;
+        } catch (IOException e) {
+            logger.warn("Failed to read the snapshot of json file: {}, reading the json file instead", dataFile, e);
+            return false;
+        }
+    }
+
+    /**
+     * @throws IllegalStateException if the journal can not be replayed whole, for the same reason as {@link #load()}
+     */
+    private void replayJournal() {
+        try {
+            List<JournalEntry> entries = journal.readAll();
+            if (!entries.isEmpty()) {
+                for (Section<?> section : List.of(persons, fireStations, medicalRecords)) {
+                    replayed(section, entries);
+                }
+                logger.info("Replayed {} journal entries over json file: {}", entries.size(), dataFile);
+                compactIfNeeded();
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            logger.error("Failed to replay the journal of json file: {}", dataFile, e);
+            throw new IllegalStateException("Failed to replay the journal of json file: " + dataFile, e);
+        }
+    }
+
+    private <T> void loaded(Section<T> section, List<T> entities) {
+        OrderedPMap<String, T> table = section.index(entities);
+        section.journaled = table;
+        snapshot = snapshot.with(section.name, table);
+    }
+
+    private <T> void replayed(Section<T> section, List<JournalEntry> entries) throws IOException {
+        OrderedPMap<String, T> table = section.replay(entries, objectMapper);
+        section.journaled = table;
+        snapshot = snapshot.with(section.name, table);
+    }
+
+    /**
+     * Runs reads against one consistent state of the data: no write is published while they run,
+     * so the snapshot and everything the listeners maintain, such as the repository indexes, stay
+     * as of the snapshot passed to them. The reads may fan out to other threads, writes wait until
+     * the call returns, so they should be short.
+     */
+    public <R> R readConsistently(Function<DataSnapshot, R> reads) {
+        publication.readLock().lock();
+        try {
+            return reads.apply(indexedSnapshot);
+        } finally {
+            publication.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the current version of the data, which never changes once returned
+     */
+    public DataSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return the latest snapshot whose changes have reached every listener: anything the listeners
+     * maintain, such as the repository indexes, is at least as recent as this snapshot
+     */
+    public DataSnapshot getIndexedSnapshot() {
+        return indexedSnapshot;
+    }
+
+    /**
+     * @return a read only view of the persons of the current snapshot
+     */
+    public List<Person> getPersons() {
+        return snapshot.getPersons();
+    }
+
+    /**
+     * @return a read only view of the fireStations of the current snapshot
+     */
+    public List<FireStation> getFireStations() {
+        return snapshot.getFireStations();
+    }
+
+    /**
+     * @return a read only view of the medical records of the current snapshot
+     */
+    public List<MedicalRecord> getMedicalRecords() {
+        return snapshot.getMedicalRecords();
+    }
+
+    public void savePersons(List<Person> persons) {
+        save(this.persons, persons);
+    }
+
+    public void saveFireStations(List<FireStation> fireStations) {
+        save(this.fireStations, fireStations);
+    }
+
+    public void saveMedicalRecords(List<MedicalRecord> medicalRecords) {
+        save(this.medicalRecords, medicalRecords);
+    }
+
+    /**
+     * Registers a listener called for each person added, replaced or removed
+     */
+    public void addPersonListener(ChangeListener<Person> listener) {
+        persons.listeners.add(listener);
+    }
+
+    /**
+     * Registers a listener called for each fireStation added, replaced or removed
+     */
+    public void addFireStationListener(ChangeListener<FireStation> listener) {
+        fireStations.listeners.add(listener);
+    }
+
+    /**
+     * Registers a listener called for each medical record added, replaced or removed
+     */
+    public void addMedicalRecordListener(ChangeListener<MedicalRecord> listener) {
+        medicalRecords.listeners.add(listener);
+    }
+
+    /**
+     * @param since version of the section held by the caller
+     * @return the entities of the section changed after that version, or the whole section as a
+     * resync when the change log does not reach back to it
+     */
+    <T> Changes<T> changesSince(String section, long since) {
+        Changes<T> changes = this.<T>section(section).changes.since(since);
+        if (changes != null) {
+            return changes;
+        }
+        DataSnapshot current = snapshot;
+        return new Changes<>(current.version(section), true, new TableList<>(current.table(section)), List.of());
+    }
+
+    /**
+     * Reads one page of a section in key order, from a single snapshot. The sorted keys of the
+     * section are entered right after the given key and walked for the page only, so a page costs
+     * the seek and its own size whatever the size of the section.
+     *
+     * @param after key the page starts after, null for the first page
+     * @param limit maximum number of entities of the page, at least 1
+     */
+    <T> Page<T> page(String section, String after, int limit) {
+        DataSnapshot current = snapshot;
+        OrderedPMap<String, T> table = current.table(section);
+        TreePSet<String> keys = current.keys(section);
+        Iterator<String> following = (after == null ? keys : keys.tailSet(after, false)).iterator();
+        List<T> items = new ArrayList<>(Math.min(limit, keys.size()));
+        String last = null;
+        while (items.size() < limit && following.hasNext()) {
+            last = following.next();
+            items.add(table.get(last));
+        }
+        return new Page<>(items, following.hasNext() ? last : null);
+    }
+
+    /**
+     * @return the entity of the section with the given key in the current snapshot, or null
+     */
+    <T> T find(String section, String key) {
+        return snapshot.<T>table(section).get(key);
+    }
+
+    /**
+     * @return true if the data was loaded from the binary snapshot rather than from the json file
+     */
+    public boolean isLoadedFromSnapshot() {
+        return loadedFromSnapshot;
+    }
+
+    /**
+     * @return the time spent loading the data at startup, journal replay excluded, in nanoseconds
+     */
+    public long getLoadTimeNanos() {
+        return loadTimeNanos;
+    }
+
+    /**
+     * @return the number of saves not yet journaled in write-behind mode
+     */
+    public int getPendingSaves() {
+        synchronized (flushSignal) {
+            return pendingSaves;
+        }
+    }
+
+    /**
+     * @return the number of write-behind flushes done so far
+     */
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    /**
+     * @return the total time spent in write-behind flushes, in nanoseconds
+     */
+    public long getFlushTimeNanos() {
+        return flushTimeNanos.get();
+    }
+
+    private <T> void save(Section<T> section, List<T> entities) {
+        write(section, table -> section.diff(table, entities));
+    }
+
+    /**
+     * Applies a keyed change to a section
+     *
+     * The change is computed under the write lock from the current table of the section, as a
+     * map from entity key to the new entity, or to null to remove the entity. Only the keys of
+     * the change are touched: the next snapshot shares the rest of the table, the listeners
+     * hear about those keys only and the journal receives one entry per changed key. The call
+     * then waits for the journal to reach the disk, outside the write lock so that concurrent
+     * writes can share the same fsync. In write-behind mode the keys are only marked dirty for
+     * the flusher.
+     *
+     * @param section name of the section to change
+     * @param change computes the change from the current table, an empty map changes nothing
+     * @return false if the change was empty
+     */
+    <T> boolean write(String section, Function<OrderedPMap<String, T>, Map<String, T>> change) {
+        return write(this.<T>section(section), change);
+    }
+
+    /**
+     * Applies keyed changes to several sections as one write
+     *
+     * The changes are computed under the write lock from the current snapshot, as a map from
+     * section name to the keyed change of that section. If computing them throws, nothing is
+     * applied. Otherwise readers see every section change at once, under a single new version,
+     * and the journal receives them, with any pending write-behind saves, in a single atomic
+     * append which the call waits to reach the disk, even in write-behind mode.
+     *
+     * @param change computes the changes from the current snapshot, empty changes change nothing
+     * @return false if every change was empty
+     */
+    boolean writeAtomically(Function<DataSnapshot, Map<String, Map<String, ?>>> change) {
+        long sequence;
+        synchronized (writeLock) {
+            Map<String, Map<String, ?>> changes = change.apply(snapshot);
+            if (changes.values().stream().allMatch(Map::isEmpty)) {
+                return false;
+            }
+            apply(changes);
+
+            List<JournalEntry> entries = new ArrayList<>();
+            List<Runnable> commits = stageDirtySections(entries);
+            sequence = journal.append(entries, true);
+            commits.forEach(Runnable::run);
+            synchronized (flushSignal) {
+                pendingSaves = 0;
+            }
+        }
+        journal.sync(sequence);
+        compactIfNeeded();
+        return true;
+    }
+
+    private <T> boolean write(Section<T> section, Function<OrderedPMap<String, T>, Map<String, T>> change) {
+        long sequence;
+        synchronized (writeLock) {
+            Map<String, T> changes = change.apply(snapshot.table(section.name));
+            if (changes.isEmpty()) {
+                return false;
+            }
+            apply(Map.of(section.name, changes));
+
+            if (writeBehind && !closed) {
+                synchronized (flushSignal) {
+                    if (pendingSaves++ == 0) {
+                        oldestPendingSave = System.nanoTime();
+                        flushSignal.notifyAll();
+                    } else if (pendingSaves >= maxBatchSize) {
+                        flushSignal.notifyAll();
+                    }
+                }
+                return true;
+            }
+
+            List<JournalEntry> entries = new ArrayList<>();
+            Runnable commit = section.stageChanges(snapshot, entries, objectMapper);
+            sequence = journal.append(entries);
+            commit.run();
+        }
+        journal.sync(sequence);
+        compactIfNeeded();
+        return true;
+    }
+
+    /**
+     * Publishes one snapshot with the changes of every section applied under a single version,
+     * marks the changed keys dirty, logs the changes and tells the listeners. Must be called under
+     * the write lock.
+     *
+     * @param changes keyed change of each section, by section name
+     */
+    private void apply(Map<String, ? extends Map<String, ?>> changes) {
+        List<Applied<?>> applied = new ArrayList<>();
+        Map<String, OrderedPMap<String, ?>> tables = new LinkedHashMap<>();
+        Map<String, TreePSet<String>> keys = new LinkedHashMap<>();
+        for (Map.Entry<String, ? extends Map<String, ?>> change : changes.entrySet()) {
+            Applied<?> sectionChanges = applied(section(change.getKey()), change.getValue());
+            if (sectionChanges != null) {
+                applied.add(sectionChanges);
+                tables.put(change.getKey(), sectionChanges.table);
+                keys.put(change.getKey(), sectionChanges.sortedKeys);
+            }
+        }
+        if (applied.isEmpty()) {
+            return;
+        }
+        DataSnapshot published = snapshot.with(tables, keys);
+        // Logged first, so the log is never behind a snapshot a reader may have seen
+        for (Applied<?> sectionChanges : applied) {
+            sectionChanges.log(published.version(sectionChanges.section.name));
+        }
+        publication.writeLock().lock();
+        try {
+            snapshot = published;
+            for (Applied<?> sectionChanges : applied) {
+                sectionChanges.tell();
+            }
+            indexedSnapshot = snapshot;
+        } finally {
+            publication.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the changed entities of the section and its table with them applied, or null if
+     * the change leaves the section as it is
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Applied<T> applied(Section<T> section, Map<String, ?> changes) {
+        Applied<T> applied = new Applied<>(section, snapshot.table(section.name), snapshot.keys(section.name));
+        for (Map.Entry<String, ?> change : changes.entrySet()) {
+            T before = applied.table.get(change.getKey());
+            T after = (T) change.getValue();
+            if (Objects.equals(before, after)) {
+                continue;
+            }
+            if (after == null) {
+                applied.table = applied.table.minus(change.getKey());
+                applied.sortedKeys = applied.sortedKeys.minus(change.getKey());
+            } else {
+                applied.table = applied.table.plus(change.getKey(), after);
+                applied.sortedKeys = applied.sortedKeys.plus(change.getKey());
+            }
+            section.dirty.add(change.getKey());
+            applied.keys.add(change.getKey());
+            applied.previous.add(before);
+            applied.current.add(after);
+        }
+        return applied.keys.isEmpty() ? null : applied;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Section<T> section(String name) {
+        return (Section<T>) switch (name) {
+            case PERSONS -> persons;
+            case FIRESTATIONS -> fireStations;
+            case MEDICALRECORDS -> medicalRecords;
+            default -> throw new IllegalArgumentException("Unknown section: " + name);
+        };
+    }
+
+    /**
+     * Body of the flusher thread: waits for a first pending save, then for the batch to fill up
+     * or the oldest save to reach the maximum delay, then flushes everything pending at once
+     */
+    private void flushLoop() {
+        while (true) {
+            try {
+                synchronized (flushSignal) {
+                    while (pendingSaves == 0 && !closed) {
+                        flushSignal.wait();
+                    }
+                    if (pendingSaves == 0) {
+                        return;
+                    }
+                    long remaining;
+                    while (!closed && pendingSaves < maxBatchSize
+                            && (remaining = oldestPendingSave + maxDelayNanos - System.nanoTime()) > 0) {
+                        TimeUnit.NANOSECONDS.timedWait(flushSignal, remaining);
+                    }
+                }
+                flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Failed to flush pending saves to the journal of json file: {}", dataFile, e);
+            }
+        }
+    }
+
+    /**
+     * Journals the changes of every dirty section in a single append and fsync
+     */
+    private void flush() {
+        long start = System.nanoTime();
+        long sequence;
+        int flushed;
+        synchronized (writeLock) {
+            List<JournalEntry> entries = new ArrayList<>();
+            List<Runnable> commits = stageDirtySections(entries);
+            sequence = journal.append(entries);
+            commits.forEach(Runnable::run);
+            synchronized (flushSignal) {
+                flushed = pendingSaves;
+                pendingSaves = 0;
+            }
+        }
+        journal.sync(sequence);
+        if (flushed > 0) {
+            flushCount.incrementAndGet();
+            flushTimeNanos.addAndGet(System.nanoTime() - start);
+            logger.debug("Flushed {} pending saves to the journal", flushed);
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * Stages the journal entries of every dirty section. Must be called under the write lock.
+     *
+     * @return the actions to run once the entries are in the journal
+     */
+    private List<Runnable> stageDirtySections(List<JournalEntry> entries) {
+        List<Runnable> commits = new ArrayList<>();
+        for (Section<?> section : List.of(persons, fireStations, medicalRecords)) {
+            if (!section.dirty.isEmpty()) {
+                commits.add(section.stageChanges(snapshot, entries, objectMapper));
+            }
+        }
+        return commits;
+    }
+
+    private void compactIfNeeded() {
+        if (journal.entryCount() >= compactionThreshold && compactionScheduled.compareAndSet(false, true)) {
+            compactionExecutor.execute(() -> {
+                try {
+                    compact();
+                } finally {
+                    compactionScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Folds the journal into a new data file
+     *
+     * The journal is rotated under the write lock together with a capture of the journaled
+     * state, the data file is then written without holding the lock, so saves go on meanwhile.
+     * A crash at any point leaves either the old data file with both journals, or the new data
+     * file with journals whose replay is harmless since each entry holds the whole entity.
+     * A rotated journal left by a compaction which failed is not replaced: the active journal is
+     * merged into it and this compaction folds both.
+     */
+    void compact() {
+        Collection<Person> compactedPersons;
+        Collection<FireStation> compactedFireStations;
+        Collection<MedicalRecord> compactedMedicalRecords;
+        try {
+            synchronized (writeLock) {
+                if (!journal.rotate()) {
+                    // Left by a compaction which failed to write the data file, its entries are journaled already
+                    logger.warn("Folding the journal of an unfinished compaction of json file: {}", dataFile);
+                    journal.mergeIntoRotated();
+                }
+                compactedPersons = persons.journaled.values();
+                compactedFireStations = fireStations.journaled.values();
+                compactedMedicalRecords = medicalRecords.journaled.values();
+            }
+            // Terms no record uses any more are dropped along with the former dictionary
+            TermDictionary.renew();
+            compactedMedicalRecords.forEach(MedicalRecord::recode);
+            Map<String, Object> rootNode = new LinkedHashMap<>();
+            rootNode.put(PERSONS, compactedPersons);
+            rootNode.put(FIRESTATIONS, compactedFireStations);
+            rootNode.put(MEDICALRECORDS, compactedMedicalRecords);
+            rootNode.putAll(otherSections);
+            snapshotCurrent = false;
+            writeDataFile(rootNode);
+            journal.completeRotation();
+            logger.info("Compacted journal into json file: {}", dataFile);
+        } catch (IOException e) {
+            logger.error("Failed to compact the journal into json file: {}", dataFile, e);
+            return;
+        }
+        writeSnapshot(compactedPersons, compactedFireStations, compactedMedicalRecords);
+    }
+
+    /**
+     * Writes the binary snapshot of the data file, which must hold exactly the given entities
+     */
+    private void writeSnapshot(Collection<Person> persons, Collection<FireStation> fireStations,
+                               Collection<MedicalRecord> medicalRecords) {
+        if (!snapshotEnabled) {
+            return;
+        }
+        try {
+            BinarySnapshot.write(dataFile.toPath(), persons, fireStations, medicalRecords,
+                    objectMapper.writeValueAsBytes(otherSections));
+            snapshotCurrent = true;
+            logger.info("Wrote the snapshot of json file: {}", dataFile);
+        } catch (IOException e) {
+            logger.error("Failed to write the snapshot of json file: {}", dataFile, e);
+        }
+    }
+
+    /**
+     * Writes the sections to a temporary file which then replaces the data file,
+     * so a crash in the middle of a write never leaves a truncated data file behind.
+     */
+    private void writeDataFile(Map<String, Object> rootNode) throws IOException {
+        Path target = dataFile.toPath().toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), dataFile.getName(), ".tmp");
+        try {
+            objectMapper.writeValue(temp.toFile(), rootNode);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Flushes the pending saves and folds any pending journal entry into the data file
+     * before the application stops, then brings the binary snapshot up to date
+     */
+    @PreDestroy
+    public void close() {
+        closed = true;
+        try {
+            if (flusher != null) {
+                synchronized (flushSignal) {
+                    flushSignal.notifyAll();
+                }
+                flusher.join();
+                flush();
+            }
+            compactionExecutor.shutdown();
+            if (!compactionExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("Compaction still running while closing json file: {}", dataFile);
+            }
+            if (journal.entryCount() > 0) {
+                compact();
+            } else if (snapshotEnabled && !snapshotCurrent) {
+                // Nothing left to journal, so the journaled state is the content of the data file
+                synchronized (writeLock) {
+                    writeSnapshot(persons.journaled.values(), fireStations.journaled.values(), medicalRecords.journaled.values());
+                }
+            }
+            journal.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.error("Failed to close the journal of json file: {}", dataFile, e);
+        }
+    }
+
+    /**
+     * Identity of an entity in the journal, made of the fields the services match entities on
+     */
+    public static String key(String first, String second) {
+        return first + '\u0000' + second;
+    }
+
+    /**
+     * Stations are mapped by their number, so " 3" and "03" are the same station as "3" and are
+     * stored as "3", the key of their mapping included
+     * @return the station number as written by Integer, or the station as it is if it is not a number
+     */
+    public static String station(String station) {
+        Integer number = StationIndex.parse(station);
+        return number == null ? station : number.toString();
+    }
+
+    /**
+     * Receives the changes of one section, called under the write lock once the snapshot
+     * holding the change is published
+     */
+    @FunctionalInterface
+    public interface ChangeListener<T> {
+
+        /**
+         * @param previous the entity before the change, null for an insert
+         * @param current the entity after the change, null for a delete
+         */
+        void changed(T previous, T current);
+    }
+
+    /**
+     * Changed entities of one section, as applied to its table by a write
+     */
+    private static final class Applied<T> {
+
+        private final Section<T> section;
+        private OrderedPMap<String, T> table;
+        private TreePSet<String> sortedKeys;
+        private final List<String> keys = new ArrayList<>();
+        private final List<T> previous = new ArrayList<>();
+        private final List<T> current = new ArrayList<>();
+
+        private Applied(Section<T> section, OrderedPMap<String, T> table, TreePSet<String> sortedKeys) {
+            this.section = section;
+            this.table = table;
+            this.sortedKeys = sortedKeys;
+        }
+
+        private void log(long version) {
+            for (int i = 0; i < keys.size(); i++) {
+                section.changes.append(version, keys.get(i), previous.get(i), current.get(i));
+            }
+        }
+
+        private void tell() {
+            for (ChangeListener<T> listener : section.listeners) {
+                for (int i = 0; i < previous.size(); i++) {
+                    listener.changed(previous.get(i), current.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * One section of the data file: how its entities are keyed and which of their values are pooled,
+     * the state last written to the journal and the keys changed since, and the listeners of its changes
+     */
+    private static final class Section<T> {
+
+        private final String name;
+        private final Class<T> type;
+        private final Function<T, String> key;
+        // Replaces the repeated values of a freshly read entity with their pooled instances
+        private final Consumer<T> canonicalize;
+        private final List<ChangeListener<T>> listeners = new CopyOnWriteArrayList<>();
+        private final ChangeLog<T> changes = new ChangeLog<>();
+
+        // Table as of the last journal append, the current one lives in the snapshot
+        private OrderedPMap<String, T> journaled = OrderedPMap.empty();
+        // Keys changed in the snapshot and not journaled yet, guarded by the write lock
+        private final Set<String> dirty = new LinkedHashSet<>();
+
+        private Section(String name, Class<T> type, Function<T, String> key, Consumer<T> canonicalize) {
+            this.name = name;
+            this.type = type;
+            this.key = key;
+            this.canonicalize = canonicalize;
+        }
+
+        /**
+         * @throws IllegalArgumentException if two different entities share a key, one of them would be lost
+         */
+        private OrderedPMap<String, T> index(Collection<T> entities) {
+            OrderedPMap<String, T> table = OrderedPMap.empty();
+            for (T entity : entities) {
+                canonicalize.accept(entity);
+                String entityKey = key.apply(entity);
+                checkUnique(table.get(entityKey), entity);
+                table = table.plus(entityKey, entity);
+            }
+            return table;
+        }
+
+        /**
+         * Repeated entities are kept once, but two different entities with the same key can not
+         * both be kept, such as two persons with the same names
+         */
+        private void checkUnique(T existing, T entity) {
+            if (existing != null && !existing.equals(entity)) {
+                throw new IllegalArgumentException("Different " + name + " with the same key: " + existing + " and " + entity);
+            }
+        }
+
+        /**
+         * @return the change bringing the table in line with a full list of entities: each new
+         * or different entity, and a null for each entity missing from the list
+         * @throws IllegalArgumentException if two different entities of the list share a key
+         */
+        private Map<String, T> diff(OrderedPMap<String, T> table, Collection<T> entities) {
+            Map<String, T> changes = new LinkedHashMap<>();
+            Map<String, T> listed = new HashMap<>();
+            for (T entity : entities) {
+                String entityKey = key.apply(entity);
+                checkUnique(listed.put(entityKey, entity), entity);
+                if (Objects.equals(table.get(entityKey), entity)) {
+                    changes.remove(entityKey);
+                } else {
+                    changes.put(entityKey, entity);
+                }
+            }
+            for (String entityKey : table.keySet()) {
+                if (!listed.containsKey(entityKey)) {
+                    changes.put(entityKey, null);
+                }
+            }
+            return changes;
+        }
+
+        /**
+         * Adds an upsert entry for each dirty key still present in the snapshot and a deletion
+         * entry for each one removed from it
+         *
+         * @return the action to run once the entries are in the journal
+         */
+        private Runnable stageChanges(DataSnapshot snapshot, List<JournalEntry> entries, ObjectMapper objectMapper) {
+            OrderedPMap<String, T> table = snapshot.table(name);
+            OrderedPMap<String, T> next = journaled;
+            for (String entityKey : dirty) {
+                T entity = table.get(entityKey);
+                if (Objects.equals(journaled.get(entityKey), entity)) {
+                    continue;
+                }
+                if (entity == null) {
+                    entries.add(new JournalEntry(name, entityKey, null));
+                    next = next.minus(entityKey);
+                } else {
+                    entries.add(new JournalEntry(name, entityKey, objectMapper.valueToTree(entity)));
+                    next = next.plus(entityKey, entity);
+                }
+            }
+            OrderedPMap<String, T> staged = next;
+            return () -> {
+                journaled = staged;
+                dirty.clear();
+            };
+        }
+
+        /**
+         * @return the journaled table with the entries of this section applied
+         */
+        private OrderedPMap<String, T> replay(List<JournalEntry> entries, ObjectMapper objectMapper) throws IOException {
+            OrderedPMap<String, T> replayed = journaled;
+            for (JournalEntry entry : entries) {
+                if (!name.equals(entry.getSection())) {
+                    continue;
+                }
+                if (entry.getEntity() == null || entry.getEntity().isNull()) {
+                    replayed = replayed.minus(entry.getKey());
+                } else {
+                    T entity = objectMapper.treeToValue(entry.getEntity(), type);
+                    canonicalize.accept(entity);
+                    replayed = replayed.plus(entry.getKey(), entity);
+                }
+            }
+            return replayed;
+        }
+    }
+}
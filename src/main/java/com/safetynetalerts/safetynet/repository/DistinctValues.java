@@ -0,0 +1,55 @@
+package com.safetynetalerts.safetynet.repository;
+
+import java.util.List;
+
+import org.pcollections.HashTreePMap;
+import org.pcollections.OrderedPMap;
+import org.pcollections.PMap;
+
+/**
+ * Immutable set of distinct values counting their occurrences
+ *
+ * A value stays listed, at the place it was first added, until every occurrence is removed.
+ * Null values are ignored.
+ */
+final class DistinctValues {
+
+    static final DistinctValues EMPTY = new DistinctValues(OrderedPMap.empty(), HashTreePMap.empty());
+
+    private final OrderedPMap<String, String> values;
+    private final PMap<String, Integer> counts;
+
+    private DistinctValues(OrderedPMap<String, String> values, PMap<String, Integer> counts) {
+        this.values = values;
+        this.counts = counts;
+    }
+
+    /**
+     * @return the distinct values, in the order they were first added
+     */
+    List<String> list() {
+        return new TableList<>(values);
+    }
+
+    boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    DistinctValues plus(String value) {
+        if (value == null) {
+            return this;
+        }
+        int count = counts.getOrDefault(value, 0);
+        return new DistinctValues(count == 0 ? values.plus(value, value) : values, counts.plus(value, count + 1));
+    }
+
+    DistinctValues minus(String value) {
+        Integer count = value == null ? null : counts.get(value);
+        if (count == null) {
+            return this;
+        }
+        return count == 1
+                ? new DistinctValues(values.minus(value), counts.minus(value))
+                : new DistinctValues(values, counts.plus(value, count - 1));
+    }
+}
@@ -2,11 +2,24 @@ package com.safetynetalerts.safetynet.repository;
 
 import com.safetynetalerts.safetynet.model.FireStation;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface FireStationRepository {
 
     List<FireStation> getAllFireStations();
+    long getVersion();
+    Changes<FireStation> getChangesSince(long version);
+    Page<FireStation> getFireStationsPage(String afterKey, int limit);
     void saveAllFireStations(List<FireStation> fireStations);
 
+    List<FireStation> findFireStations(String address);
+    void insertFireStation(FireStation fireStation);
+    void insertFireStations(Collection<FireStation> fireStations);
+    boolean updateFireStation(FireStation fireStation);
+    boolean deleteFireStation(String address);
+
+    List<String> getAddressesByStation(int stationNumber);
+    List<Integer> getStationsByAddress(String address);
+
 }
@@ -1,77 +1,149 @@
 package com.safetynetalerts.safetynet.repository;
 
-import java.io.IOException;
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import org.springframework.stereotype.Repository;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.safetynetalerts.safetynet.model.FireStation;
 
-import java.io.File;
-
 /**
  * Implementation of the FirestationRepository interface
  * This class manages the persistence of Firestation data using a JSON file
  *
- * It provides methods to load, retrieve and save firestation data from/to JSON file
- * The data is initially loaded from the file specified by DATA_FILEPATH
+ * It provides methods to retrieve and save firestation data from/to JSON file
+ * The JSON file itself is read and written by the {@link DataStore}
  *
+ * The keyed operations work on the mappings of one address, found through an index of
+ * the fireStations by address which follows each change of the fireStations section.
+ * A second index, between station numbers and addresses, serves the lookups by station.
  */
 @Repository
 public class FireStationRepositoryImpl implements FireStationRepository {
 
-    private static final Logger logger= LogManager.getLogger(FireStationRepositoryImpl.class);
-
-    // Path for JSON file
-    private static final String DATA_FILEPATH = "src/main/resources/data.json";
-    private List<FireStation> firestations = new ArrayList<>();
-    private ObjectMapper objectMapper = new ObjectMapper();
+    private final DataStore dataStore;
+    private volatile GroupIndex<FireStation> fireStationsByAddress;
+    private volatile StationIndex stationIndex;
 
     //Constructor
-    public FireStationRepositoryImpl() {
-        loadData();
-    }
-
-    private void loadData() {
-        try {
-            JsonNode rootNode = objectMapper.readTree(new File (DATA_FILEPATH));
-            JsonNode firestationsNode = rootNode.path("firestations");
-            firestations = objectMapper.readValue(firestationsNode.toString(),
-                    new TypeReference<List<FireStation>>() {});
-        } catch (IOException e) {
-            logger.error("Failed to load fireStations from json file: {}", DATA_FILEPATH, e);
-        }
+    public FireStationRepositoryImpl(DataStore dataStore) {
+        this.dataStore = dataStore;
+        this.fireStationsByAddress = GroupIndex.of(dataStore.getFireStations(), FireStation::getAddress, FireStationRepositoryImpl::key);
+        this.stationIndex = StationIndex.of(dataStore.getFireStations());
+        dataStore.addFireStationListener(this::fireStationChanged);
+    }
 
+    private void fireStationChanged(FireStation previous, FireStation current) {
+        fireStationsByAddress = fireStationsByAddress.changed(previous, current);
+        stationIndex = stationIndex.changed(previous, current);
+    }
+
+    private static String key(FireStation fireStation) {
+        return DataStore.key(fireStation.getAddress(), fireStation.getStation());
     }
 
     @Override
     public List<FireStation> getAllFireStations() {
-        return firestations;
+        return dataStore.getFireStations();
+    }
+
+    /**
+     * @return the version of the fire stations section, increased by every change of the section
+     */
+    @Override
+    public long getVersion() {
+        return dataStore.getSnapshot().getFireStationsVersion();
+    }
+
+    /**
+     * @return the fire stations changed since the version, served from the change log of the section
+     */
+    @Override
+    public Changes<FireStation> getChangesSince(long version) {
+        return dataStore.changesSince(DataStore.FIRESTATIONS, version);
+    }
+
+    /**
+     * @return the fire stations following the key in key order, at most limit of them
+     */
+    @Override
+    public Page<FireStation> getFireStationsPage(String afterKey, int limit) {
+        return dataStore.page(DataStore.FIRESTATIONS, afterKey, limit);
     }
 
     @Override
     public void saveAllFireStations(List<FireStation> firestations) {
-        this.firestations = firestations;
-        try {
+        dataStore.saveFireStations(firestations);
+    }
 
-            //Read existing json file
-            JsonNode rootNode = objectMapper.readTree(new File(DATA_FILEPATH));
+    @Override
+    public List<FireStation> findFireStations(String address) {
+        return fireStationsByAddress.get(address);
+    }
 
-            //Update the section fireStations
-            ((ObjectNode) rootNode).putPOJO("firestations", firestations);
+    @Override
+    public void insertFireStation(FireStation fireStation) {
+        dataStore.<FireStation>write(DataStore.FIRESTATIONS, fireStations -> Map.of(key(fireStation), fireStation));
+    }
+
+    /**
+     * Adds the fire stations in a single write, each replacing any fire station with the same address and station
+     */
+    @Override
+    public void insertFireStations(Collection<FireStation> fireStations) {
+        Map<String, FireStation> changes = new LinkedHashMap<>();
+        for (FireStation fireStation : fireStations) {
+            changes.put(key(fireStation), fireStation);
+        }
+        dataStore.<FireStation>write(DataStore.FIRESTATIONS, table -> changes);
+    }
+
+    /**
+     * Replaces every mapping of the address of the given fireStation by that fireStation
+     *
+     * @return false if the address has no mapping
+     */
+    @Override
+    public boolean updateFireStation(FireStation fireStation) {
+        return dataStore.<FireStation>write(DataStore.FIRESTATIONS, fireStations -> {
+            Map<String, FireStation> changes = removals(fireStation.getAddress());
+            if (!changes.isEmpty()) {
+                changes.put(key(fireStation), fireStation);
+            }
+            return changes;
+        });
+    }
 
-            //Write all sections in json file
-            objectMapper.writeValue(new File(DATA_FILEPATH), rootNode);
+    /**
+     * Removes every mapping of the address
+     *
+     * @return false if the address has no mapping
+     */
+    @Override
+    public boolean deleteFireStation(String address) {
+        return dataStore.<FireStation>write(DataStore.FIRESTATIONS, fireStations -> removals(address));
+    }
+
+    @Override
+    public List<String> getAddressesByStation(int stationNumber) {
+        return stationIndex.addresses(stationNumber);
+    }
+
+    @Override
+    public List<Integer> getStationsByAddress(String address) {
+        return stationIndex.stations(address);
+    }
 
-        } catch (IOException e) {
-            logger.error("Failed to save fireStations data to json file: {}", DATA_FILEPATH, e);
+    /**
+     * Called under the write lock of the store, where the index is in line with the snapshot
+     */
+    private Map<String, FireStation> removals(String address) {
+        Map<String, FireStation> changes = new LinkedHashMap<>();
+        for (FireStation fireStation : fireStationsByAddress.get(address)) {
+            changes.put(key(fireStation), null);
         }
+        return changes;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,100 @@
+package com.safetynetalerts.safetynet.repository;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.pcollections.HashTreePMap;
+import org.pcollections.OrderedPMap;
+import org.pcollections.PMap;
+
+/**
+ * Immutable secondary index grouping entities by the value of one field
+ *
+ * Each group is a persistent table keyed by the identity of the entity, so moving one entity
+ * from a group to another builds the next index in logarithmic time while sharing everything
+ * else with the previous one. Entities whose field is null are not indexed.
+ */
+final class GroupIndex<T> {
+
+    private final Function<T, String> group;
+    private final Function<T, String> identity;
+    private final PMap<String, OrderedPMap<String, T>> groups;
+
+    private GroupIndex(Function<T, String> group, Function<T, String> identity, PMap<String, OrderedPMap<String, T>> groups) {
+        this.group = group;
+        this.identity = identity;
+        this.groups = groups;
+    }
+
+    /**
+     * @param entities the entities to index
+     * @param group the field the entities are grouped on
+     * @param identity the key of an entity, unique within a group
+     * @return a new index over the given entities
+     */
+    static <T> GroupIndex<T> of(Collection<T> entities, Function<T, String> group, Function<T, String> identity) {
+        GroupIndex<T> index = new GroupIndex<>(group, identity, HashTreePMap.empty());
+        for (T entity : entities) {
+            index = index.plus(entity);
+        }
+        return index;
+    }
+
+    /**
+     * @return the entities of the group, in the order they joined it
+     */
+    List<T> get(String value) {
+        OrderedPMap<String, T> members = value == null ? null : groups.get(value);
+        return members == null ? Collections.emptyList() : new TableList<>(members);
+    }
+
+    /**
+     * @return the first entity of the group, or null if there is none
+     */
+    T first(String value) {
+        OrderedPMap<String, T> members = value == null ? null : groups.get(value);
+        return members == null ? null : members.values().iterator().next();
+    }
+
+    /**
+     * @param previous the entity before the change, null for an insert
+     * @param current the entity after the change, null for a delete
+     * @return the index with the change applied
+     */
+    GroupIndex<T> changed(T previous, T current) {
+        if (previous != null && current != null && Objects.equals(group.apply(previous), group.apply(current))) {
+            // Same group, the entity is replaced in place
+            return plus(current);
+        }
+        GroupIndex<T> index = this;
+        if (previous != null) {
+            index = index.minus(previous);
+        }
+        if (current != null) {
+            index = index.plus(current);
+        }
+        return index;
+    }
+
+    private GroupIndex<T> plus(T entity) {
+        String value = group.apply(entity);
+        if (value == null) {
+            return this;
+        }
+        OrderedPMap<String, T> members = groups.getOrDefault(value, OrderedPMap.empty());
+        return new GroupIndex<>(group, identity, groups.plus(value, members.plus(identity.apply(entity), entity)));
+    }
+
+    private GroupIndex<T> minus(T entity) {
+        String value = group.apply(entity);
+        OrderedPMap<String, T> members = value == null ? null : groups.get(value);
+        if (members == null) {
+            return this;
+        }
+        members = members.minus(identity.apply(entity));
+        return new GroupIndex<>(group, identity, members.isEmpty() ? groups.minus(value) : groups.plus(value, members));
+    }
+}
@@ -0,0 +1,24 @@
+package com.safetynetalerts.safetynet.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One record of the mutation journal
+ *
+ * It holds the new state of a single entity of a section, identified by its key.
+ * An entry without entity is a deletion of the key.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalEntry {
+
+    private String section;
+    private String key;
+    private JsonNode entity;
+
+}
@@ -0,0 +1,65 @@
+package com.safetynetalerts.safetynet.repository;
+
+import java.util.List;
+import java.util.Locale;
+
+import com.safetynetalerts.safetynet.model.MedicalRecord;
+
+/**
+ * Hash index of medical records keyed by (firstName, lastName)
+ *
+ * Both names are lower cased before being combined into a single key, so a lookup gives the
+ * same answer as a case-insensitive comparison of both names, in constant time.
+ * When several records share the same names, the first one of the list wins.
+ * The index is immutable, a change builds a new one sharing the untouched records.
+ */
+final class MedicalRecordIndex {
+
+    private final GroupIndex<MedicalRecord> recordsByName;
+
+    private MedicalRecordIndex(GroupIndex<MedicalRecord> recordsByName) {
+        this.recordsByName = recordsByName;
+    }
+
+    /**
+     * @param medicalRecords the records to index
+     * @return a new index over the given records
+     */
+    static MedicalRecordIndex of(List<MedicalRecord> medicalRecords) {
+        return new MedicalRecordIndex(GroupIndex.of(medicalRecords, MedicalRecordIndex::key,
+                medicalRecord -> DataStore.key(medicalRecord.getFirstName(), medicalRecord.getLastName())));
+    }
+
+    /**
+     * @return the medical record of the given person, or null if there is none
+     */
+    MedicalRecord get(String firstName, String lastName) {
+        if (firstName == null || lastName == null) {
+            return null;
+        }
+        return recordsByName.first(key(firstName, lastName));
+    }
+
+    /**
+     * @param previous the record before the change, null for an insert
+     * @param current the record after the change, null for a delete
+     * @return the index with the change applied
+     */
+    MedicalRecordIndex changed(MedicalRecord previous, MedicalRecord current) {
+        return new MedicalRecordIndex(recordsByName.changed(previous, current));
+    }
+
+    private static String key(MedicalRecord medicalRecord) {
+        if (medicalRecord.getFirstName() == null || medicalRecord.getLastName() == null) {
+            return null;
+        }
+        return key(medicalRecord.getFirstName(), medicalRecord.getLastName());
+    }
+
+    /**
+     * Normalized composite key, the separator can not appear in a name
+     */
+    static String key(String firstName, String lastName) {
+        return firstName.toLowerCase(Locale.ROOT) + '\u0000' + lastName.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,5 +1,6 @@
 package com.safetynetalerts.safetynet.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import com.safetynetalerts.safetynet.model.MedicalRecord;
@@ -7,7 +8,16 @@ import com.safetynetalerts.safetynet.model.MedicalRecord;
 public interface MedicalRecordRepository {
 
     List<MedicalRecord> getAllMedicalRecords();
+    long getVersion();
+    Changes<MedicalRecord> getChangesSince(long version);
+    Page<MedicalRecord> getMedicalRecordsPage(String afterKey, int limit);
     MedicalRecord getMedicalRecord(String firstname, String lastName);
+    long countMedicalRecordsWithMedication(String medication);
     void saveAllMedicalRecords(List<MedicalRecord> medicalRecords);
 
+    boolean insertMedicalRecord(MedicalRecord medicalRecord);
+    void insertMedicalRecords(Collection<MedicalRecord> medicalRecords);
+    boolean updateMedicalRecord(MedicalRecord medicalRecord);
+    boolean deleteMedicalRecord(String firstName, String lastName);
+
 }
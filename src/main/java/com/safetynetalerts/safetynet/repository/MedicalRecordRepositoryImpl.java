@@ -1,88 +1,147 @@
 package com.safetynetalerts.safetynet.repository;
 
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import org.springframework.stereotype.Repository;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.safetynetalerts.safetynet.model.MedicalRecord;
-
-import java.io.File;
-import java.io.IOException;
+import com.safetynetalerts.safetynet.util.TermDictionary;
 
 /**
  * Implementation of the MedicalRecordRepository interface
  * This class manages the persistence of Medical record data using a JSON file
  *
- * It provides methods to load, retrieve and save medical record data from/to JSON file
- * The data is initially loaded from the file specified by DATA_FILEPATH
+ * It provides methods to retrieve and save medical record data from/to JSON file
+ * The JSON file itself is read and written by the {@link DataStore}
+ *
+ * The keyed operations match a record on the exact first and last name, while lookups by
+ * person name go through a {@link MedicalRecordIndex} which follows each change of the records.
  */
 @Repository
 public class MedicalRecordRepositoryImpl implements MedicalRecordRepository {
 
-    private static final Logger logger= LogManager.getLogger(MedicalRecordRepositoryImpl.class);
+    private final DataStore dataStore;
+    private volatile MedicalRecordIndex medicalRecordIndex;
 
-    // Path for JSON file
-    private static final String DATA_FILEPATH = "src/main/resources/data.json";
-    private List<MedicalRecord> medicalrecords = new ArrayList<>();
-    private ObjectMapper objectMapper = new ObjectMapper();
+    /**
+     * Constructor
+     */
+    public MedicalRecordRepositoryImpl(DataStore dataStore) {
+        this.dataStore = dataStore;
+        this.medicalRecordIndex = MedicalRecordIndex.of(dataStore.getMedicalRecords());
+        dataStore.addMedicalRecordListener(
+                (previous, current) -> medicalRecordIndex = medicalRecordIndex.changed(previous, current));
+    }
 
+    private static String key(MedicalRecord medicalRecord) {
+        return DataStore.key(medicalRecord.getFirstName(), medicalRecord.getLastName());
+    }
+
+    @Override
+    public List<MedicalRecord> getAllMedicalRecords() {
+        return dataStore.getMedicalRecords();
+    }
 
     /**
-     * Constructor
+     * @return the version of the medical records section, increased by every change of the section
      */
-    public MedicalRecordRepositoryImpl() {
-        loadData();
+    @Override
+    public long getVersion() {
+        return dataStore.getSnapshot().getMedicalRecordsVersion();
     }
 
+    /**
+     * @return the medical records changed since the version, served from the change log of the section
+     */
+    @Override
+    public Changes<MedicalRecord> getChangesSince(long version) {
+        return dataStore.changesSince(DataStore.MEDICALRECORDS, version);
+    }
 
-    private void loadData() {
-        try {
-            JsonNode rootNode = objectMapper.readTree(new File(DATA_FILEPATH));
-            JsonNode medicalRecordsNode = rootNode.path("medicalrecords");
-            medicalrecords = objectMapper.readValue(medicalRecordsNode.toString(), new TypeReference<List<MedicalRecord>>() {});
-        } catch (IOException e) {
-            logger.error("Failed to load medical record from json file: {}", DATA_FILEPATH, e);
-        }
+    /**
+     * @return the medical records following the key in key order, at most limit of them
+     */
+    @Override
+    public Page<MedicalRecord> getMedicalRecordsPage(String afterKey, int limit) {
+        return dataStore.page(DataStore.MEDICALRECORDS, afterKey, limit);
     }
 
+    /**
+     * Counts the records taking the medication, comparing dictionary codes instead of strings
+     */
     @Override
-    public List<MedicalRecord> getAllMedicalRecords() {
-        return medicalrecords;
+    public long countMedicalRecordsWithMedication(String medication) {
+        if (medication == null) {
+            return 0;
+        }
+        TermDictionary.Term term = new TermDictionary.Term(medication);
+        long count = 0;
+        for (MedicalRecord medicalRecord : dataStore.getMedicalRecords()) {
+            if (medicalRecord.hasMedication(term)) {
+                count++;
+            }
+        }
+        return count;
     }
 
     @Override
     public void saveAllMedicalRecords(List<MedicalRecord> medicalrecords) {
-        this.medicalrecords = medicalrecords;
-        try {
+        dataStore.saveMedicalRecords(medicalrecords);
+    }
 
-            //Read existing Json file
-            JsonNode rootNode = objectMapper.readTree(new File(DATA_FILEPATH));
 
-            //Update section medicalRecords
-            ((ObjectNode) rootNode).putPOJO("medicalrecords", medicalrecords);
+    @Override
+    public MedicalRecord getMedicalRecord(String firstname, String lastName) {
+        return medicalRecordIndex.get(firstname, lastName);
+    }
 
-            //Write all sections in json file
-            objectMapper.writeValue(new File(DATA_FILEPATH), rootNode);
+    /**
+     * Adds the record, unless a record with the same names exists
+     *
+     * @return false if there is such a record, which is left as it is
+     */
+    @Override
+    public boolean insertMedicalRecord(MedicalRecord medicalRecord) {
+        String key = key(medicalRecord);
+        return dataStore.<MedicalRecord>write(DataStore.MEDICALRECORDS,
+                records -> records.containsKey(key) ? Map.of() : Map.of(key, medicalRecord));
+    }
 
-        } catch (IOException e) {
-            logger.error("Failed to save medical records to json file: {}", DATA_FILEPATH, e);
+    /**
+     * Adds the medical records in a single write, each replacing any medical record with the same names
+     */
+    @Override
+    public void insertMedicalRecords(Collection<MedicalRecord> medicalRecords) {
+        Map<String, MedicalRecord> changes = new LinkedHashMap<>();
+        for (MedicalRecord medicalRecord : medicalRecords) {
+            changes.put(key(medicalRecord), medicalRecord);
         }
+        dataStore.<MedicalRecord>write(DataStore.MEDICALRECORDS, table -> changes);
     }
 
+    /**
+     * Replaces the record with the same names
+     *
+     * @return false if there is no such record
+     */
+    @Override
+    public boolean updateMedicalRecord(MedicalRecord medicalRecord) {
+        String key = key(medicalRecord);
+        return dataStore.<MedicalRecord>write(DataStore.MEDICALRECORDS,
+                records -> records.containsKey(key) ? Map.of(key, medicalRecord) : Map.of());
+    }
 
+    /**
+     * @return false if there is no such record
+     */
     @Override
-    public MedicalRecord getMedicalRecord(String firstname, String lastName) {
-        Optional<MedicalRecord> medicalRecord = medicalrecords.stream()
-                .filter(rec -> rec.getFirstName().equalsIgnoreCase(firstname) && rec.getLastName().equalsIgnoreCase(lastName))
-                .findFirst();
-        return medicalRecord.orElse(null);
+    public boolean deleteMedicalRecord(String firstName, String lastName) {
+        String key = DataStore.key(firstName, lastName);
+        return dataStore.<MedicalRecord>write(DataStore.MEDICALRECORDS,
+                records -> records.containsKey(key) ? Collections.singletonMap(key, null) : Map.of());
     }
-}
\ No newline at end of file
+}
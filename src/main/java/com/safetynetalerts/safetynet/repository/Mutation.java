@@ -0,0 +1,30 @@
+package com.safetynetalerts.safetynet.repository;
+
+import com.safetynetalerts.safetynet.model.FireStation;
+import com.safetynetalerts.safetynet.model.MedicalRecord;
+import com.safetynetalerts.safetynet.model.Person;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One mutation of a batch, on exactly one of a person, a fire station or a medical record
+ *
+ * A deletion only reads the names of the person or medical record, or the address of the fire
+ * station. With cascade, deleting a person also deletes the medical record with the same names
+ * and deleting a medical record also deletes the person.
+ */
+@Getter
+@AllArgsConstructor
+public final class Mutation {
+
+    public enum Operation {
+        ADD, UPDATE, DELETE
+    }
+
+    private final Operation operation;
+    private final Person person;
+    private final FireStation fireStation;
+    private final MedicalRecord medicalRecord;
+    private final boolean cascade;
+}
@@ -0,0 +1,279 @@
+package com.safetynetalerts.safetynet.repository;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Append-only journal of the mutations applied since the data file was last written
+ *
+ * Each entry is appended as one compact JSON line, except for atomic appends whose entries go
+ * together on one line as a JSON array: a line torn by a crash is dropped whole. Appends only write to the file, durability
+ * is given by {@link #sync(long)}: concurrent writers waiting for their entries to reach the disk
+ * share a single fsync (group commit).
+ *
+ * For compaction the active journal is rotated to a second file, which is deleted once the new
+ * data file has been written. On startup both files are replayed, the rotated one first.
+ */
+final class MutationJournal implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(MutationJournal.class);
+
+    private final Path activePath;
+    private final Path rotatedPath;
+    private final ObjectMapper objectMapper;
+
+    private FileChannel channel;
+    private long entryCount;
+    private long written;
+    private volatile long synced;
+    private final Object syncLock = new Object();
+
+    MutationJournal(Path activePath, ObjectMapper objectMapper) {
+        this.activePath = activePath;
+        this.rotatedPath = activePath.resolveSibling(activePath.getFileName() + ".compacting");
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Reads the entries of the rotated and active journal files, in the order they were appended.
+     * A torn last line, left by a crash in the middle of an append, is ignored and cut off the
+     * active file, so the next append starts a line of its own instead of being glued to it.
+     */
+    synchronized List<JournalEntry> readAll() throws IOException {
+        List<JournalEntry> entries = new ArrayList<>();
+        readFile(rotatedPath, entries);
+        readFile(activePath, entries);
+        truncateTornTail(activePath);
+        entryCount = entries.size();
+        return entries;
+    }
+
+    /**
+     * Truncates the file after its last line break
+     */
+    private static void truncateTornTail(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = file.size();
+            long end = size;
+            ByteBuffer block = ByteBuffer.allocate(4096);
+            search:
+            while (end > 0) {
+                long start = Math.max(0, end - block.capacity());
+                block.clear().limit((int) (end - start));
+                while (block.hasRemaining()) {
+                    if (file.read(block, start + block.position()) < 0) {
+                        break;
+                    }
+                }
+                for (int i = block.position() - 1; i >= 0; i--) {
+                    if (block.get(i) == '\n') {
+                        end = start + i + 1;
+                        break search;
+                    }
+                }
+                end = start;
+            }
+            if (end < size) {
+                logger.warn("Truncating the torn last line of journal file: {}, {} bytes", path, size - end);
+                file.truncate(end);
+                file.force(false);
+            }
+        }
+    }
+
+    private void readFile(Path path, List<JournalEntry> entries) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    if (line.startsWith("[")) {
+                        entries.addAll(List.of(objectMapper.readValue(line, JournalEntry[].class)));
+                    } else {
+                        entries.add(objectMapper.readValue(line, JournalEntry.class));
+                    }
+                } catch (JsonProcessingException e) {
+                    logger.warn("Ignoring unreadable journal entry in {}: {}", path, line);
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends each entry on a line of its own, see {@link #append(List, boolean)}
+     */
+    long append(List<JournalEntry> entries) {
+        return append(entries, false);
+    }
+
+    /**
+     * Appends the entries to the active journal, without waiting for them to reach the disk
+     *
+     * @param atomic true to append the entries as one line, replayed all together or not at all
+     * @return the sequence number to pass to {@link #sync(long)}
+     */
+    synchronized long append(List<JournalEntry> entries, boolean atomic) {
+        if (entries.isEmpty()) {
+            return written;
+        }
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            if (atomic) {
+                buffer.write(objectMapper.writeValueAsBytes(entries));
+                buffer.write('\n');
+            } else {
+                for (JournalEntry entry : entries) {
+                    buffer.write(objectMapper.writeValueAsBytes(entry));
+                    buffer.write('\n');
+                }
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+            FileChannel activeChannel = channel();
+            while (bytes.hasRemaining()) {
+                activeChannel.write(bytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to journal file: " + activePath, e);
+        }
+        entryCount += entries.size();
+        return ++written;
+    }
+
+    /**
+     * Waits until every append up to the given sequence number is on the disk.
+     * The thread which gets the lock first forces the file for all the appends done so far,
+     * the others then usually find their own append already synced.
+     */
+    void sync(long sequence) {
+        if (synced >= sequence) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (synced >= sequence) {
+                return;
+            }
+            long target;
+            FileChannel activeChannel;
+            synchronized (this) {
+                target = written;
+                activeChannel = channel;
+            }
+            try {
+                if (activeChannel != null) {
+                    activeChannel.force(false);
+                }
+            } catch (ClosedChannelException e) {
+                // Closed by a rotation, which forced it first
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to sync journal file: " + activePath, e);
+            }
+            synced = target;
+        }
+    }
+
+    /**
+     * @return the number of entries not yet folded into the data file
+     */
+    synchronized long entryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Moves the active journal aside before a compaction, new appends go to a fresh file
+     *
+     * @return false if a previous rotated journal is still waiting for its compaction to finish
+     */
+    synchronized boolean rotate() throws IOException {
+        if (Files.exists(rotatedPath)) {
+            return false;
+        }
+        closeChannel();
+        if (Files.exists(activePath)) {
+            Files.move(activePath, rotatedPath, StandardCopyOption.ATOMIC_MOVE);
+        }
+        entryCount = 0;
+        return true;
+    }
+
+    /**
+     * Moves the entries of the active journal to the end of the rotated one left by an unfinished
+     * compaction, new appends go to a fresh file. Both are then folded by the next data file.
+     */
+    synchronized void mergeIntoRotated() throws IOException {
+        closeChannel();
+        if (Files.exists(activePath)) {
+            byte[] active = Files.readAllBytes(activePath);
+            try (FileChannel rotated = FileChannel.open(rotatedPath, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long size = rotated.size();
+                ByteBuffer last = ByteBuffer.allocate(1);
+                boolean endsWithLine = size == 0 || rotated.read(last, size - 1) == 1 && last.get(0) == '\n';
+                rotated.position(size);
+                ByteBuffer bytes = ByteBuffer.allocate(active.length + 1);
+                if (!endsWithLine) {
+                    bytes.put((byte) '\n');
+                }
+                bytes.put(active).flip();
+                while (bytes.hasRemaining()) {
+                    rotated.write(bytes);
+                }
+                rotated.force(false);
+            }
+            Files.delete(activePath);
+        }
+        entryCount = 0;
+    }
+
+    /**
+     * Deletes the rotated journal once the data file holding its entries has been written
+     */
+    synchronized void completeRotation() throws IOException {
+        Files.deleteIfExists(rotatedPath);
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(activePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+            channel = null;
+            synced = written;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closeChannel();
+    }
+}
@@ -0,0 +1,18 @@
+package com.safetynetalerts.safetynet.repository;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One page of a section in the order of the entity keys
+ */
+@Getter
+@AllArgsConstructor
+public final class Page<T> {
+
+    private final List<T> items;
+    // Key of the last item when more entities follow, null on the last page
+    private final String nextKey;
+}
@@ -2,11 +2,21 @@ package com.safetynetalerts.safetynet.repository;
 
 import com.safetynetalerts.safetynet.model.Person;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface PersonRepository {
 
     List<Person> getAllPersons();
+    long getVersion();
+    Changes<Person> getChangesSince(long version);
+    Page<Person> getPersonsPage(String afterKey, int limit);
     void saveAllPersons(List<Person> persons);
 
+    Person findPerson(String firstName, String lastName);
+    boolean insertPerson(Person person);
+    void insertPersons(Collection<Person> persons);
+    boolean updatePerson(Person person);
+    boolean deletePerson(String firstName, String lastName);
+
 }
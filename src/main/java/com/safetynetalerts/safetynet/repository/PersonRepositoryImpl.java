@@ -1,84 +1,130 @@
 package com.safetynetalerts.safetynet.repository;
 
-import java.io.IOException;
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.safetynetalerts.safetynet.model.Person;
 
-import java.io.File;
-
 /**
  * Implementation of the PersonRepository interface
  * This class manages the persistence of person data using a JSON file
  *
- * It provides methods to load, retrieve and save person data from/to JSON file
- * The data is initially loaded from the file specified by DATA_FILEPATH
+ * It provides methods to retrieve and save person data from/to JSON file
+ * The JSON file itself is read and written by the {@link DataStore}, which owns the
+ * "persons" section along with the other sections of the file
+ *
+ * Persons are keyed by their exact first and last name, the keyed operations change
+ * a single person without going through the whole list. Lookups by address, last name
+ * or city are served by the materialized views of the {@link AlertViewRepositoryImpl}.
  *
- * This class is in charge of reading and writing JSON objects from a file using Jackson for
- * serialization and deserialization
- * Convert object to json
- * Convert json to object
+ * The repository keeps no index or columnar copy of the persons of its own. Both existed and were
+ * removed once every alert read went through the views: the copies cost heap and upkeep on each
+ * write, and the only reads left here are keyed lookups and the whole listing.
  */
 
 @Repository
 public class PersonRepositoryImpl implements PersonRepository {
 
-    private static final Logger logger= LogManager.getLogger(PersonRepositoryImpl.class);
-
-    // Path for JSON file
-    private static final String DATA_FILEPATH = "src/main/resources/data.json";
-    private List<Person> persons = new ArrayList<>();
-    private ObjectMapper objectMapper = new ObjectMapper();
-
+    private final DataStore dataStore;
 
     /**
      * Constructor
      */
-    public PersonRepositoryImpl() {
-        loadData();
+    public PersonRepositoryImpl(DataStore dataStore) {
+        this.dataStore = dataStore;
     }
 
-
-    private void loadData() {
-        try {
-            JsonNode rootNode = objectMapper.readTree(new File(DATA_FILEPATH));
-            JsonNode personsNode = rootNode.path("persons");
-            persons = objectMapper.readValue(personsNode.toString(), new TypeReference<List<Person>>() {});
-        } catch (IOException e) {
-            logger.error("Failed to load person data from json file: {}", DATA_FILEPATH, e);
-        }
+    private static String key(Person person) {
+        return DataStore.key(person.getFirstName(), person.getLastName());
     }
 
     @Override
     public List<Person> getAllPersons() {
-        return persons;
+        return dataStore.getPersons();
+    }
+
+    /**
+     * @return the version of the persons section, increased by every change of the section
+     */
+    @Override
+    public long getVersion() {
+        return dataStore.getSnapshot().getPersonsVersion();
+    }
+
+    /**
+     * @return the persons changed since the version, served from the change log of the section
+     */
+    @Override
+    public Changes<Person> getChangesSince(long version) {
+        return dataStore.changesSince(DataStore.PERSONS, version);
+    }
+
+    /**
+     * @return the persons following the key in key order, at most limit of them
+     */
+    @Override
+    public Page<Person> getPersonsPage(String afterKey, int limit) {
+        return dataStore.page(DataStore.PERSONS, afterKey, limit);
     }
 
     @Override
     public void saveAllPersons(List<Person> persons) {
-        this.persons = persons;
-        try {
-            //Read json existing json file
-            JsonNode rootNode = objectMapper.readTree(new File(DATA_FILEPATH));
+        dataStore.savePersons(persons);
+    }
 
-            //Update the section "persons"
-            ((ObjectNode) rootNode).putPOJO("persons", persons);
+    @Override
+    public Person findPerson(String firstName, String lastName) {
+        return dataStore.find(DataStore.PERSONS, DataStore.key(firstName, lastName));
+    }
 
-            //Write all sections
-            objectMapper.writeValue(new File(DATA_FILEPATH), rootNode);
+    /**
+     * Adds the person, unless a person with the same names exists
+     *
+     * @return false if there is such a person, which is left as it is
+     */
+    @Override
+    public boolean insertPerson(Person person) {
+        String key = key(person);
+        return dataStore.<Person>write(DataStore.PERSONS,
+                persons -> persons.containsKey(key) ? Map.of() : Map.of(key, person));
+    }
 
-        } catch (IOException e) {
-            logger.error("Failed to save person data to json file: {}", DATA_FILEPATH, e);
+    /**
+     * Adds the persons in a single write, each replacing any person with the same names
+     */
+    @Override
+    public void insertPersons(Collection<Person> persons) {
+        Map<String, Person> changes = new LinkedHashMap<>();
+        for (Person person : persons) {
+            changes.put(key(person), person);
         }
+        dataStore.<Person>write(DataStore.PERSONS, table -> changes);
+    }
+
+    /**
+     * Replaces the person with the same names
+     *
+     * @return false if there is no such person
+     */
+    @Override
+    public boolean updatePerson(Person person) {
+        String key = key(person);
+        return dataStore.<Person>write(DataStore.PERSONS,
+                persons -> persons.containsKey(key) ? Map.of(key, person) : Map.of());
+    }
+
+    /**
+     * @return false if there is no such person
+     */
+    @Override
+    public boolean deletePerson(String firstName, String lastName) {
+        String key = DataStore.key(firstName, lastName);
+        return dataStore.<Person>write(DataStore.PERSONS,
+                persons -> persons.containsKey(key) ? Collections.singletonMap(key, null) : Map.of());
     }
-}
\ No newline at end of file
+}
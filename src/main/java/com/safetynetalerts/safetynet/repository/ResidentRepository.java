@@ -0,0 +1,18 @@
+package com.safetynetalerts.safetynet.repository;
+
+import java.util.List;
+import java.util.function.Function;
+
+import com.safetynetalerts.safetynet.model.Resident;
+
+public interface ResidentRepository {
+
+    List<Resident> getResidentsByAddress(String address);
+    List<Resident> getResidentsByLastName(String lastName);
+
+    /**
+     * @return the residents of each address as of the call, unaffected by any later change
+     */
+    Function<String, List<Resident>> getHouseholds();
+
+}
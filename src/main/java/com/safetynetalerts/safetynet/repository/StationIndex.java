@@ -0,0 +1,120 @@
+package com.safetynetalerts.safetynet.repository;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.pcollections.HashTreePMap;
+import org.pcollections.IntTreePMap;
+import org.pcollections.PMap;
+import org.pcollections.PVector;
+import org.pcollections.TreePVector;
+
+import com.safetynetalerts.safetynet.model.FireStation;
+
+/**
+ * Immutable bidirectional index between station numbers and the addresses they cover
+ *
+ * Station numbers are parsed once, when a mapping enters the index, and the stations are keyed
+ * by their int value so that a lookup by station number never parses or compares strings.
+ * Mappings whose station is not a number are not indexed.
+ */
+final class StationIndex {
+
+    static final StationIndex EMPTY = new StationIndex(IntTreePMap.empty(), HashTreePMap.empty());
+
+    private final IntTreePMap<PVector<String>> addressesByStation;
+    private final PMap<String, PVector<Integer>> stationsByAddress;
+
+    private StationIndex(IntTreePMap<PVector<String>> addressesByStation, PMap<String, PVector<Integer>> stationsByAddress) {
+        this.addressesByStation = addressesByStation;
+        this.stationsByAddress = stationsByAddress;
+    }
+
+    /**
+     * @return a new index over the given fireStations
+     */
+    static StationIndex of(Collection<FireStation> fireStations) {
+        StationIndex index = EMPTY;
+        for (FireStation fireStation : fireStations) {
+            index = index.plus(fireStation);
+        }
+        return index;
+    }
+
+    /**
+     * @return the addresses covered by the station, in the order they were mapped
+     */
+    List<String> addresses(int station) {
+        PVector<String> addresses = addressesByStation.get(station);
+        return addresses == null ? Collections.emptyList() : addresses;
+    }
+
+    /**
+     * @return the stations covering the address, in the order they were mapped
+     */
+    List<Integer> stations(String address) {
+        PVector<Integer> stations = address == null ? null : stationsByAddress.get(address);
+        return stations == null ? Collections.emptyList() : stations;
+    }
+
+    /**
+     * @param previous the mapping before the change, null for an insert
+     * @param current the mapping after the change, null for a delete
+     * @return the index with the change applied
+     */
+    StationIndex changed(FireStation previous, FireStation current) {
+        StationIndex index = this;
+        if (previous != null) {
+            index = index.minus(previous);
+        }
+        if (current != null) {
+            index = index.plus(current);
+        }
+        return index;
+    }
+
+    private StationIndex plus(FireStation fireStation) {
+        Integer station = parse(fireStation.getStation());
+        String address = fireStation.getAddress();
+        if (station == null || address == null) {
+            return this;
+        }
+        PVector<String> addresses = addressesByStation.getOrDefault(station, TreePVector.empty());
+        PVector<Integer> stations = stationsByAddress.getOrDefault(address, TreePVector.empty());
+        if (addresses.contains(address)) {
+            return this;
+        }
+        return new StationIndex(addressesByStation.plus(station, addresses.plus(address)),
+                stationsByAddress.plus(address, stations.plus(station)));
+    }
+
+    private StationIndex minus(FireStation fireStation) {
+        Integer station = parse(fireStation.getStation());
+        String address = fireStation.getAddress();
+        PVector<String> addresses = station == null ? null : addressesByStation.get(station);
+        if (addresses == null || !addresses.contains(address)) {
+            return this;
+        }
+        addresses = addresses.minus(address);
+        // Removes the element, not the index
+        PVector<Integer> stations = stationsByAddress.get(address).minus((Object) station);
+        return new StationIndex(
+                addresses.isEmpty() ? addressesByStation.minus(station) : addressesByStation.plus(station, addresses),
+                stations.isEmpty() ? stationsByAddress.minus(address) : stationsByAddress.plus(address, stations));
+    }
+
+    /**
+     * @return the station number, or null if the station is not a number
+     */
+    static Integer parse(String station) {
+        if (station == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(station.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.safetynetalerts.safetynet.repository;
+
+import java.util.List;
+
+import com.safetynetalerts.safetynet.model.Resident;
+
+/**
+ * Immutable materialized view of the residents covered by one station
+ *
+ * Along with the residents, sorted by birthdate for the age ranges, the view keeps their
+ * distinct phone numbers.
+ */
+final class StationView {
+
+    static final StationView EMPTY = new StationView(BirthdateIndex.EMPTY, DistinctValues.EMPTY);
+
+    private final BirthdateIndex residents;
+    private final DistinctValues phones;
+
+    private StationView(BirthdateIndex residents, DistinctValues phones) {
+        this.residents = residents;
+        this.phones = phones;
+    }
+
+    BirthdateIndex getResidents() {
+        return residents;
+    }
+
+    List<String> getPhoneNumbers() {
+        return phones.list();
+    }
+
+    boolean isEmpty() {
+        return residents.isEmpty();
+    }
+
+    /**
+     * Adds the resident, or replaces it in place if the key is already covered
+     */
+    StationView put(String key, Resident resident) {
+        BirthdateIndex nextResidents = residents.put(key, resident);
+        if (nextResidents == residents) {
+            return this;
+        }
+        Resident previous = residents.getResident(key);
+        DistinctValues nextPhones = previous == null ? phones : phones.minus(previous.getPerson().getPhone());
+        return new StationView(nextResidents, nextPhones.plus(resident.getPerson().getPhone()));
+    }
+
+    StationView remove(String key) {
+        Resident previous = residents.getResident(key);
+        if (previous == null) {
+            return this;
+        }
+        return new StationView(residents.remove(key), phones.minus(previous.getPerson().getPhone()));
+    }
+}
@@ -0,0 +1,42 @@
+package com.safetynetalerts.safetynet.repository;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+
+import org.pcollections.OrderedPMap;
+
+/**
+ * Read only list over the values of a persistent table, iterated in insertion order
+ *
+ * The list is a view: it costs nothing to create and shares the table it was made from.
+ */
+final class TableList<T> extends AbstractList<T> {
+
+    private final OrderedPMap<String, T> table;
+
+    TableList(OrderedPMap<String, T> table) {
+        this.table = table;
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= table.size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        Iterator<T> values = table.values().iterator();
+        for (int i = 0; i < index; i++) {
+            values.next();
+        }
+        return values.next();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return table.values().iterator();
+    }
+
+    @Override
+    public int size() {
+        return table.size();
+    }
+}
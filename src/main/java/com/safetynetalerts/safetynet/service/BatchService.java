@@ -0,0 +1,11 @@
+package com.safetynetalerts.safetynet.service;
+
+import java.util.List;
+
+import com.safetynetalerts.safetynet.dto.MutationDTO;
+
+public interface BatchService {
+
+    void applyBatch(List<MutationDTO> mutations);
+
+}
@@ -0,0 +1,151 @@
+package com.safetynetalerts.safetynet.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.safetynetalerts.safetynet.dto.FireStationDTO;
+import com.safetynetalerts.safetynet.dto.MedicalRecordDTO;
+import com.safetynetalerts.safetynet.dto.MutationDTO;
+import com.safetynetalerts.safetynet.dto.PersonDTO;
+import com.safetynetalerts.safetynet.model.FireStation;
+import com.safetynetalerts.safetynet.model.MedicalRecord;
+import com.safetynetalerts.safetynet.model.Person;
+import com.safetynetalerts.safetynet.repository.BatchRepository;
+import com.safetynetalerts.safetynet.repository.DataStore;
+import com.safetynetalerts.safetynet.repository.Mutation;
+import com.safetynetalerts.safetynet.repository.Mutation.Operation;
+import com.safetynetalerts.safetynet.util.StringPool;
+
+/**
+ * Validates a batch of mutations with the rules of the single entity endpoints, then hands it to
+ * the repository which applies it atomically. Unlike the single update of a person, updating a
+ * missing entity fails the batch.
+ */
+@Service
+public class BatchServiceImpl implements BatchService {
+
+    private static final Logger logger = LogManager.getLogger(BatchServiceImpl.class);
+
+    @Autowired
+    private BatchRepository batchRepository;
+
+    /**
+     * @throws IllegalArgumentException naming the index of the first invalid mutation, in which case nothing is applied
+     */
+    @Override
+    public void applyBatch(List<MutationDTO> mutationDTOs) {
+        logger.debug("Applying a batch of {} mutations", mutationDTOs.size());
+
+        List<Mutation> mutations = new ArrayList<>(mutationDTOs.size());
+        for (int i = 0; i < mutationDTOs.size(); i++) {
+            try {
+                mutations.add(convertToMutation(mutationDTOs.get(i)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Mutation " + i + ": " + e.getMessage(), e);
+            }
+        }
+        batchRepository.applyBatch(mutations);
+
+        logger.debug("Batch of {} mutations applied successfully", mutations.size());
+    }
+
+    private Mutation convertToMutation(MutationDTO dto) {
+        Operation operation = operation(dto.getOperation());
+        int entities = (dto.getPerson() != null ? 1 : 0) + (dto.getFireStation() != null ? 1 : 0)
+                + (dto.getMedicalRecord() != null ? 1 : 0);
+        if (entities != 1) {
+            throw new IllegalArgumentException("Exactly one of person, fireStation or medicalRecord must be set");
+        }
+        if (dto.isCascade() && (operation != Operation.DELETE || dto.getFireStation() != null)) {
+            throw new IllegalArgumentException("Cascade only applies to the delete of a person or a medical record");
+        }
+
+        if (dto.getPerson() != null) {
+            return new Mutation(operation, convertToPerson(operation, dto.getPerson()), null, null, dto.isCascade());
+        }
+        if (dto.getFireStation() != null) {
+            return new Mutation(operation, null, convertToFireStation(operation, dto.getFireStation()), null, false);
+        }
+        return new Mutation(operation, null, null, convertToMedicalRecord(operation, dto.getMedicalRecord()),
+                dto.isCascade());
+    }
+
+    private static Operation operation(String operation) {
+        if (operation != null) {
+            switch (operation.toLowerCase(Locale.ROOT)) {
+                case "add":
+                    return Operation.ADD;
+                case "update":
+                    return Operation.UPDATE;
+                case "delete":
+                    return Operation.DELETE;
+                default:
+                    break;
+            }
+        }
+        throw new IllegalArgumentException("Operation must be add, update or delete");
+    }
+
+    private static Person convertToPerson(Operation operation, PersonDTO dto) {
+        if (isEmpty(dto.getFirstName()) || isEmpty(dto.getLastName())) {
+            throw new IllegalArgumentException("First name or last name is missing");
+        }
+        if (operation == Operation.ADD && (isEmpty(dto.getAddress()) || isEmpty(dto.getCity())
+                || isEmpty(dto.getPhone()) || isEmpty(dto.getEmail()))) {
+            throw new IllegalArgumentException("All fields must be non-empty.");
+        }
+
+        Person person = new Person();
+        person.setFirstName(dto.getFirstName());
+        person.setLastName(dto.getLastName());
+        person.setAddress(StringPool.canonical(dto.getAddress()));
+        person.setCity(StringPool.canonical(dto.getCity()));
+        person.setZip(StringPool.canonical(dto.getZip()));
+        person.setPhone(dto.getPhone());
+        person.setEmail(dto.getEmail());
+        return person;
+    }
+
+    private static FireStation convertToFireStation(Operation operation, FireStationDTO dto) {
+        if (operation == Operation.DELETE) {
+            if (dto.getAddress() == null) {
+                throw new IllegalArgumentException("Address cannot be null");
+            }
+        } else if (dto.getAddress() == null || dto.getStation() == null) {
+            throw new IllegalArgumentException("Address and station cannot be null");
+        } else if (!dto.getStation().trim().matches("\\d+")) {
+            throw new IllegalArgumentException("Station must be a number");
+        }
+
+        FireStation fireStation = new FireStation();
+        fireStation.setAddress(StringPool.canonical(dto.getAddress()));
+        fireStation.setStation(StringPool.canonical(DataStore.station(dto.getStation())));
+        return fireStation;
+    }
+
+    private static MedicalRecord convertToMedicalRecord(Operation operation, MedicalRecordDTO dto) {
+        if (dto.getFirstName() == null || dto.getLastName() == null) {
+            throw new IllegalArgumentException("First name and last name cannot be null");
+        }
+
+        MedicalRecord medicalRecord = new MedicalRecord();
+        medicalRecord.setFirstName(dto.getFirstName());
+        medicalRecord.setLastName(dto.getLastName());
+        if (operation != Operation.DELETE) {
+            medicalRecord.setBirthdate(dto.getBirthdate());
+            medicalRecord.setMedications(dto.getMedications());
+            medicalRecord.setAllergies(dto.getAllergies());
+        }
+        return medicalRecord;
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+}
@@ -1,10 +1,6 @@
 package com.safetynetalerts.safetynet.service;
 
-import java.time.LocalDate;
-import java.time.Period;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Objects;
 import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
@@ -14,10 +10,11 @@ import org.springframework.stereotype.Service;
 
 import com.safetynetalerts.safetynet.dto.ChildAlertDTO;
 import com.safetynetalerts.safetynet.dto.HouseHoldMemberDTO;
-import com.safetynetalerts.safetynet.model.Person;
-import com.safetynetalerts.safetynet.model.MedicalRecord;
-import com.safetynetalerts.safetynet.repository.MedicalRecordRepository;
-import com.safetynetalerts.safetynet.repository.PersonRepository;
+import com.safetynetalerts.safetynet.model.Resident;
+import com.safetynetalerts.safetynet.repository.AlertViewRepository;
+import com.safetynetalerts.safetynet.repository.DataStore;
+import com.safetynetalerts.safetynet.repository.ResidentRepository;
+import com.safetynetalerts.safetynet.util.AgeCalculator;
 
 @Service
 public class ChildAlertServiceImpl implements ChildAlertService {
@@ -25,14 +22,19 @@ public class ChildAlertServiceImpl implements ChildAlertService {
     private static final Logger logger= LogManager.getLogger(ChildAlertServiceImpl.class);
 
     @Autowired
-    private PersonRepository personRepository;
+    private DataStore dataStore;
 
     @Autowired
-    private MedicalRecordRepository medicalRecordRepository;
+    private ResidentRepository residentRepository;
+
+    @Autowired
+    private AlertViewRepository alertViewRepository;
 
     /**
      * Retrieves a list of children living at a specific address along with their household members
      * A child is defined as person who is 18 years old or younger.
+     * The children and the household are read from the same state of the data, so a child always
+     * belongs to the household listed with it.
      *
      *  @param address (the address to search for children)
      *  @return a list of ChildAlertDTO objects, each representing a child ad their household members
@@ -41,45 +43,33 @@ public class ChildAlertServiceImpl implements ChildAlertService {
     @Override
     public List<ChildAlertDTO> getChildrenByAddress(String address) {
 
-        List<Person> personsAtSameAddress = personRepository.getAllPersons().stream()
-                .filter(person -> person.getAddress().equals(address))
-                .toList();
-
-        List<ChildAlertDTO> children = personsAtSameAddress.stream().map(person -> {
-                    MedicalRecord medicalRecord = medicalRecordRepository.getMedicalRecord(person.getFirstName(), person.getLastName());
+        List<List<Resident>> household = dataStore.readConsistently(snapshot -> List.of(
+                residentRepository.getResidentsByAddress(address),
+                alertViewRepository.getResidentsByAge(address, 0, AgeCalculator.CHILD_MAX_AGE)));
+        List<Resident> residentsAtSameAddress = household.get(0);
 
-                    int age = getAge(medicalRecord.getBirthdate());
-                    if (age <= 18) {
-                        ChildAlertDTO childAlertDTO = new ChildAlertDTO();
-                        childAlertDTO.setFirstName(person.getFirstName());
-                        childAlertDTO.setLastName(person.getLastName());
-                        childAlertDTO.setAge(age);
+        List<ChildAlertDTO> children = household.get(1).stream()
+                .map(child -> {
+                    ChildAlertDTO childAlertDTO = new ChildAlertDTO();
+                    childAlertDTO.setFirstName(child.getPerson().getFirstName());
+                    childAlertDTO.setLastName(child.getPerson().getLastName());
+                    childAlertDTO.setAge(AgeCalculator.getAge(child.getBirthEpochDay()));
 
-                        List<HouseHoldMemberDTO> householdMembers = personsAtSameAddress.stream()
-                                .filter(member -> !member.equals(person))
-                                .map(member -> {
-                                    HouseHoldMemberDTO householdMemberDTO = new HouseHoldMemberDTO();
-                                    householdMemberDTO.setFirstName(member.getFirstName());
-                                    householdMemberDTO.setLastName(member.getLastName());
-                                    return householdMemberDTO;
-                                })
-                                .collect(Collectors.toList());
-                        childAlertDTO.setHouseholdMembers(householdMembers);
-                        return childAlertDTO;
-                    } else {
-                        return null;
-                    }
+                    List<HouseHoldMemberDTO> householdMembers = residentsAtSameAddress.stream()
+                            .filter(member -> !member.equals(child))
+                            .map(member -> {
+                                HouseHoldMemberDTO householdMemberDTO = new HouseHoldMemberDTO();
+                                householdMemberDTO.setFirstName(member.getPerson().getFirstName());
+                                householdMemberDTO.setLastName(member.getPerson().getLastName());
+                                return householdMemberDTO;
+                            })
+                            .collect(Collectors.toList());
+                    childAlertDTO.setHouseholdMembers(householdMembers);
+                    return childAlertDTO;
                 })
-                .filter(Objects::nonNull).collect(Collectors.toList());
+                .collect(Collectors.toList());
 
         return children;
     }
 
-    private int getAge(String birthdate) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yyyy");
-        LocalDate birthDate = LocalDate.parse(birthdate, formatter);
-        LocalDate currentDate = LocalDate.now();
-        return Period.between(birthDate, currentDate).getYears();
-    }
-
 }
\ No newline at end of file
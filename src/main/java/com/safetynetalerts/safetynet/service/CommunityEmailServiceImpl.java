@@ -1,15 +1,13 @@
 package com.safetynetalerts.safetynet.service;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
-import com.safetynetalerts.safetynet.model.Person;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import com.safetynetalerts.safetynet.repository.PersonRepository;
+import com.safetynetalerts.safetynet.repository.AlertViewRepository;
 
 @Service
 public class CommunityEmailServiceImpl implements CommunityEmailService{
@@ -17,14 +15,11 @@ public class CommunityEmailServiceImpl implements CommunityEmailService{
     private static final Logger logger= LogManager.getLogger(CommunityEmailServiceImpl.class);
 
     @Autowired
-    private PersonRepository personRepository;
+    private AlertViewRepository alertViewRepository;
 
     @Override
     public List<String> getEmailsByCity(String city) {
-        List<String> emailsByCity = personRepository.getAllPersons().stream()
-                .filter(person -> person.getCity().equals(city))
-                .map(Person::getEmail).distinct()
-                .collect(Collectors.toList());
+        List<String> emailsByCity = alertViewRepository.getEmailsByCity(city);
         return emailsByCity;
     }
 
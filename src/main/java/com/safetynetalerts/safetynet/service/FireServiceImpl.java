@@ -1,12 +1,8 @@
 package com.safetynetalerts.safetynet.service;
 
-import java.time.LocalDate;
-import java.time.Period;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import com.safetynetalerts.safetynet.model.FireStation;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,9 +11,9 @@ import org.springframework.stereotype.Service;
 import com.safetynetalerts.safetynet.dto.FireDTO;
 import com.safetynetalerts.safetynet.model.MedicalRecord;
 import com.safetynetalerts.safetynet.model.Person;
-import com.safetynetalerts.safetynet.repository.FireStationRepository;
-import com.safetynetalerts.safetynet.repository.MedicalRecordRepository;
-import com.safetynetalerts.safetynet.repository.PersonRepository;
+import com.safetynetalerts.safetynet.model.Resident;
+import com.safetynetalerts.safetynet.repository.ResidentRepository;
+import com.safetynetalerts.safetynet.util.AgeCalculator;
 
 @Service
 public class FireServiceImpl implements FireService {
@@ -25,54 +21,34 @@ public class FireServiceImpl implements FireService {
     private static final Logger logger= LogManager.getLogger(FireServiceImpl.class);
 
     @Autowired
-    private PersonRepository personRepository;
-
-    @Autowired
-    private FireStationRepository fireStationRepository;
-
-    @Autowired
-    private MedicalRecordRepository medicalRecordRepository;
+    private ResidentRepository residentRepository;
 
     @Override
     public List<FireDTO> getPersonsByAddress(String address) {
-        List<Person> personsAtSameAddress = personRepository.getAllPersons().stream()
-                .filter(person -> person.getAddress().equals(address))
-                .toList();
+        List<Resident> residentsAtSameAddress = residentRepository.getResidentsByAddress(address);
 
-        String stationNumber = fireStationRepository.getAllFireStations().stream()
-                .filter(fs -> fs.getAddress().equals(address))
-                .map(FireStation::getStation)
-                .findFirst().orElse("");
-
-        return personsAtSameAddress.stream()
-                .map(person -> convertToFireDTO(person, stationNumber))
+        return residentsAtSameAddress.stream()
+                .map(this::convertToFireDTO)
                 .collect(Collectors.toList());
     }
 
-    private FireDTO convertToFireDTO(Person person, String stationNumber) {
+    private FireDTO convertToFireDTO(Resident resident) {
+        Person person = resident.getPerson();
         FireDTO fireDTO = new FireDTO();
         fireDTO.setFirstName(person.getFirstName());
         fireDTO.setLastName(person.getLastName());
         fireDTO.setPhone(person.getPhone());
 
-        MedicalRecord medicalRecord = medicalRecordRepository.getMedicalRecord(person.getFirstName(), person.getLastName());
+        MedicalRecord medicalRecord = resident.getMedicalRecord();
         if(medicalRecord != null) {
-            fireDTO.setAge(getAge(medicalRecord.getBirthdate()));
+            fireDTO.setAge(AgeCalculator.getAge(medicalRecord.getBirthEpochDay()));
             fireDTO.setMedications(medicalRecord.getMedications());
             fireDTO.setAllergies(medicalRecord.getAllergies());
         }
 
-        fireDTO.setStationNumber(stationNumber);
+        fireDTO.setStationNumber(resident.getStationNumber());
 
         return fireDTO;
     }
 
-    private int getAge(String birthdate) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yyyy");
-        LocalDate birthDate = LocalDate.parse(birthdate, formatter);
-        LocalDate currentDate = LocalDate.now();
-        return Period.between(birthDate, currentDate).getYears();
-
-    }
-
-}
\ No newline at end of file
+}
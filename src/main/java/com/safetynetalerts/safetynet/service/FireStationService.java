@@ -1,17 +1,24 @@
 package com.safetynetalerts.safetynet.service;
 
 import java.util.List;
+import java.util.stream.Stream;
 
+import com.safetynetalerts.safetynet.dto.ChangesDTO;
 import com.safetynetalerts.safetynet.dto.FireStationCoverageDTO;
 import com.safetynetalerts.safetynet.dto.FireStationDTO;
+import com.safetynetalerts.safetynet.dto.PageDTO;
 
 public interface FireStationService {
 
     List<FireStationDTO> getAllFireStations();
+    ChangesDTO<FireStationDTO> getChangesSince(long version);
+    PageDTO<FireStationDTO> getFireStationsPage(String cursor, int limit);
+    Stream<FireStationDTO> streamAllFireStations();
     void addFireStation (FireStationDTO firestationDTO);
     void updateFireStation(FireStationDTO firestationDTO);
     void deleteFireStation(String address);
     FireStationCoverageDTO getCoverageByStationNumber(int stationNumber);
+    FireStationCoverageDTO getCoverageByStationNumber(int stationNumber, int minAge, int maxAge);
 
 }
 
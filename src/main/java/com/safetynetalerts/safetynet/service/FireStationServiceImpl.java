@@ -1,25 +1,30 @@
 package com.safetynetalerts.safetynet.service;
 
-import java.time.LocalDate;
-import java.time.Period;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.safetynetalerts.safetynet.dto.ChangesDTO;
 import com.safetynetalerts.safetynet.dto.FireStationPersonDTO;
 import com.safetynetalerts.safetynet.dto.FireStationCoverageDTO;
 import com.safetynetalerts.safetynet.dto.FireStationDTO;
+import com.safetynetalerts.safetynet.dto.PageDTO;
 import com.safetynetalerts.safetynet.model.FireStation;
-import com.safetynetalerts.safetynet.model.MedicalRecord;
 import com.safetynetalerts.safetynet.model.Person;
+import com.safetynetalerts.safetynet.model.StationCoverage;
+import com.safetynetalerts.safetynet.repository.AlertViewRepository;
+import com.safetynetalerts.safetynet.repository.Changes;
+import com.safetynetalerts.safetynet.repository.DataStore;
 import com.safetynetalerts.safetynet.repository.FireStationRepository;
-import com.safetynetalerts.safetynet.repository.MedicalRecordRepository;
-import com.safetynetalerts.safetynet.repository.PersonRepository;
+import com.safetynetalerts.safetynet.repository.Page;
+import com.safetynetalerts.safetynet.util.PageCursor;
+import com.safetynetalerts.safetynet.util.StringPool;
 
 @Service
 public class FireStationServiceImpl implements FireStationService {
@@ -29,11 +34,11 @@ public class FireStationServiceImpl implements FireStationService {
     @Autowired
     private FireStationRepository fireStationRepository;
 
-    @Autowired
-    private PersonRepository personRepository;
+    @Value("${safetynet.page.max-size:500}")
+    private int maxPageSize;
 
     @Autowired
-    private MedicalRecordRepository medicalRecordRepository;
+    private AlertViewRepository alertViewRepository;
 
     /**
      *GET all fireStations
@@ -50,6 +55,45 @@ public class FireStationServiceImpl implements FireStationService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * GET the fireStations changed since a version
+     * @param version version held by the client
+     */
+    @Override
+    public ChangesDTO<FireStationDTO> getChangesSince(long version) {
+        logger.debug("Fetching fireStations changed since version {}", version);
+
+        Changes<FireStation> changes = fireStationRepository.getChangesSince(version);
+
+        return new ChangesDTO<>(changes.getVersion(), changes.isResync(),
+                changes.getUpserted().stream().map(this::convertToDTO).collect(Collectors.toList()),
+                changes.getDeleted().stream().map(this::convertToDTO).collect(Collectors.toList()));
+    }
+
+
+    /**
+     * GET one page of fireStations, ordered by address and station
+     * @param cursor next cursor of the previous page, null for the first page
+     * @param limit maximum number of fireStations of the page
+     */
+    @Override
+    public PageDTO<FireStationDTO> getFireStationsPage(String cursor, int limit) {
+        PageCursor.checkLimit(limit, maxPageSize);
+        logger.debug("Fetching a page of {} fireStations after cursor {}", limit, cursor);
+
+        Page<FireStation> page = fireStationRepository.getFireStationsPage(PageCursor.decode(cursor), limit);
+
+        return new PageDTO<>(page.getItems().stream().map(this::convertToDTO).collect(Collectors.toList()),
+                PageCursor.encode(page.getNextKey()));
+    }
+
+    /**
+     * GET all fireStations, converted one by one while the stream is consumed
+     */
+    @Override
+    public Stream<FireStationDTO> streamAllFireStations() {
+        return fireStationRepository.getAllFireStations().stream().map(this::convertToDTO);
+    }
 
     /**
      * ADD firestation
@@ -61,12 +105,14 @@ public class FireStationServiceImpl implements FireStationService {
             throw new IllegalArgumentException("Address and station cannot be null");
         }
 
+        if (!fireStationDTO.getStation().trim().matches("\\d+")) {
+            throw new IllegalArgumentException("Station must be a number");
+        }
+
         FireStation fireStation = convertToEntity(fireStationDTO);
         logger.debug("Adding fireStation to repository. ", fireStation);
 
-        List<FireStation> fireStations = fireStationRepository.getAllFireStations();
-        fireStations.add(fireStation);
-        fireStationRepository.saveAllFireStations(fireStations);
+        fireStationRepository.insertFireStation(fireStation);
 
         logger.debug("FireStation added successfully: {} ", fireStation);
     }
@@ -81,22 +127,20 @@ public class FireStationServiceImpl implements FireStationService {
             throw new IllegalArgumentException("Address and station cannot be null");
         }
 
-        List<FireStation> fireStations = fireStationRepository.getAllFireStations();
+        if (!fireStationDTO.getStation().trim().matches("\\d+")) {
+            throw new IllegalArgumentException("Station must be a number");
+        }
+
         logger.debug("Updating fireStation in repository: {}", fireStationDTO);
 
-        boolean stationExists = fireStations.stream().anyMatch(f -> f.getAddress().equals(fireStationDTO.getAddress()));
+        //Replace every mapping of the address by the new one
+        boolean stationExists = fireStationRepository.updateFireStation(convertToEntity(fireStationDTO));
 
         if(!stationExists) {
+            logger.warn("FireStation not found with address: {}", fireStationDTO.getAddress());
             throw new IllegalArgumentException("FireStation not found");
         }
 
-        fireStations.removeIf(f -> f.getAddress().equals(fireStationDTO.getAddress()));
-
-        logger.warn("FireStation not found with address: {}", fireStationDTO.getAddress());
-
-        fireStations.add(convertToEntity(fireStationDTO));
-
-        fireStationRepository.saveAllFireStations(fireStations);
         logger.debug("FireStation updated successfully: {}", fireStationDTO);
 
 
@@ -108,13 +152,11 @@ public class FireStationServiceImpl implements FireStationService {
      */
     @Override
     public void deleteFireStation(String address) {
-        List<FireStation> fireStations = fireStationRepository.getAllFireStations();
         logger.debug("Deleting a fireStation with address: {}", address);
 
-        boolean removed = fireStations.removeIf(fs -> fs.getAddress().equals(address));
+        boolean removed = fireStationRepository.deleteFireStation(address);
 
         if (removed) {
-            fireStationRepository.saveAllFireStations(fireStations);
             logger.debug("Deleted a fireStation with address: {}", address);
         } else {
             logger.warn("No fireStation found with address: {}", address);
@@ -133,48 +175,42 @@ public class FireStationServiceImpl implements FireStationService {
     public FireStationCoverageDTO getCoverageByStationNumber(int stationNumber) {
         logger.debug("Getting the coverage with station number: {}", stationNumber);
 
-        List<Person> listOfPersons = personRepository.getAllPersons();
-        logger.debug("Retrieved {} persons from repository.", listOfPersons.size());
+        return convertToCoverageDTO(alertViewRepository.getCoverage(stationNumber), stationNumber);
+    }
+
+    /**
+     * Retrieves the coverage information for a given firestation number, restricted to an age range
+     *
+     * @param stationNumber the fire station number for which the coverage information is to be retrieved
+     * @param minAge the minimum age of the persons, inclusive
+     * @param maxAge the maximum age of the persons, inclusive
+     * @return a {@link FireStationCoverageDTO} object containing the persons within the age range
+     *
+     */
+    @Override
+    public FireStationCoverageDTO getCoverageByStationNumber(int stationNumber, int minAge, int maxAge) {
+        logger.debug("Getting the coverage with station number: {} and ages from {} to {}", stationNumber, minAge, maxAge);
 
-        List<FireStation> listOfFireStations = fireStationRepository.getAllFireStations();
-        logger.debug("Retrieved {} fireStations from repository.", listOfFireStations.size());
+        if (minAge < 0 || maxAge < minAge) {
+            throw new IllegalArgumentException("Invalid age range");
+        }
 
-        String stationNumberStr = String.valueOf(stationNumber);
-        List <String> coveredAddresses = listOfFireStations.stream()
-                .filter(fs -> fs.getStation().equals(stationNumberStr))
-                .map(FireStation::getAddress).toList();
-        logger.debug("Found {} adresses covered by the station number {}", coveredAddresses.size(), stationNumber);
+        return convertToCoverageDTO(alertViewRepository.getCoverage(stationNumber, minAge, maxAge), stationNumber);
+    }
 
-        List<Person> coveredPersons = listOfPersons.stream()
-                .filter(person -> coveredAddresses
-                        .contains(person.getAddress()))
-                .toList();
-        logger.debug("Found {} persons covered by the station number {}", coveredPersons.size(), stationNumber);
+    private FireStationCoverageDTO convertToCoverageDTO(StationCoverage coverage, int stationNumber) {
+        logger.debug("Found {} persons covered by the station number {}", coverage.getResidents().size(), stationNumber);
 
-        List<FireStationPersonDTO> personCoverageDTOs = coveredPersons.stream()
-                .map(this::convertToFireStationPersonDTO)
+        List<FireStationPersonDTO> personCoverageDTOs = coverage.getResidents().stream()
+                .map(resident -> convertToFireStationPersonDTO(resident.getPerson()))
                 .collect(Collectors.toList());
         logger.debug("Converted covered persons to DTOs.");
-
-        long childrenCount = coveredPersons.stream()
-                .filter(person -> {
-                    MedicalRecord medicalRecord = medicalRecordRepository.getMedicalRecord(person.getFirstName(), person.getLastName());
-                    if(medicalRecord == null) {
-                        logger.debug("No medical record found for person: {} {}", person.getFirstName(), person.getLastName());
-                        return false;
-                    }
-                    int age = getAge(medicalRecord.getBirthdate());
-                    logger.debug("Person: {} {} is {} years old", person.getFirstName(), person.getLastName(), age);
-
-                    return age <= 18;
-                })
-                .count();
-        logger.debug("Found {} children covered by station number {}", childrenCount, stationNumber);
+        logger.debug("Found {} children covered by station number {}", coverage.getNumberOfChildren(), stationNumber);
 
         FireStationCoverageDTO coverageDTO = new FireStationCoverageDTO();
         coverageDTO.setPersons(personCoverageDTOs);
-        coverageDTO.setNumberOfAdults(coveredPersons.size() - (int) childrenCount);
-        coverageDTO.setNumberOfChildren((int)childrenCount);
+        coverageDTO.setNumberOfAdults(coverage.getNumberOfAdults());
+        coverageDTO.setNumberOfChildren(coverage.getNumberOfChildren());
         logger.debug("Returning coverageDTO: {}", coverageDTO);
         return coverageDTO;
 
@@ -192,8 +228,8 @@ public class FireStationServiceImpl implements FireStationService {
     private FireStation convertToEntity(FireStationDTO dto) {
 
         FireStation firestation = new FireStation();
-        firestation.setAddress(dto.getAddress());
-        firestation.setStation(dto.getStation());
+        firestation.setAddress(StringPool.canonical(dto.getAddress()));
+        firestation.setStation(StringPool.canonical(DataStore.station(dto.getStation())));
         return firestation;
 
     }
@@ -209,13 +245,4 @@ public class FireStationServiceImpl implements FireStationService {
 
     }
 
-    private int getAge(String birthdate) {
-
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yyyy");
-        LocalDate birthDate = LocalDate.parse(birthdate, formatter);
-        LocalDate currentDate = LocalDate.now();
-        return Period.between(birthDate, currentDate).getYears();
-
-    }
-
 }
\ No newline at end of file
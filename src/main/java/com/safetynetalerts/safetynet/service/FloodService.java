@@ -1,11 +1,13 @@
 package com.safetynetalerts.safetynet.service;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import com.safetynetalerts.safetynet.dto.FloodDTO;
 
 public interface FloodService {
 
     List<FloodDTO> getFloodInformation(List<Integer> stationNumbers);
+    Stream<FloodDTO> streamFloodInformation(List<Integer> stationNumbers);
 
 }
\ No newline at end of file
@@ -1,65 +1,146 @@
 package com.safetynetalerts.safetynet.service;
 
-import java.time.LocalDate;
-import java.time.Period;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.safetynetalerts.safetynet.dto.FireDTO;
 import com.safetynetalerts.safetynet.dto.FloodDTO;
-import com.safetynetalerts.safetynet.model.FireStation;
+import com.safetynetalerts.safetynet.model.MedicalRecord;
 import com.safetynetalerts.safetynet.model.Person;
+import com.safetynetalerts.safetynet.model.Resident;
+import com.safetynetalerts.safetynet.repository.DataStore;
 import com.safetynetalerts.safetynet.repository.FireStationRepository;
-import com.safetynetalerts.safetynet.repository.MedicalRecordRepository;
-import com.safetynetalerts.safetynet.repository.PersonRepository;
-
+import com.safetynetalerts.safetynet.repository.ResidentRepository;
+import com.safetynetalerts.safetynet.util.AgeCalculator;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Builds the households of the addresses covered by a list of stations
+ *
+ * Each household is a lookup in the resident views, so a flood only fans out over a pool of its
+ * own once it covers enough addresses to pay for it. The pool is bounded, so a regional flood can
+ * not take every core from the other requests, and the households always come in the order of the
+ * stations then of their addresses, whichever thread built them. A flood captures the covered
+ * addresses and the households once, when it starts, so all of its households come from one state
+ * of the data, however many threads build them and however long the consumer of a stream takes.
+ */
 @Service
 public class FloodServiceImpl implements FloodService{
 
     private static final Logger logger= LogManager.getLogger(FloodServiceImpl.class);
 
+    // Addresses under which a flood is built on the calling thread
+    private static final int PARALLEL_THRESHOLD = 64;
+    // Addresses of one task of a streamed flood
+    private static final int CHUNK_SIZE = 32;
+
+    @Value("${safetynet.flood.parallelism:4}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+
     @Autowired
-    private PersonRepository personRepository;
+    private DataStore dataStore;
 
     @Autowired
     private FireStationRepository fireStationRepository;
 
     @Autowired
-    private MedicalRecordRepository medicalRecordRepository;
+    private ResidentRepository residentRepository;
 
     @Override
     public List<FloodDTO> getFloodInformation(List<Integer> stationNumbers) {
-        List <String> coveredAddresses = getCoveredAddresses(stationNumbers);
+        Households flood = dataStore.readConsistently(snapshot ->
+                new Households(getCoveredAddresses(stationNumbers), residentRepository.getHouseholds()));
+        List <String> coveredAddresses = flood.addresses;
+
+        if (coveredAddresses.size() < PARALLEL_THRESHOLD) {
+            return createFloodDTOs(coveredAddresses, flood.households);
+        }
+        logger.debug("Building the flood of {} addresses on {} threads", coveredAddresses.size(), parallelism);
+        // A parallel stream run from a task of the pool stays on that pool, and keeps the order of the list
+        return pool().submit(() -> coveredAddresses.parallelStream()
+                .map(address -> createFloodDTO(address, flood.households))
+                .collect(Collectors.toList())).join();
+    }
 
-        List<FloodDTO> residentsInfoForGivenStationNumber = coveredAddresses.stream()
-                .map(this::createFloodDTO)
-                .collect(Collectors.toList());
-        return residentsInfoForGivenStationNumber;
+    /**
+     * Streams the households in the same order as {@link #getFloodInformation(List)}. Chunks of
+     * addresses are built on the pool a few chunks ahead of the consumer, so the first households
+     * are handed out before the last ones are built, and no more than that window is held at once.
+     */
+    @Override
+    public Stream<FloodDTO> streamFloodInformation(List<Integer> stationNumbers) {
+        Iterator<List<FloodDTO>> chunks = dataStore.readConsistently(snapshot ->
+                new Households(getCoveredAddresses(stationNumbers), residentRepository.getHouseholds()));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(chunks, Spliterator.ORDERED), false)
+                .flatMap(List::stream);
+    }
+
+    @PostConstruct
+    public void start() {
+        parallelism = Math.max(1, parallelism);
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private synchronized ForkJoinPool pool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism);
+        }
+        return pool;
     }
 
     /**
+     * An address covered by several of the stations is listed once, under the first of them. The
+     * list of firestations used to give it once per mapping, so such a household came back twice.
      * @param stationNumbers
      * @return a list of covered addresses by station number
      */
     private List<String> getCoveredAddresses(List<Integer> stationNumbers) {
-        return fireStationRepository.getAllFireStations().stream()
-                .filter(fs -> stationNumbers.contains(Integer.parseInt(fs.getStation())))
-                .map(FireStation::getAddress)
+        return stationNumbers.stream()
+                .flatMap(stationNumber -> fireStationRepository.getAddressesByStation(stationNumber).stream())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private List<FloodDTO> createFloodDTOs(List<String> addresses, Function<String, List<Resident>> households) {
+        return addresses.stream()
+                .map(address -> createFloodDTO(address, households))
                 .collect(Collectors.toList());
     }
 
     /**
      * @param address
+     * @param households the residents of each address
      * @return new object floodDTO
      */
-    private FloodDTO createFloodDTO (String address) {
-        List<FireDTO> residents = getResidentsByAddress(address);
+    private FloodDTO createFloodDTO (String address, Function<String, List<Resident>> households) {
+        List<FireDTO> residents = getResidentsByAddress(address, households);
         FloodDTO floodDTO = new FloodDTO();
         floodDTO.setAddress(address);
         floodDTO.setResidents(residents);
@@ -69,48 +150,72 @@ public class FloodServiceImpl implements FloodService{
 
     /**
      * @param address
+     * @param households the residents of each address
      * @return a list of objects "fireDTO" which represents residents for an address
      */
-    private List<FireDTO> getResidentsByAddress(String address) {
+    private List<FireDTO> getResidentsByAddress(String address, Function<String, List<Resident>> households) {
 
-        List<FireDTO> residents = personRepository.getAllPersons().stream()
-                .filter(person -> person.getAddress().equals(address))
-                .map(person -> convertToFireDTO(person, getStationNumberByAddress(address)))
+        List<FireDTO> residents = households.apply(address).stream()
+                .map(this::convertToFireDTO)
                 .collect(Collectors.toList());
 
         return residents;
     }
 
 
-    /**
-     * @param address
-     * @return the station number for an address
-     */
-    private String getStationNumberByAddress(String address) {
-        String stationNumber = fireStationRepository.getAllFireStations().stream()
-                .filter(fs -> fs.getAddress().equals(address))
-                .map(FireStation::getStation).findFirst().orElse("");
-        return stationNumber;
-    }
-
-
-    private FireDTO convertToFireDTO(Person person, String stationNumber) {
+    private FireDTO convertToFireDTO(Resident resident) {
+        Person person = resident.getPerson();
         FireDTO fireDTO = new FireDTO();
         fireDTO.setFirstName(person.getFirstName());
         fireDTO.setLastName(person.getLastName());
         fireDTO.setPhone(person.getPhone());
-        fireDTO.setAge(getAge(medicalRecordRepository.getMedicalRecord(person.getFirstName(), person.getLastName()).getBirthdate()));
-        fireDTO.setMedications(medicalRecordRepository.getMedicalRecord(person.getFirstName(), person.getLastName()).getMedications());
-        fireDTO.setAllergies(medicalRecordRepository.getMedicalRecord(person.getFirstName(), person.getLastName()).getAllergies());
-        fireDTO.setStationNumber(stationNumber);
+        MedicalRecord medicalRecord = resident.getMedicalRecord();
+        if (medicalRecord != null) {
+            fireDTO.setAge(AgeCalculator.getAge(medicalRecord.getBirthEpochDay()));
+            fireDTO.setMedications(medicalRecord.getMedications());
+            fireDTO.setAllergies(medicalRecord.getAllergies());
+        }
+        fireDTO.setStationNumber(resident.getStationNumber());
         return fireDTO;
     }
 
-    private int getAge(String birthdate) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yyyy");
-        LocalDate birthDate = LocalDate.parse(birthdate, formatter);
-        LocalDate currentDate = LocalDate.now();
-        return Period.between(birthDate, currentDate).getYears();
+    /**
+     * Households of the addresses by chunk, each chunk built by a task of the pool and the tasks
+     * submitted a window ahead of the chunk handed out, all of them from the same captured households
+     */
+    private final class Households implements Iterator<List<FloodDTO>> {
+
+        private final List<String> addresses;
+        private final Function<String, List<Resident>> households;
+        private final Deque<ForkJoinTask<List<FloodDTO>>> running = new ArrayDeque<>();
+        // First address of the next chunk to submit
+        private int next;
+
+        private Households(List<String> addresses, Function<String, List<Resident>> households) {
+            this.addresses = addresses;
+            this.households = households;
+        }
+
+        @Override
+        public boolean hasNext() {
+            submit();
+            return !running.isEmpty();
+        }
+
+        @Override
+        public List<FloodDTO> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return running.poll().join();
+        }
+
+        private void submit() {
+            while (running.size() < 2 * parallelism && next < addresses.size()) {
+                List<String> chunk = addresses.subList(next, Math.min(next + CHUNK_SIZE, addresses.size()));
+                next += chunk.size();
+                running.add(pool().submit(() -> createFloodDTOs(chunk, households)));
+            }
+        }
     }
-
-}
\ No newline at end of file
+}
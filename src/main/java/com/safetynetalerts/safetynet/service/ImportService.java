@@ -0,0 +1,20 @@
+package com.safetynetalerts.safetynet.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.safetynetalerts.safetynet.dto.ImportReportDTO;
+
+public interface ImportService {
+
+    /**
+     * Formats of a bulk import
+     */
+    enum Format {
+        NDJSON,
+        CSV
+    }
+
+    ImportReportDTO importRecords(String section, Format format, InputStream body) throws IOException;
+
+}
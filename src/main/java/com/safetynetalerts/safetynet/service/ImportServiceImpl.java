@@ -0,0 +1,372 @@
+package com.safetynetalerts.safetynet.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.safetynetalerts.safetynet.dto.ImportReportDTO;
+import com.safetynetalerts.safetynet.model.FireStation;
+import com.safetynetalerts.safetynet.model.MedicalRecord;
+import com.safetynetalerts.safetynet.model.Person;
+import com.safetynetalerts.safetynet.repository.DataStore;
+import com.safetynetalerts.safetynet.repository.FireStationRepository;
+import com.safetynetalerts.safetynet.repository.MedicalRecordRepository;
+import com.safetynetalerts.safetynet.repository.PersonRepository;
+import com.safetynetalerts.safetynet.util.StringPool;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Bulk import of one section, from NDJSON or CSV
+ *
+ * The body is read line by line and cut in chunks, each chunk being parsed and validated on a
+ * bounded pool of the import while the next ones are read. Reading stops once a window of chunks
+ * is in flight until the oldest one is merged, so a large body is never held whole in memory as
+ * lines. The records are deduplicated on their key in the order of the body, the last record of a
+ * key winning, and applied with a single repository write:
+ * one new snapshot, one pass of the indexes over the records and one journal append, whatever the
+ * number of records.
+ *
+ * In CSV the first line names the columns, an empty field is a missing value and the values of a
+ * list column, such as the medications, are separated by '|'. A quoted field may hold commas and
+ * doubled quotes but no line break. Bodies are read as UTF-8.
+ */
+@Service
+public class ImportServiceImpl implements ImportService {
+
+    private static final Logger logger = LogManager.getLogger(ImportServiceImpl.class);
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private static final Kind<Person> PERSONS = new Kind<>(Person.class,
+            List.of("firstName", "lastName", "address", "city", "zip", "phone", "email"), Set.of(),
+            person -> DataStore.key(person.getFirstName(), person.getLastName()),
+            person -> isEmpty(person.getFirstName()) || isEmpty(person.getLastName()) || isEmpty(person.getAddress())
+                    || isEmpty(person.getCity()) || isEmpty(person.getPhone()) || isEmpty(person.getEmail())
+                    ? "All fields must be non-empty." : null,
+            person -> {
+                person.setAddress(StringPool.canonical(person.getAddress()));
+                person.setCity(StringPool.canonical(person.getCity()));
+                person.setZip(StringPool.canonical(person.getZip()));
+            });
+    private static final Kind<FireStation> FIRESTATIONS = new Kind<>(FireStation.class,
+            List.of("address", "station"), Set.of(),
+            fireStation -> DataStore.key(fireStation.getAddress(), fireStation.getStation()),
+            fireStation -> fireStation.getAddress() == null || fireStation.getStation() == null
+                    ? "Address and station cannot be null"
+                    : !fireStation.getStation().trim().matches("\\d+") ? "Station must be a number" : null,
+            fireStation -> {
+                fireStation.setAddress(StringPool.canonical(fireStation.getAddress()));
+                fireStation.setStation(StringPool.canonical(DataStore.station(fireStation.getStation())));
+            });
+    private static final Kind<MedicalRecord> MEDICALRECORDS = new Kind<>(MedicalRecord.class,
+            List.of("firstName", "lastName", "birthdate", "medications", "allergies"), Set.of("medications", "allergies"),
+            medicalRecord -> DataStore.key(medicalRecord.getFirstName(), medicalRecord.getLastName()),
+            medicalRecord -> medicalRecord.getFirstName() == null || medicalRecord.getLastName() == null
+                    ? "First name and last name cannot be null" : null,
+            medicalRecord -> { });
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private FireStationRepository fireStationRepository;
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @Value("${safetynet.import.parallelism:4}")
+    private int parallelism;
+
+    private ExecutorService executor;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @PostConstruct
+    public void start() {
+        parallelism = Math.max(1, parallelism);
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "import-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * Imports the records of the body into a section, adding new records and replacing those with the same key
+     *
+     * @param section persons, firestations or medicalrecords
+     * @param format format of the body
+     * @param body the records, one per line
+     * @return the counts, the first errors and the throughput of the import
+     */
+    @Override
+    public ImportReportDTO importRecords(String section, Format format, InputStream body) throws IOException {
+        return switch (section) {
+            case "persons" -> importRecords(section, format, body, PERSONS, personRepository::insertPersons);
+            case "firestations" -> importRecords(section, format, body, FIRESTATIONS,
+                    fireStationRepository::insertFireStations);
+            case "medicalrecords" -> importRecords(section, format, body, MEDICALRECORDS,
+                    medicalRecordRepository::insertMedicalRecords);
+            default -> throw new IllegalArgumentException("Unknown section: " + section);
+        };
+    }
+
+    private <T> ImportReportDTO importRecords(String section, Format format, InputStream body, Kind<T> kind,
+                                              Consumer<Collection<T>> save) throws IOException {
+        long start = System.nanoTime();
+        logger.debug("Importing {} from {}", section, format);
+
+        Deque<CompletableFuture<Chunk<T>>> running = new ArrayDeque<>();
+        Merged<T> merged = new Merged<>(kind);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<String> header = format == Format.CSV ? readHeader(reader, kind) : null;
+        int lineNumber = header == null ? 0 : 1;
+        List<String> lines = new ArrayList<>(CHUNK_SIZE);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lines.add(line);
+            if (lines.size() == CHUNK_SIZE) {
+                if (running.size() == 2 * parallelism) {
+                    merged.add(running.poll().join());
+                }
+                running.add(parseAsync(kind, header, lines, lineNumber + 1));
+                lineNumber += lines.size();
+                lines = new ArrayList<>(CHUNK_SIZE);
+            }
+        }
+        if (!lines.isEmpty()) {
+            running.add(parseAsync(kind, header, lines, lineNumber + 1));
+        }
+        while (!running.isEmpty()) {
+            merged.add(running.poll().join());
+        }
+        save.accept(merged.records.values());
+
+        long elapsedNanos = System.nanoTime() - start;
+        double recordsPerSecond = merged.received * 1_000_000_000.0 / Math.max(1, elapsedNanos);
+        logger.info("Imported {} {} out of {} received ({} rejected, {} duplicates) in {} ms, {} records/s",
+                merged.records.size(), section, merged.received, merged.rejected, merged.duplicates,
+                elapsedNanos / 1_000_000, Math.round(recordsPerSecond));
+        return new ImportReportDTO(section, format.name(), merged.received, merged.rejected, merged.duplicates,
+                merged.records.size(), merged.errors, elapsedNanos / 1_000_000, recordsPerSecond);
+    }
+
+    /**
+     * @return the columns named by the first line, empty for an empty body
+     */
+    private static List<String> readHeader(BufferedReader reader, Kind<?> kind) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return List.of();
+        }
+        List<String> header = new ArrayList<>();
+        for (String column : splitCsv(line.startsWith("\uFEFF") ? line.substring(1) : line)) {
+            header.add(column.trim());
+        }
+        List<String> unknown = header.stream().filter(column -> !kind.columns.contains(column)).toList();
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown columns: " + unknown + ", expected some of " + kind.columns);
+        }
+        return header;
+    }
+
+    private <T> CompletableFuture<Chunk<T>> parseAsync(Kind<T> kind, List<String> header, List<String> lines,
+                                                       int firstLine) {
+        return CompletableFuture.supplyAsync(() -> parse(kind, header, lines, firstLine), executor);
+    }
+
+    /**
+     * Parses and validates the lines of a chunk, blank lines are skipped
+     */
+    private <T> Chunk<T> parse(Kind<T> kind, List<String> header, List<String> lines, int firstLine) {
+        ObjectReader reader = objectMapper.readerFor(kind.type);
+        Chunk<T> chunk = new Chunk<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.received++;
+            try {
+                T record = header == null ? reader.readValue(line) : reader.readValue(toNode(kind, header, line));
+                String error = kind.validation.apply(record);
+                if (error != null) {
+                    chunk.errors.add("line " + (firstLine + i) + ": " + error);
+                    continue;
+                }
+                kind.canonicalize.accept(record);
+                chunk.records.add(record);
+            } catch (JsonProcessingException e) {
+                chunk.errors.add("line " + (firstLine + i) + ": " + e.getOriginalMessage());
+            } catch (IOException | IllegalArgumentException e) {
+                chunk.errors.add("line " + (firstLine + i) + ": " + e.getMessage());
+            }
+        }
+        return chunk;
+    }
+
+    private ObjectNode toNode(Kind<?> kind, List<String> header, String line) {
+        List<String> fields = splitCsv(line);
+        if (fields.size() != header.size()) {
+            throw new IllegalArgumentException("Expected " + header.size() + " fields, found " + fields.size());
+        }
+        ObjectNode node = objectMapper.createObjectNode();
+        for (int i = 0; i < fields.size(); i++) {
+            String column = header.get(i);
+            String field = fields.get(i);
+            if (kind.listColumns.contains(column)) {
+                ArrayNode values = node.putArray(column);
+                if (!field.isEmpty()) {
+                    for (String value : field.split("\\|", -1)) {
+                        values.add(value);
+                    }
+                }
+            } else if (field.isEmpty()) {
+                node.putNull(column);
+            } else {
+                node.put(column, field);
+            }
+        }
+        return node;
+    }
+
+    /**
+     * @return the fields of a CSV line, unquoted
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+
+    /**
+     * How the records of one section are read, keyed, validated and pooled
+     */
+    private static final class Kind<T> {
+
+        private final Class<T> type;
+        private final List<String> columns;
+        private final Set<String> listColumns;
+        private final Function<T, String> key;
+        // Returns the error of an invalid record, null for a valid one
+        private final Function<T, String> validation;
+        private final Consumer<T> canonicalize;
+
+        private Kind(Class<T> type, List<String> columns, Set<String> listColumns, Function<T, String> key,
+                     Function<T, String> validation, Consumer<T> canonicalize) {
+            this.type = type;
+            this.columns = columns;
+            this.listColumns = listColumns;
+            this.key = key;
+            this.validation = validation;
+            this.canonicalize = canonicalize;
+        }
+    }
+
+    /**
+     * Valid records and errors of a chunk of lines
+     */
+    private static final class Chunk<T> {
+
+        private int received;
+        private final List<T> records = new ArrayList<>();
+        private final List<String> errors = new ArrayList<>();
+    }
+
+    /**
+     * Records and counts of the chunks merged so far, in the order of the body
+     */
+    private static final class Merged<T> {
+
+        private final Kind<T> kind;
+        private int received;
+        private int rejected;
+        private int duplicates;
+        private final List<String> errors = new ArrayList<>();
+        private final Map<String, T> records = new LinkedHashMap<>();
+
+        private Merged(Kind<T> kind) {
+            this.kind = kind;
+        }
+
+        private void add(Chunk<T> chunk) {
+            received += chunk.received;
+            rejected += chunk.errors.size();
+            for (String error : chunk.errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(error);
+                }
+            }
+            for (T record : chunk.records) {
+                if (records.put(kind.key.apply(record), record) != null) {
+                    duplicates++;
+                }
+            }
+        }
+    }
+}
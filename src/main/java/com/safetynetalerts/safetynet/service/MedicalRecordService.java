@@ -1,12 +1,18 @@
 package com.safetynetalerts.safetynet.service;
 
 import java.util.List;
+import java.util.stream.Stream;
 
+import com.safetynetalerts.safetynet.dto.ChangesDTO;
 import com.safetynetalerts.safetynet.dto.MedicalRecordDTO;
+import com.safetynetalerts.safetynet.dto.PageDTO;
 
 public interface MedicalRecordService {
 
     List<MedicalRecordDTO> getAllMedicalRecords();
+    ChangesDTO<MedicalRecordDTO> getChangesSince(long version);
+    PageDTO<MedicalRecordDTO> getMedicalRecordsPage(String cursor, int limit);
+    Stream<MedicalRecordDTO> streamAllMedicalRecords();
     void addMedicalRecord(MedicalRecordDTO medicalRecordDTO);
     void updatePerson(MedicalRecordDTO medicalRecordDTO);
     void deleteMedicalRecord(String firstName, String lastName);
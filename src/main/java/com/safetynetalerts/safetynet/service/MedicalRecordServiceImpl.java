@@ -2,15 +2,22 @@ package com.safetynetalerts.safetynet.service;
 
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.safetynetalerts.safetynet.dto.ChangesDTO;
 import com.safetynetalerts.safetynet.dto.MedicalRecordDTO;
+import com.safetynetalerts.safetynet.dto.PageDTO;
 import com.safetynetalerts.safetynet.model.MedicalRecord;
+import com.safetynetalerts.safetynet.repository.Changes;
 import com.safetynetalerts.safetynet.repository.MedicalRecordRepository;
+import com.safetynetalerts.safetynet.repository.Page;
+import com.safetynetalerts.safetynet.util.PageCursor;
 
 @Service
 public class MedicalRecordServiceImpl implements MedicalRecordService {
@@ -20,6 +27,9 @@ public class MedicalRecordServiceImpl implements MedicalRecordService {
     @Autowired
     private MedicalRecordRepository medicalRecordRepository;
 
+    @Value("${safetynet.page.max-size:500}")
+    private int maxPageSize;
+
     /**
      * GET all Medical Records in JSON file
      * @return
@@ -35,9 +45,49 @@ public class MedicalRecordServiceImpl implements MedicalRecordService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * GET the medical records changed since a version
+     * @param version version held by the client
+     */
+    @Override
+    public ChangesDTO<MedicalRecordDTO> getChangesSince(long version) {
+        logger.debug("Fetching medical records changed since version {}", version);
+
+        Changes<MedicalRecord> changes = medicalRecordRepository.getChangesSince(version);
+
+        return new ChangesDTO<>(changes.getVersion(), changes.isResync(),
+                changes.getUpserted().stream().map(this::convertToDTO).collect(Collectors.toList()),
+                changes.getDeleted().stream().map(this::convertToDTO).collect(Collectors.toList()));
+    }
+
+    /**
+     * GET one page of medical records, ordered by first and last name
+     * @param cursor next cursor of the previous page, null for the first page
+     * @param limit maximum number of medical records of the page
+     */
+    @Override
+    public PageDTO<MedicalRecordDTO> getMedicalRecordsPage(String cursor, int limit) {
+        PageCursor.checkLimit(limit, maxPageSize);
+        logger.debug("Fetching a page of {} medical records after cursor {}", limit, cursor);
+
+        Page<MedicalRecord> page = medicalRecordRepository.getMedicalRecordsPage(PageCursor.decode(cursor), limit);
+
+        return new PageDTO<>(page.getItems().stream().map(this::convertToDTO).collect(Collectors.toList()),
+                PageCursor.encode(page.getNextKey()));
+    }
+
+    /**
+     * GET all medical records, converted one by one while the stream is consumed
+     */
+    @Override
+    public Stream<MedicalRecordDTO> streamAllMedicalRecords() {
+        return medicalRecordRepository.getAllMedicalRecords().stream().map(this::convertToDTO);
+    }
+
     /**
      * ADD (POST) medical record
      * @param medicalRecordDTO
+     * @throws IllegalStateException if a record with the same names exists
      */
     @Override
     public void addMedicalRecord(MedicalRecordDTO medicalRecordDTO) {
@@ -49,9 +99,10 @@ public class MedicalRecordServiceImpl implements MedicalRecordService {
 
         logger.debug("Adding medical record to repository. ", medicalRecord);
 
-        List<MedicalRecord> medicalRecords = medicalRecordRepository.getAllMedicalRecords();
-        medicalRecords.add(medicalRecord);
-        medicalRecordRepository.saveAllMedicalRecords(medicalRecords);
+        // Records are identified by their names, a second record with the same names would replace the first
+        if (!medicalRecordRepository.insertMedicalRecord(medicalRecord)) {
+            throw new IllegalStateException("Medical record already exists");
+        }
 
         logger.debug("Medical record added successfully: {} ", medicalRecord);
     }
@@ -67,25 +118,14 @@ public class MedicalRecordServiceImpl implements MedicalRecordService {
         if (medicalRecordDTO.getFirstName() == null || medicalRecordDTO.getLastName() == null) {
             throw new IllegalArgumentException("First name and last name cannot be null");
         }
-        List<MedicalRecord> medicalRecords = medicalRecordRepository.getAllMedicalRecords();
-
         logger.debug("Updating medical record in repository: {}", medicalRecordDTO);
 
-        boolean recordExists = medicalRecords.stream()
-                .anyMatch(m ->m.getFirstName().equals(medicalRecordDTO.getFirstName())
-                        && m.getLastName().equals(medicalRecordDTO.getLastName()));
+        boolean recordExists = medicalRecordRepository.updateMedicalRecord(convertToEntity(medicalRecordDTO));
 
         if (!recordExists) {
             throw new IllegalArgumentException("Medical record not found");
         }
 
-        medicalRecords.removeIf(m ->m.getFirstName().equals(medicalRecordDTO.getFirstName())
-                && m.getLastName().equals(medicalRecordDTO.getLastName()));
-
-        medicalRecords.add(convertToEntity(medicalRecordDTO));
-
-        medicalRecordRepository.saveAllMedicalRecords(medicalRecords);
-
         logger.debug("Medical record updated successfully: {} ", medicalRecordDTO);
     }
 
@@ -97,14 +137,11 @@ public class MedicalRecordServiceImpl implements MedicalRecordService {
      */
     @Override
     public void deleteMedicalRecord(String firstName, String lastName) {
-        List<MedicalRecord> medicalRecords = medicalRecordRepository.getAllMedicalRecords();
-
         logger.debug("Deleting medical records from repository with firstName: {} and lastName: {}", firstName, lastName);
 
-        boolean recordExists = medicalRecords.removeIf(m ->m.getFirstName().equals(firstName) && m.getLastName().equals(lastName));
+        boolean recordExists = medicalRecordRepository.deleteMedicalRecord(firstName, lastName);
 
         if (recordExists) {
-            medicalRecordRepository.saveAllMedicalRecords(medicalRecords);
             logger.debug("Medical record deleted successfully with firstName: {} and lastName: {}", firstName, lastName);
 
         } else {
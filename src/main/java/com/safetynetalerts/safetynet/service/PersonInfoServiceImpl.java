@@ -1,8 +1,5 @@
 package com.safetynetalerts.safetynet.service;
 
-import java.time.LocalDate;
-import java.time.Period;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -12,9 +9,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.safetynetalerts.safetynet.dto.PersonInfoDTO;
+import com.safetynetalerts.safetynet.model.MedicalRecord;
 import com.safetynetalerts.safetynet.model.Person;
-import com.safetynetalerts.safetynet.repository.MedicalRecordRepository;
-import com.safetynetalerts.safetynet.repository.PersonRepository;
+import com.safetynetalerts.safetynet.model.Resident;
+import com.safetynetalerts.safetynet.repository.ResidentRepository;
+import com.safetynetalerts.safetynet.util.AgeCalculator;
 
 @Service
 public class PersonInfoServiceImpl implements PersonInfoService {
@@ -22,38 +21,31 @@ public class PersonInfoServiceImpl implements PersonInfoService {
     private static final Logger logger= LogManager.getLogger(PersonInfoServiceImpl.class);
 
     @Autowired
-    private PersonRepository personRepository;
-
-    @Autowired
-    private MedicalRecordRepository medicalRecordRepository;
+    private ResidentRepository residentRepository;
 
     @Override
     public List<PersonInfoDTO> getPersonsInfoByLastName(String lastName) {
-        List<PersonInfoDTO> personsInfo = personRepository.getAllPersons().stream()
-                .filter(person -> person.getLastName().equals(lastName))
+        List<PersonInfoDTO> personsInfo = residentRepository.getResidentsByLastName(lastName).stream()
                 .map(this::convertToPersonInfoDTO).collect(Collectors.toList());
         return personsInfo;
     }
 
-    private PersonInfoDTO convertToPersonInfoDTO(Person person) {
+    private PersonInfoDTO convertToPersonInfoDTO(Resident resident) {
+        Person person = resident.getPerson();
         PersonInfoDTO personInfoDTO = new PersonInfoDTO();
 
         personInfoDTO.setFirstName(person.getFirstName());
         personInfoDTO.setLastName(person.getLastName());
         personInfoDTO.setAddress(person.getAddress());
-        personInfoDTO.setAge(getAge(medicalRecordRepository.getMedicalRecord(person.getFirstName(), person.getLastName()).getBirthdate()));
         personInfoDTO.setEmail(person.getEmail());
-        personInfoDTO.setMedications(medicalRecordRepository.getMedicalRecord(person.getFirstName(), person.getLastName()).getMedications());
-        personInfoDTO.setAllergies(medicalRecordRepository.getMedicalRecord(person.getFirstName(), person.getLastName()).getAllergies());
+        MedicalRecord medicalRecord = resident.getMedicalRecord();
+        if (medicalRecord != null) {
+            personInfoDTO.setAge(AgeCalculator.getAge(medicalRecord.getBirthEpochDay()));
+            personInfoDTO.setMedications(medicalRecord.getMedications());
+            personInfoDTO.setAllergies(medicalRecord.getAllergies());
+        }
 
         return personInfoDTO;
     }
 
-    private int getAge(String birthdate) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yyyy");
-        LocalDate birthDate = LocalDate.parse(birthdate, formatter);
-        LocalDate currentDate = LocalDate.now();
-        return Period.between(birthDate, currentDate).getYears();
-    }
-
 }
\ No newline at end of file
@@ -1,12 +1,18 @@
 package com.safetynetalerts.safetynet.service;
 
 import java.util.List;
+import java.util.stream.Stream;
 
+import com.safetynetalerts.safetynet.dto.ChangesDTO;
+import com.safetynetalerts.safetynet.dto.PageDTO;
 import com.safetynetalerts.safetynet.dto.PersonDTO;
 
 public interface PersonService {
 
     List<PersonDTO> getAllPersons();
+    ChangesDTO<PersonDTO> getChangesSince(long version);
+    PageDTO<PersonDTO> getPersonsPage(String cursor, int limit);
+    Stream<PersonDTO> streamAllPersons();
     void addPerson(PersonDTO person);
     void updatePerson(PersonDTO person);
     void deletePerson(String firstName, String lastName);
@@ -1,17 +1,24 @@
 package com.safetynetalerts.safetynet.service;
 
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.safetynetalerts.safetynet.dto.ChangesDTO;
+import com.safetynetalerts.safetynet.dto.PageDTO;
 import com.safetynetalerts.safetynet.dto.PersonDTO;
 import com.safetynetalerts.safetynet.model.Person;
+import com.safetynetalerts.safetynet.repository.Changes;
+import com.safetynetalerts.safetynet.repository.Page;
 import com.safetynetalerts.safetynet.repository.PersonRepository;
+import com.safetynetalerts.safetynet.util.PageCursor;
+import com.safetynetalerts.safetynet.util.StringPool;
 
 @Service
 public class PersonServiceImpl implements PersonService {
@@ -21,6 +28,9 @@ public class PersonServiceImpl implements PersonService {
     @Autowired
     private PersonRepository personRepository;
 
+    @Value("${safetynet.page.max-size:500}")
+    private int maxPageSize;
+
     /**
      * GET all persons in JSON file
      * @return
@@ -38,9 +48,49 @@ public class PersonServiceImpl implements PersonService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * GET the persons changed since a version
+     * @param version version held by the client
+     */
+    @Override
+    public ChangesDTO<PersonDTO> getChangesSince(long version) {
+        logger.debug("Fetching persons changed since version {}", version);
+
+        Changes<Person> changes = personRepository.getChangesSince(version);
+
+        return new ChangesDTO<>(changes.getVersion(), changes.isResync(),
+                changes.getUpserted().stream().map(this::convertToDTO).collect(Collectors.toList()),
+                changes.getDeleted().stream().map(this::convertToDTO).collect(Collectors.toList()));
+    }
+
+    /**
+     * GET one page of persons, ordered by first and last name
+     * @param cursor next cursor of the previous page, null for the first page
+     * @param limit maximum number of persons of the page
+     */
+    @Override
+    public PageDTO<PersonDTO> getPersonsPage(String cursor, int limit) {
+        PageCursor.checkLimit(limit, maxPageSize);
+        logger.debug("Fetching a page of {} persons after cursor {}", limit, cursor);
+
+        Page<Person> page = personRepository.getPersonsPage(PageCursor.decode(cursor), limit);
+
+        return new PageDTO<>(page.getItems().stream().map(this::convertToDTO).collect(Collectors.toList()),
+                PageCursor.encode(page.getNextKey()));
+    }
+
+    /**
+     * GET all persons, converted one by one while the stream is consumed
+     */
+    @Override
+    public Stream<PersonDTO> streamAllPersons() {
+        return personRepository.getAllPersons().stream().map(this::convertToDTO);
+    }
+
     /**
      * ADD (POST) person
      * @param person
+     * @throws IllegalStateException if a person with the same names exists
      */
     @Override
     public void addPerson(PersonDTO personDTO) {
@@ -59,9 +109,10 @@ public class PersonServiceImpl implements PersonService {
 
         logger.debug("Adding person to repository. ", person);
 
-        List<Person> persons = personRepository.getAllPersons();
-        persons.add(person);
-        personRepository.saveAllPersons(persons);
+        // Persons are identified by their names, a second person with the same names would replace the first
+        if (!personRepository.insertPerson(person)) {
+            throw new IllegalStateException("Person already exists");
+        }
 
         logger.debug("Person added successfully: {} ",person);
     }
@@ -73,29 +124,14 @@ public class PersonServiceImpl implements PersonService {
      */
     @Override
     public void updatePerson(PersonDTO personDTO) {
-        List<Person> persons = personRepository.getAllPersons();
-
         logger.debug("Updating person in repository: {}", personDTO);
 
-        //Check if person exist in json file
-        Optional<Person> existingPerson = persons.stream().filter(p
-                -> p.getFirstName().equals(personDTO.getFirstName())
-                && p.getLastName().equals(personDTO.getLastName())).findFirst();
-
-        if(!existingPerson.isPresent()) {
+        //Replace the person with the same names, if it exists in json file
+        if (!personRepository.updatePerson(convertToEntity(personDTO))) {
             logger.warn("Person not found: {} {}",personDTO.getFirstName(), personDTO.getLastName() );
             return;
         }
 
-        //Remove the old version of the person we tried to update
-        persons.remove(existingPerson.get());
-
-        //Add new info to update the person
-        persons.add(convertToEntity(personDTO));
-
-        //Saving update
-        personRepository.saveAllPersons(persons);
-
         logger.debug("Person updated successfully: {} ", personDTO);
     }
 
@@ -107,19 +143,15 @@ public class PersonServiceImpl implements PersonService {
      */
     @Override
     public void deletePerson(String firstName, String lastName) {
-        List<Person> persons = personRepository.getAllPersons();
-
         logger.debug("Deleting person from repository with firstName: {} and lastName: {}", firstName, lastName);
 
         //Checking if the person exists in JSON file
-        boolean personExists = persons.removeIf(p ->p.getFirstName().equals(firstName)
-                && p.getLastName().equals(lastName));
+        boolean personExists = personRepository.deletePerson(firstName, lastName);
 
         if (!personExists) {
             throw new IllegalArgumentException("Person not found");
         }
 
-        personRepository.saveAllPersons(persons);
         logger.debug("Person deleted successfully with firstName: {} and lastName: {}", firstName, lastName);
     }
 
@@ -142,9 +174,9 @@ public class PersonServiceImpl implements PersonService {
 
         person.setFirstName(dto.getFirstName());
         person.setLastName(dto.getLastName());
-        person.setAddress(dto.getAddress());
-        person.setCity(dto.getCity());
-        person.setZip(dto.getZip());
+        person.setAddress(StringPool.canonical(dto.getAddress()));
+        person.setCity(StringPool.canonical(dto.getCity()));
+        person.setZip(StringPool.canonical(dto.getZip()));
         person.setPhone(dto.getPhone());
         person.setEmail(dto.getEmail());
 
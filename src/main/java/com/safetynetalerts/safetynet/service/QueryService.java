@@ -0,0 +1,12 @@
+package com.safetynetalerts.safetynet.service;
+
+import java.util.List;
+
+import com.safetynetalerts.safetynet.dto.QueryResultDTO;
+import com.safetynetalerts.safetynet.dto.SubQueryDTO;
+
+public interface QueryService {
+
+    QueryResultDTO runQueries(List<SubQueryDTO> queries);
+
+}
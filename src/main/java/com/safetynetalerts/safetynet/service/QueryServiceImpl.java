@@ -0,0 +1,231 @@
+package com.safetynetalerts.safetynet.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.safetynetalerts.safetynet.dto.QueryResultDTO;
+import com.safetynetalerts.safetynet.dto.SubQueryDTO;
+import com.safetynetalerts.safetynet.dto.SubQueryResultDTO;
+import com.safetynetalerts.safetynet.repository.DataStore;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs a list of named sub-queries, each answered by the service of its alert URL
+ *
+ * The sub-queries are all bound and checked before any runs. They then run concurrently on a
+ * bounded pool of their own while the publication of writes is held off, so every one of them
+ * reads the same version of the data and its indexes. Writes are held off for the timeout at most:
+ * a sub-query still queued or running by then is reported as timed out and cancelled, so a queued
+ * one never runs and a running one is interrupted instead of keeping its thread from the next
+ * queries. A failing sub-query only fails itself, with the error in its own result.
+ */
+@Service
+public class QueryServiceImpl implements QueryService {
+
+    private static final Logger logger = LogManager.getLogger(QueryServiceImpl.class);
+
+    @Value("${safetynet.query.parallelism:4}")
+    private int parallelism;
+
+    @Value("${safetynet.query.timeout:2s}")
+    private Duration timeout = Duration.ofSeconds(2);
+
+    private ExecutorService executor;
+
+    @Autowired
+    private DataStore dataStore;
+
+    @Autowired
+    private FireService fireService;
+
+    @Autowired
+    private ChildAlertService childAlertService;
+
+    @Autowired
+    private PhoneAlertService phoneAlertService;
+
+    @Autowired
+    private FloodService floodService;
+
+    @Autowired
+    private CommunityEmailService communityEmailService;
+
+    @Autowired
+    private PersonInfoService personInfoService;
+
+    @Autowired
+    private FireStationService fireStationService;
+
+    @PostConstruct
+    public void start() {
+        parallelism = Math.max(1, parallelism);
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "query-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * @throws IllegalArgumentException for a missing or repeated name, an unknown query or a missing
+     * or invalid parameter, in which case no sub-query runs
+     */
+    @Override
+    public QueryResultDTO runQueries(List<SubQueryDTO> queries) {
+        long start = System.nanoTime();
+        logger.debug("Running {} sub-queries", queries.size());
+
+        Set<String> names = new HashSet<>();
+        List<Supplier<Object>> bound = new ArrayList<>(queries.size());
+        for (SubQueryDTO query : queries) {
+            if (query.getName() == null || !names.add(query.getName())) {
+                throw new IllegalArgumentException("Each sub-query needs a name of its own: " + query.getName());
+            }
+            bound.add(bind(query));
+        }
+
+        return dataStore.readConsistently(snapshot -> {
+            SubQueryResultDTO timedOut = new SubQueryResultDTO(null,
+                    "Timed out after " + timeout.toMillis() + " ms", timeout.toNanos() / 1000);
+            long deadline = System.nanoTime() + timeout.toNanos();
+            List<Future<SubQueryResultDTO>> running = new ArrayList<>(bound.size());
+            for (Supplier<Object> query : bound) {
+                running.add(executor.submit(() -> run(query)));
+            }
+            Map<String, SubQueryResultDTO> results = new LinkedHashMap<>();
+            for (int i = 0; i < queries.size(); i++) {
+                results.put(queries.get(i).getName(), await(running.get(i), deadline, timedOut));
+            }
+            long elapsedMicros = (System.nanoTime() - start) / 1000;
+            logger.debug("Ran {} sub-queries at version {} in {} us", queries.size(), snapshot.getVersion(),
+                    elapsedMicros);
+            return new QueryResultDTO(snapshot.getVersion(), results, elapsedMicros);
+        });
+    }
+
+    private Supplier<Object> bind(SubQueryDTO query) {
+        Map<String, String> params = query.getParams() == null ? Map.of() : query.getParams();
+        String type = query.getQuery() == null ? "" : query.getQuery();
+        switch (type) {
+            case "fire" -> {
+                String address = param(params, "address");
+                return () -> fireService.getPersonsByAddress(address);
+            }
+            case "childAlert" -> {
+                String address = param(params, "address");
+                return () -> childAlertService.getChildrenByAddress(address);
+            }
+            case "phoneAlert" -> {
+                int stationNumber = intParam(params, "fireStation");
+                return () -> phoneAlertService.getPhoneNumbersByFireStation(stationNumber);
+            }
+            case "flood" -> {
+                List<Integer> stationNumbers = new ArrayList<>();
+                for (String station : param(params, "stations").split(",")) {
+                    stationNumbers.add(parseInt("stations", station.trim()));
+                }
+                return () -> floodService.getFloodInformation(stationNumbers);
+            }
+            case "communityEmail" -> {
+                String city = param(params, "city");
+                return () -> communityEmailService.getEmailsByCity(city);
+            }
+            case "personInfo" -> {
+                String lastName = param(params, "lastName");
+                return () -> personInfoService.getPersonsInfoByLastName(lastName);
+            }
+            case "firestation" -> {
+                int stationNumber = intParam(params, "stationNumber");
+                if (!params.containsKey("minAge") && !params.containsKey("maxAge")) {
+                    return () -> fireStationService.getCoverageByStationNumber(stationNumber);
+                }
+                int minAge = params.containsKey("minAge") ? intParam(params, "minAge") : 0;
+                int maxAge = params.containsKey("maxAge") ? intParam(params, "maxAge") : Integer.MAX_VALUE;
+                return () -> fireStationService.getCoverageByStationNumber(stationNumber, minAge, maxAge);
+            }
+            default -> throw new IllegalArgumentException("Unknown query: " + query.getQuery());
+        }
+    }
+
+    /**
+     * @return the result of the sub-query, or timedOut once the deadline passed or the caller was
+     * interrupted, in which case the sub-query is cancelled
+     */
+    private static SubQueryResultDTO await(Future<SubQueryResultDTO> running, long deadline,
+                                           SubQueryResultDTO timedOut) {
+        try {
+            return running.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            running.cancel(true);
+            return timedOut;
+        } catch (InterruptedException e) {
+            // Keeps the interrupt, so the following sub-queries are cancelled without waiting either
+            running.cancel(true);
+            Thread.currentThread().interrupt();
+            return timedOut;
+        } catch (ExecutionException e) {
+            // Only an Error gets through run
+            throw new IllegalStateException("Failed to run a sub-query", e.getCause());
+        }
+    }
+
+    private static SubQueryResultDTO run(Supplier<Object> query) {
+        long start = System.nanoTime();
+        try {
+            Object result = query.get();
+            return new SubQueryResultDTO(result, null, (System.nanoTime() - start) / 1000);
+        } catch (IllegalArgumentException e) {
+            return new SubQueryResultDTO(null, e.getMessage(), (System.nanoTime() - start) / 1000);
+        } catch (RuntimeException e) {
+            logger.error("Error running a sub-query: ", e);
+            return new SubQueryResultDTO(null, "Internal error", (System.nanoTime() - start) / 1000);
+        }
+    }
+
+    private static String param(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Missing parameter: " + name);
+        }
+        return value;
+    }
+
+    private static int intParam(Map<String, String> params, String name) {
+        return parseInt(name, param(params, name));
+    }
+
+    private static int parseInt(String name, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter " + name + " must be a number: " + value);
+        }
+    }
+}
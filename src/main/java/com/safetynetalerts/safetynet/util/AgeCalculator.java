@@ -0,0 +1,160 @@
+package com.safetynetalerts.safetynet.util;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Shared age calculation on birth dates stored as epoch days
+ *
+ * Birth dates are parsed once, when a medical record is loaded or mutated, so computing an age
+ * is only integer arithmetic against a cached "today" that is rebuilt when the clock passes midnight.
+ * Ages follow {@link java.time.Period#between}: a year is counted once its month and day are reached.
+ */
+public final class AgeCalculator {
+
+    /**
+     * Age up to which a person is a child
+     */
+    public static final int CHILD_MAX_AGE = 18;
+
+    /**
+     * Epoch day of a medical record without birthdate
+     */
+    public static final long UNKNOWN = Long.MIN_VALUE;
+
+    private static final DateTimeFormatter BIRTHDATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+    private static volatile Clock clock = Clock.systemDefaultZone();
+    private static volatile Today today = Today.of(clock);
+
+    private AgeCalculator() {
+    }
+
+    /**
+     * @param birthdate a birthdate formatted as MM/dd/yyyy, may be null
+     * @return the birthdate as epoch day, or {@link #UNKNOWN} for a null birthdate
+     * @throws IllegalArgumentException if the birthdate is not a valid MM/dd/yyyy date
+     */
+    public static long parseBirthdate(String birthdate) {
+        if (birthdate == null) {
+            return UNKNOWN;
+        }
+        try {
+            return LocalDate.parse(birthdate, BIRTHDATE_FORMAT).toEpochDay();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid birthdate: " + birthdate + ", expected MM/dd/yyyy", e);
+        }
+    }
+
+    /**
+     * @param birthEpochDay the birthdate as epoch day
+     * @return the age in full years at the current date
+     * @throws IllegalArgumentException if the birthdate is unknown
+     */
+    public static int getAge(long birthEpochDay) {
+        if (birthEpochDay == UNKNOWN) {
+            throw new IllegalArgumentException("Unknown birthdate");
+        }
+        Today current = today();
+        long civil = civilFromDays(birthEpochDay);
+        int age = current.year - (int) (civil >> 9);
+        return current.monthDay < (int) (civil & 0x1FF) ? age - 1 : age;
+    }
+
+    /**
+     * @param age an age in years
+     * @return the epoch day of the latest birthdate giving at least that age at the current date
+     */
+    public static long latestBirthEpochDay(int age) {
+        Today current = today();
+        long year = (long) current.year - age;
+        int month = current.monthDay >> 5;
+        int day = current.monthDay & 0x1F;
+        if (month == 2 && day == 29 && !isLeapYear(year)) {
+            day = 28;
+        }
+        return daysFromCivil(year, month, day);
+    }
+
+    /**
+     * @return the current date as epoch day
+     */
+    public static long todayEpochDay() {
+        return latestBirthEpochDay(0);
+    }
+
+    /**
+     * Replaces the clock used as the current date, mainly to pin it in tests
+     */
+    public static void setClock(Clock newClock) {
+        clock = newClock;
+        today = Today.of(newClock);
+    }
+
+    private static Today today() {
+        Today current = today;
+        if (current.clock != clock || current.clock.millis() >= current.nextMidnight) {
+            current = Today.of(clock);
+            today = current;
+        }
+        return current;
+    }
+
+    /**
+     * Converts an epoch day to the proleptic Gregorian date, packed as year << 9 | month << 5 | day
+     * so that dates of the same year compare by their low bits without allocating a LocalDate.
+     */
+    static long civilFromDays(long epochDay) {
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long doe = z - era * 146097;
+        long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        long day = doy - (153 * mp + 2) / 5 + 1;
+        long month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+        return year << 9 | month << 5 | day;
+    }
+
+    /**
+     * Inverse of {@link #civilFromDays(long)}
+     */
+    static long daysFromCivil(long year, long month, long day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yoe = y - era * 400;
+        long doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    private static boolean isLeapYear(long year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static final class Today {
+
+        private final Clock clock;
+        private final int year;
+        private final int monthDay;
+        private final long nextMidnight;
+
+        private Today(Clock clock, int year, int monthDay, long nextMidnight) {
+            this.clock = clock;
+            this.year = year;
+            this.monthDay = monthDay;
+            this.nextMidnight = nextMidnight;
+        }
+
+        private static Today of(Clock clock) {
+            ZoneId zone = clock.getZone();
+            LocalDate date = LocalDate.now(clock);
+            long nextMidnight = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            return new Today(clock, date.getYear(), date.getMonthValue() << 5 | date.getDayOfMonth(), nextMidnight);
+        }
+    }
+}
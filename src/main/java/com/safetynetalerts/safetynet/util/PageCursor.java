@@ -0,0 +1,48 @@
+package com.safetynetalerts.safetynet.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursors of the paginated listings
+ *
+ * A cursor is the key of the last entity of a page, URL safe base64 encoded. Pages are ordered by
+ * key, so the next page starts right after the cursor whatever was written in between.
+ */
+public final class PageCursor {
+
+    private PageCursor() {
+    }
+
+    /**
+     * @return the cursor of the key, or null for a null key
+     */
+    public static String encode(String key) {
+        return key == null ? null
+                : Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the key of the cursor, or null for a missing cursor
+     * @throws IllegalArgumentException if the cursor was not returned by {@link #encode(String)}
+     */
+    public static String decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the page size is not between 1 and the maximum
+     */
+    public static void checkLimit(int limit, int maxPageSize) {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + maxPageSize + ": " + limit);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.safetynetalerts.safetynet.util;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Canonical instances of the values repeated across entities, such as addresses, cities and zips
+ *
+ * Loaders and entity conversions pass those values through {@link #canonical(String)}, so every
+ * entity holding an equal value references the same String and the duplicates become garbage.
+ * The pool only holds its values weakly: once no entity references a value any more, such as the
+ * address of deleted persons, the entry is dropped by the next collection.
+ */
+public final class StringPool {
+
+    // Shallow size of a String plus the header of its backing array, on a 64 bit JVM with compressed oops
+    private static final int STRING_OVERHEAD = 24 + 16;
+
+    // The value is referenced weakly too, a strong value would keep its own key reachable
+    private static final Map<String, WeakReference<String>> pool = new WeakHashMap<>();
+    private static final LongAdder lookups = new LongAdder();
+    private static final LongAdder deduplicated = new LongAdder();
+
+    private StringPool() {
+    }
+
+    /**
+     * @param value the value to share, may be null
+     * @return the pooled instance equal to the value, the value itself when it is the first of its kind
+     */
+    public static String canonical(String value) {
+        if (value == null) {
+            return null;
+        }
+        lookups.increment();
+        String pooled;
+        synchronized (pool) {
+            WeakReference<String> reference = pool.get(value);
+            pooled = reference == null ? null : reference.get();
+            if (pooled == null) {
+                pool.put(value, new WeakReference<>(value));
+                return value;
+            }
+        }
+        if (pooled != value) {
+            deduplicated.increment();
+        }
+        return pooled;
+    }
+
+    /**
+     * @return the number of distinct values in the pool still referenced
+     */
+    public static int size() {
+        synchronized (pool) {
+            return pool.size();
+        }
+    }
+
+    /**
+     * @return the number of values passed through the pool
+     */
+    public static long getLookups() {
+        return lookups.sum();
+    }
+
+    /**
+     * @return the number of values replaced by an instance already pooled
+     */
+    public static long getDeduplicated() {
+        return deduplicated.sum();
+    }
+
+    /**
+     * Memory currently saved by sharing among the given values, as held by the live entities: each
+     * occurrence of a value beyond the number of distinct instances holding it would otherwise be
+     * a copy of its own
+     *
+     * @param values every occurrence of the pooled fields of the live entities
+     * @return the estimated heap size of the copies avoided, in bytes
+     */
+    public static long savedBytes(Iterable<String> values) {
+        Map<String, Integer> occurrences = new HashMap<>();
+        Map<String, Set<String>> instances = new HashMap<>();
+        for (String value : values) {
+            if (value == null) {
+                continue;
+            }
+            occurrences.merge(value, 1, Integer::sum);
+            instances.computeIfAbsent(value, key -> Collections.newSetFromMap(new IdentityHashMap<>())).add(value);
+        }
+        long saved = 0;
+        for (Map.Entry<String, Integer> occurrence : occurrences.entrySet()) {
+            int shared = occurrence.getValue() - instances.get(occurrence.getKey()).size();
+            saved += shared * sizeOf(occurrence.getKey());
+        }
+        return saved;
+    }
+
+    /**
+     * Estimated retained size of a String: one byte per character with compact strings
+     * when every character is latin-1, two otherwise, rounded to the 8 bytes alignment
+     */
+    private static long sizeOf(String value) {
+        int bytesPerChar = value.chars().allMatch(c -> c < 256) ? 1 : 2;
+        return (STRING_OVERHEAD + (long) value.length() * bytesPerChar + 7) & ~7L;
+    }
+}
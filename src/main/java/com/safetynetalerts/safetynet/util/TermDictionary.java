@@ -0,0 +1,167 @@
+package com.safetynetalerts.safetynet.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary of the medications and allergies of the medical records
+ *
+ * A list of terms is stored as an array of int codes, one per term, each code pointing into the
+ * dictionary where every distinct term is kept once. Codes are never reused within a dictionary,
+ * so equal lists encoded by one dictionary have equal codes and a scan for a term only compares
+ * ints. An empty list shares one empty array.
+ *
+ * New terms are encoded by the current dictionary, which is replaced by an empty one on each
+ * compaction of the data, the live records being encoded again in the new one. A dictionary thus
+ * holds the terms of the live records plus those added since, and an older one stays reachable
+ * only through the records still encoded with it.
+ */
+public final class TermDictionary {
+
+    /**
+     * Code of a null term
+     */
+    public static final int NULL = -1;
+
+    private static final int[] EMPTY = new int[0];
+
+    private static volatile TermDictionary current = new TermDictionary();
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    // Terms by code, replaced by a larger copy when full, written under the lock of the dictionary
+    private volatile String[] terms = new String[64];
+    private int size;
+
+    private TermDictionary() {
+    }
+
+    /**
+     * @return the dictionary encoding the new terms
+     */
+    public static TermDictionary current() {
+        return current;
+    }
+
+    /**
+     * Replaces the current dictionary by an empty one, the records encoded so far keep theirs
+     */
+    public static void renew() {
+        current = new TermDictionary();
+    }
+
+    /**
+     * @param values the terms to encode, may be null
+     * @return the codes of the terms, or null for a null list
+     */
+    public int[] encode(List<String> values) {
+        if (values == null) {
+            return null;
+        }
+        if (values.isEmpty()) {
+            return EMPTY;
+        }
+        int[] encoded = new int[values.size()];
+        for (int i = 0; i < encoded.length; i++) {
+            String value = values.get(i);
+            encoded[i] = value == null ? NULL : codes.computeIfAbsent(value, this::add);
+        }
+        return encoded;
+    }
+
+    /**
+     * @param encoded codes returned by {@link #encode(List)} of this dictionary, may be null
+     * @return a read only list decoding each term when it is read, or null for null codes
+     */
+    public List<String> decode(int[] encoded) {
+        if (encoded == null) {
+            return null;
+        }
+        if (encoded.length == 0) {
+            return List.of();
+        }
+        return new Terms(this, encoded);
+    }
+
+    /**
+     * @return the code of the term, or {@link #NULL} if the term was never encoded by this dictionary
+     */
+    public int find(String value) {
+        return value == null ? NULL : codes.getOrDefault(value, NULL);
+    }
+
+    /**
+     * @return the number of distinct terms
+     */
+    public int size() {
+        return codes.size();
+    }
+
+    private synchronized int add(String value) {
+        if (size == terms.length) {
+            terms = Arrays.copyOf(terms, size * 2);
+        }
+        String[] current = terms;
+        current[size] = value;
+        // Publishes the new term to readers of the volatile array
+        terms = current;
+        return size++;
+    }
+
+    private String term(int code) {
+        return code == NULL ? null : terms[code];
+    }
+
+    /**
+     * Term searched across records which may be encoded by different dictionaries, its code is
+     * looked up once per dictionary met in a row. Meant for the scan of a single thread.
+     */
+    public static final class Term {
+
+        private final String value;
+        private TermDictionary dictionary;
+        private int code = NULL;
+
+        public Term(String value) {
+            this.value = value;
+        }
+
+        /**
+         * @return the code of the term in the dictionary, or {@link #NULL} if it is not there
+         */
+        public int codeIn(TermDictionary dictionary) {
+            if (this.dictionary != dictionary) {
+                this.dictionary = dictionary;
+                this.code = dictionary.find(value);
+            }
+            return code;
+        }
+    }
+
+    /**
+     * Read only list over the codes of a medical record
+     */
+    private static final class Terms extends AbstractList<String> implements RandomAccess {
+
+        private final TermDictionary dictionary;
+        private final int[] encoded;
+
+        private Terms(TermDictionary dictionary, int[] encoded) {
+            this.dictionary = dictionary;
+            this.encoded = encoded;
+        }
+
+        @Override
+        public String get(int index) {
+            return dictionary.term(encoded[index]);
+        }
+
+        @Override
+        public int size() {
+            return encoded.length;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.safetynetalerts.safetynet.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynetalerts.safetynet.cache.ResponseCache.Source;
+import com.safetynetalerts.safetynet.model.FireStation;
+import com.safetynetalerts.safetynet.model.Person;
+import com.safetynetalerts.safetynet.repository.DataStore;
+import com.safetynetalerts.safetynet.repository.FireStationRepositoryImpl;
+import com.safetynetalerts.safetynet.repository.PersonRepositoryImpl;
+import com.safetynetalerts.safetynet.util.AgeCalculator;
+
+public class ResponseCacheTest {
+
+	@TempDir
+	private Path tempDir;
+
+	private DataStore dataStore;
+	private PersonRepositoryImpl personRepository;
+	private FireStationRepositoryImpl fireStationRepository;
+	private AtomicInteger computations = new AtomicInteger();
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		AgeCalculator.setClock(Clock.fixed(Instant.parse("2024-10-01T10:00:00Z"), ZoneOffset.UTC));
+		Path dataFile = tempDir.resolve("data.json");
+		Files.copy(Path.of("src/main/resources/data.json"), dataFile);
+		dataStore = new DataStore(dataFile.toString());
+		personRepository = new PersonRepositoryImpl(dataStore);
+		fireStationRepository = new FireStationRepositoryImpl(dataStore);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		dataStore.close();
+		AgeCalculator.setClock(Clock.systemDefaultZone());
+	}
+
+	private ResponseCache cache(String maxSize) {
+		return new ResponseCache(dataStore, new ObjectMapper(), DataSize.parse(maxSize));
+	}
+
+	private Supplier<List<String>> emails(String city) {
+		return () -> {
+			computations.incrementAndGet();
+			return personRepository.getAllPersons().stream().filter(person -> city.equals(person.getCity())).map(Person::getEmail).toList();
+		};
+	}
+
+	@Test
+	public void testHitServesTheStoredBody() {
+		//ARRANGE
+		ResponseCache responseCache = cache("1MB");
+		byte[] first = responseCache.get("/communityEmail", "Culver", EnumSet.of(Source.PERSONS), emails("Culver"));
+
+		//ACT
+		byte[] second = responseCache.get("/communityEmail", "Culver", EnumSet.of(Source.PERSONS), emails("Culver"));
+
+		//ASSERT
+		assertSame(first, second);
+		assertEquals(1, computations.get());
+		assertEquals(1, responseCache.getHits());
+		assertEquals(1, responseCache.getMisses());
+		assertEquals(1, responseCache.getEntryCount());
+	}
+
+	@Test
+	public void testWriteInvalidatesOnlyTheDependentBodies() throws IOException {
+		//ARRANGE
+		ResponseCache responseCache = cache("1MB");
+		responseCache.get("/communityEmail", "Culver", EnumSet.of(Source.PERSONS), emails("Culver"));
+
+		//ACT
+		fireStationRepository.insertFireStation(new FireStation("1 New St", "9"));
+		responseCache.get("/communityEmail", "Culver", EnumSet.of(Source.PERSONS), emails("Culver"));
+		personRepository.insertPerson(new Person("Jane","Doe","1 New St","Culver","97451","123-456-7890","janedoe@email.com"));
+		byte[] afterWrite = responseCache.get("/communityEmail", "Culver", EnumSet.of(Source.PERSONS), emails("Culver"));
+
+		//ASSERT
+		assertEquals(2, computations.get());
+		assertEquals(1, responseCache.getHits());
+		assertArrayEquals(new ObjectMapper().writeValueAsBytes(emails("Culver").get()), afterWrite);
+	}
+
+	@Test
+	public void testDateChangeInvalidatesTheBodiesHoldingAges() {
+		//ARRANGE
+		ResponseCache responseCache = cache("1MB");
+		responseCache.get("/fire", "1509 Culver St", EnumSet.allOf(Source.class), emails("Culver"));
+		responseCache.get("/communityEmail", "Culver", EnumSet.of(Source.PERSONS), emails("Culver"));
+
+		//ACT
+		AgeCalculator.setClock(Clock.fixed(Instant.parse("2024-10-02T10:00:00Z"), ZoneOffset.UTC));
+		responseCache.get("/fire", "1509 Culver St", EnumSet.allOf(Source.class), emails("Culver"));
+		responseCache.get("/communityEmail", "Culver", EnumSet.of(Source.PERSONS), emails("Culver"));
+
+		//ASSERT
+		assertEquals(3, computations.get());
+		assertEquals(1, responseCache.getHits());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedBodiesAreEvictedOverTheMaximumSize() {
+		//ARRANGE
+		ResponseCache responseCache = cache("1KB");
+		Supplier<String> body = () -> {
+			computations.incrementAndGet();
+			return "x".repeat(300);
+		};
+		responseCache.get("/communityEmail", "Culver", EnumSet.of(Source.PERSONS), body);
+		responseCache.get("/communityEmail", "Other", EnumSet.of(Source.PERSONS), body);
+		responseCache.get("/communityEmail", "Culver", EnumSet.of(Source.PERSONS), body);
+
+		//ACT
+		responseCache.get("/communityEmail", "Another", EnumSet.of(Source.PERSONS), body);
+		responseCache.get("/communityEmail", "Culver", EnumSet.of(Source.PERSONS), body);
+		responseCache.get("/communityEmail", "Other", EnumSet.of(Source.PERSONS), body);
+
+		//ASSERT
+		assertEquals(4, computations.get());
+		assertEquals(2, responseCache.getEvictions());
+		assertEquals(2, responseCache.getEntryCount());
+		assertTrue(responseCache.getSize() <= DataSize.ofKilobytes(1).toBytes());
+	}
+
+	@Test
+	public void testBodyLargerThanTheMaximumSizeIsNotStored() {
+		//ARRANGE
+		ResponseCache responseCache = cache("256B");
+
+		//ACT
+		byte[] body = responseCache.get("/communityEmail", "Culver", EnumSet.of(Source.PERSONS), emails("Culver"));
+
+		//ASSERT
+		assertTrue(body.length > 256);
+		assertEquals(0, responseCache.getEntryCount());
+		assertEquals(0, responseCache.getSize());
+	}
+}
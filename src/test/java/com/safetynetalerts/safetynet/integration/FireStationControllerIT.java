@@ -1,12 +1,15 @@
 package com.safetynetalerts.safetynet.integration;
 
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -20,6 +23,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -67,6 +71,26 @@ public class FireStationControllerIT {
 		.andExpect(jsonPath("$[0].address").value("123 Street Ad"));
 	}
 	
+	@Test
+	public void testConditionalGetAllFireStations() throws Exception {
+		when(fireStationService.getAllFireStations()).thenReturn(new ArrayList<>());
+		
+		String eTag = mockMvc.perform(get("/firestation"))
+		.andExpect(status().isOk())
+		.andExpect(header().exists(HttpHeaders.ETAG))
+		.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		
+		mockMvc.perform(get("/firestation").header(HttpHeaders.IF_NONE_MATCH, eTag))
+		.andExpect(status().isNotModified())
+		.andExpect(header().string(HttpHeaders.ETAG, eTag))
+		.andExpect(content().string(""));
+		
+		mockMvc.perform(get("/firestation").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+		.andExpect(status().isOk());
+		
+		verify(fireStationService, times(2)).getAllFireStations();
+	}
+	
 	@Test
 	public void testAddFireStation() throws Exception {
 		FireStationDTO firestationDTO = new FireStationDTO("123 Street Ad", "1");
@@ -117,6 +141,29 @@ public class FireStationControllerIT {
 	}
 	
 	
+	@Test
+	public void testGetCoverageByStationNumberWithinAgeRange() throws Exception {
+		FireStationCoverageDTO coverageDTO = new FireStationCoverageDTO();
+		coverageDTO.setNumberOfAdults(0);
+		coverageDTO.setNumberOfChildren(1);
+		coverageDTO.setPersons(List.of(new FireStationPersonDTO("Tenley","Boyd","1509 Culver St" ,"841-874-6512")));
+		
+		when(fireStationService.getCoverageByStationNumber(3, 0, 18)).thenReturn(coverageDTO);
+		
+		mockMvc.perform(get("/firestation?stationNumber=3&maxAge=18"))
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.numberOfChildren").value(1))
+		.andExpect(jsonPath("$.persons[0].firstName").value("Tenley"));
+	}
+	
+	@Test
+	public void testGetCoverageByStationNumberWithInvalidAgeRange() throws Exception {
+		when(fireStationService.getCoverageByStationNumber(3, 30, 18)).thenThrow(new IllegalArgumentException("Invalid age range"));
+		
+		mockMvc.perform(get("/firestation?stationNumber=3&minAge=30&maxAge=18"))
+		.andExpect(status().isBadRequest());
+	}
+	
 	@Test
 	public void testAddFireStationThrowsException() throws Exception {
 		FireStationDTO firestationDTO = new FireStationDTO("123 Street Ad", "1");
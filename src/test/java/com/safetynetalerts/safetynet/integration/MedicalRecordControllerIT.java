@@ -1,12 +1,15 @@
 package com.safetynetalerts.safetynet.integration;
 
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -18,6 +21,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -51,6 +55,26 @@ public class MedicalRecordControllerIT {
 		.andExpect(jsonPath("$[0].firstName").value("John"));
 	}
 	
+	@Test
+	public void testConditionalGetAllMedicalRecords() throws Exception {
+		when(medicalRecordService.getAllMedicalRecords()).thenReturn(new ArrayList<>());
+		
+		String eTag = mockMvc.perform(get("/medicalRecords"))
+		.andExpect(status().isOk())
+		.andExpect(header().exists(HttpHeaders.ETAG))
+		.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		
+		mockMvc.perform(get("/medicalRecords").header(HttpHeaders.IF_NONE_MATCH, eTag))
+		.andExpect(status().isNotModified())
+		.andExpect(header().string(HttpHeaders.ETAG, eTag))
+		.andExpect(content().string(""));
+		
+		mockMvc.perform(get("/medicalRecords").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+		.andExpect(status().isOk());
+		
+		verify(medicalRecordService, times(2)).getAllMedicalRecords();
+	}
+	
 	@Test
 	public void testAddMedicalRecord() throws Exception {
 		MedicalRecordDTO medicalRecordDTO = new MedicalRecordDTO("John","Doe","03/06/1984", new ArrayList<>(), new ArrayList<>());
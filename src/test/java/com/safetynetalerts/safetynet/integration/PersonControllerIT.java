@@ -2,27 +2,38 @@ package com.safetynetalerts.safetynet.integration;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynetalerts.safetynet.dto.ChangesDTO;
+import com.safetynetalerts.safetynet.dto.PageDTO;
 import com.safetynetalerts.safetynet.dto.PersonDTO;
 import com.safetynetalerts.safetynet.service.PersonService;
 
@@ -53,6 +64,75 @@ public class PersonControllerIT {
 	}
 	
 	
+	@Test
+	public void testConditionalGetAllPersons() throws Exception {
+		when(personService.getAllPersons()).thenReturn(new ArrayList<>());
+		
+		String eTag = mockMvc.perform(get("/person"))
+		.andExpect(status().isOk())
+		.andExpect(header().exists(HttpHeaders.ETAG))
+		.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		
+		mockMvc.perform(get("/person").header(HttpHeaders.IF_NONE_MATCH, eTag))
+		.andExpect(status().isNotModified())
+		.andExpect(header().string(HttpHeaders.ETAG, eTag))
+		.andExpect(content().string(""));
+		
+		mockMvc.perform(get("/person").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+		.andExpect(status().isOk());
+		
+		verify(personService, times(2)).getAllPersons();
+	}
+	
+	@Test
+	public void testGetPersonsPage() throws Exception {
+		PersonDTO john = new PersonDTO("John","Doe","1234 street Ad","City","56789","123-456-7890","jdoe@email.com");
+		when(personService.getPersonsPage("Sm9obgBCb3lk", 1)).thenReturn(new PageDTO<>(List.of(john), "Sm9obgBEb2U"));
+		when(personService.getPersonsPage(null, 1000)).thenThrow(new IllegalArgumentException("Page size must be between 1 and 500: 1000"));
+		
+		mockMvc.perform(get("/person").param("limit", "1").param("cursor", "Sm9obgBCb3lk"))
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.items[0].firstName").value("John"))
+		.andExpect(jsonPath("$.next").value("Sm9obgBEb2U"));
+		
+		mockMvc.perform(get("/person").param("limit", "1000"))
+		.andExpect(status().isBadRequest());
+	}
+	
+	@Test
+	public void testStreamAllPersons() throws Exception {
+		PersonDTO john = new PersonDTO("John","Doe","1234 street Ad","City","56789","123-456-7890","jdoe@email.com");
+		PersonDTO jane = new PersonDTO("Jane","Doe","1234 street Ad","City","56789","123-456-7890","janedoe@email.com");
+		when(personService.streamAllPersons()).thenReturn(Stream.of(john, jane));
+		
+		MvcResult result = mockMvc.perform(get("/person").accept(MediaType.APPLICATION_NDJSON))
+		.andExpect(request().asyncStarted())
+		.andReturn();
+		
+		mockMvc.perform(asyncDispatch(result))
+		.andExpect(status().isOk())
+		.andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+		.andExpect(content().string(objectMapper.writeValueAsString(john) + "\n" + objectMapper.writeValueAsString(jane) + "\n"));
+		verify(personService, never()).getAllPersons();
+	}
+	
+	@Test
+	public void testGetPersonsChanges() throws Exception {
+		PersonDTO jane = new PersonDTO("Jane","Doe","1234 street Ad","City","56789","123-456-7890","janedoe@email.com");
+		PersonDTO john = new PersonDTO("John","Doe","1234 street Ad","City","56789","123-456-7890","jdoe@email.com");
+		when(personService.getChangesSince(41)).thenReturn(new ChangesDTO<>(42, false, List.of(jane), List.of(john)));
+		
+		mockMvc.perform(get("/person/changes").param("since", "41"))
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.version").value(42))
+		.andExpect(jsonPath("$.resync").value(false))
+		.andExpect(jsonPath("$.upserted[0].firstName").value("Jane"))
+		.andExpect(jsonPath("$.deleted[0].firstName").value("John"));
+		
+		mockMvc.perform(get("/person/changes"))
+		.andExpect(status().isBadRequest());
+	}
+	
 	@Test
 	public void testAddPerson() throws Exception {
 		PersonDTO personDTO = new PersonDTO("John","Doe","1234 street Ad","City","56789","123-456-7890","jdoe@email.com");
@@ -0,0 +1,194 @@
+package com.safetynetalerts.safetynet.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.safetynetalerts.safetynet.model.FireStation;
+import com.safetynetalerts.safetynet.model.MedicalRecord;
+import com.safetynetalerts.safetynet.model.Person;
+import com.safetynetalerts.safetynet.model.Resident;
+import com.safetynetalerts.safetynet.model.StationCoverage;
+import com.safetynetalerts.safetynet.util.AgeCalculator;
+
+public class AlertViewRepositoryImplTest {
+	
+	@TempDir
+	private Path tempDir;
+	
+	private DataStore dataStore;
+	private AlertViewRepositoryImpl alertViewRepository;
+	private PersonRepositoryImpl personRepository;
+	private FireStationRepositoryImpl fireStationRepository;
+	private MedicalRecordRepositoryImpl medicalRecordRepository;
+	
+	@BeforeEach
+	public void setUp() throws IOException {
+		AgeCalculator.setClock(Clock.fixed(Instant.parse("2024-10-01T10:00:00Z"), ZoneOffset.UTC));
+		Path dataFile = tempDir.resolve("data.json");
+		Files.copy(Path.of("src/main/resources/data.json"), dataFile);
+		dataStore = new DataStore(dataFile.toString());
+		alertViewRepository = new AlertViewRepositoryImpl(dataStore);
+		personRepository = new PersonRepositoryImpl(dataStore);
+		fireStationRepository = new FireStationRepositoryImpl(dataStore);
+		medicalRecordRepository = new MedicalRecordRepositoryImpl(dataStore);
+	}
+	
+	@AfterEach
+	public void tearDown() {
+		dataStore.close();
+		AgeCalculator.setClock(Clock.systemDefaultZone());
+	}
+	
+	@Test
+	public void testViewsMatchTheDataset() {
+		//ACT & ASSERT
+		assertViewsMatchTheDataset();
+	}
+	
+	@Test
+	public void testViewsFollowMutations() {
+		//ACT
+		personRepository.insertPerson(new Person("Jane","Doe","29 15th St","Culver","97451","123-456-7890","janedoe@email.com"));
+		personRepository.updatePerson(new Person("John","Boyd","834 Binoc Ave","Culver","97451","841-874-0000","jaboyd@email.com"));
+		personRepository.deletePerson("Jacob", "Boyd");
+		fireStationRepository.updateFireStation(new FireStation("1509 Culver St", "1"));
+		fireStationRepository.insertFireStation(new FireStation("112 Steppes Pl", "1"));
+		medicalRecordRepository.updateMedicalRecord(new MedicalRecord("Tenley","Boyd","01/01/1990", new ArrayList<>(), new ArrayList<>()));
+		medicalRecordRepository.deleteMedicalRecord("Roger", "Boyd");
+		
+		//ASSERT
+		assertViewsMatchTheDataset();
+	}
+	
+	@Test
+	public void testCapturedHouseholdsIgnoreLaterChanges() {
+		//ARRANGE
+		Function<String, List<Resident>> households = alertViewRepository.getHouseholds();
+		int residents = households.apply("29 15th St").size();
+		
+		//ACT
+		personRepository.insertPerson(new Person("Jane","Doe","29 15th St","Culver","97451","123-456-7890","janedoe@email.com"));
+		
+		//ASSERT
+		assertEquals(residents, households.apply("29 15th St").size());
+		assertEquals(residents + 1, alertViewRepository.getHouseholds().apply("29 15th St").size());
+		assertTrue(households.apply("NonExisting address").isEmpty());
+	}
+	
+	@Test
+	public void testChildrenFollowTheCurrentDate() {
+		//ARRANGE
+		medicalRecordRepository.updateMedicalRecord(new MedicalRecord("Tenley","Boyd","10/02/2005", new ArrayList<>(), new ArrayList<>()));
+		int childrenBefore = alertViewRepository.getCoverage(3).getNumberOfChildren();
+		
+		//ACT
+		AgeCalculator.setClock(Clock.fixed(Instant.parse("2024-10-02T10:00:00Z"), ZoneOffset.UTC));
+		StationCoverage coverage = alertViewRepository.getCoverage(3);
+		
+		//ASSERT
+		assertEquals(childrenBefore - 1, coverage.getNumberOfChildren());
+		assertViewsMatchTheDataset();
+	}
+	
+	@Test
+	public void testAgeRangesMatchTheDataset() {
+		//ARRANGE
+		personRepository.insertPerson(new Person("Jane","Doe","1509 Culver St","Culver","97451","123-456-7890","janedoe@email.com"));
+		
+		for (int[] range : new int[][] {{0, 18}, {19, Integer.MAX_VALUE}, {30, 40}, {3, 3}}) {
+			//ACT
+			StationCoverage coverage = alertViewRepository.getCoverage(3, range[0], range[1]);
+			List<Person> children = persons(alertViewRepository.getResidentsByAge("1509 Culver St", range[0], range[1]));
+			
+			//ASSERT
+			List<Person> covered = persons(alertViewRepository.getCoverage(3).getResidents()).stream()
+					.filter(person -> isAged(person, range[0], range[1])).toList();
+			assertEquals(Set.copyOf(covered), Set.copyOf(persons(coverage.getResidents())));
+			assertEquals(covered.size(), coverage.getResidents().size());
+			assertEquals(covered.stream().filter(person -> isAged(person, 0, 18)).count(), coverage.getNumberOfChildren());
+			assertEquals(dataStore.getPersons().stream()
+					.filter(person -> person.getAddress().equals("1509 Culver St") && isAged(person, range[0], range[1]))
+					.collect(Collectors.toSet()), Set.copyOf(children));
+		}
+	}
+	
+	@Test
+	public void testUnknownStationAndCityAreEmpty() {
+		//ACT & ASSERT
+		assertTrue(alertViewRepository.getCoverage(99).getResidents().isEmpty());
+		assertTrue(alertViewRepository.getPhoneNumbers(99).isEmpty());
+		assertTrue(alertViewRepository.getEmailsByCity("Unknown city").isEmpty());
+		assertTrue(alertViewRepository.getResidentsByAge("Unknown address", 0, 18).isEmpty());
+	}
+	
+	private static List<Person> persons(List<Resident> residents) {
+		return residents.stream().map(Resident::getPerson).toList();
+	}
+	
+	private boolean isAged(Person person, int minAge, int maxAge) {
+		MedicalRecord medicalRecord = medicalRecordRepository.getMedicalRecord(person.getFirstName(), person.getLastName());
+		if (medicalRecord == null) {
+			return false;
+		}
+		int age = AgeCalculator.getAge(medicalRecord.getBirthEpochDay());
+		return age >= minAge && age <= maxAge;
+	}
+	
+	private void assertViewsMatchTheDataset() {
+		List<Person> persons = dataStore.getPersons();
+		Set<Integer> stations = dataStore.getFireStations().stream()
+				.map(fireStation -> Integer.parseInt(fireStation.getStation()))
+				.collect(Collectors.toSet());
+		stations.add(99);
+		for (int station : stations) {
+			Set<String> addresses = dataStore.getFireStations().stream()
+					.filter(fireStation -> Integer.parseInt(fireStation.getStation()) == station)
+					.map(FireStation::getAddress)
+					.collect(Collectors.toSet());
+			List<Person> covered = persons.stream().filter(person -> addresses.contains(person.getAddress())).toList();
+			long children = covered.stream().filter(person -> {
+				MedicalRecord medicalRecord = medicalRecordRepository.getMedicalRecord(person.getFirstName(), person.getLastName());
+				return medicalRecord != null && AgeCalculator.getAge(medicalRecord.getBirthEpochDay()) <= 18;
+			}).count();
+			
+			StationCoverage coverage = alertViewRepository.getCoverage(station);
+			assertEquals(Set.copyOf(covered), Set.copyOf(persons(coverage.getResidents())), "station " + station);
+			assertEquals(covered.size(), coverage.getResidents().size(), "station " + station);
+			assertEquals(children, coverage.getNumberOfChildren(), "station " + station);
+			assertEquals(covered.size() - children, coverage.getNumberOfAdults(), "station " + station);
+			assertEquals(Set.copyOf(covered.stream().map(Person::getPhone).toList()), Set.copyOf(alertViewRepository.getPhoneNumbers(station)));
+			assertEquals(covered.stream().map(Person::getPhone).distinct().count(), alertViewRepository.getPhoneNumbers(station).size());
+		}
+		for (String city : persons.stream().map(Person::getCity).collect(Collectors.toSet())) {
+			List<String> emails = persons.stream().filter(person -> person.getCity().equals(city)).map(Person::getEmail).distinct().toList();
+			assertEquals(Set.copyOf(emails), Set.copyOf(alertViewRepository.getEmailsByCity(city)));
+			assertEquals(emails.size(), alertViewRepository.getEmailsByCity(city).size());
+		}
+		for (Person person : persons) {
+			Resident expected = new Resident(person,
+					medicalRecordRepository.getMedicalRecord(person.getFirstName(), person.getLastName()),
+					fireStationRepository.getStationsByAddress(person.getAddress()));
+			assertTrue(alertViewRepository.getResidentsByAddress(person.getAddress()).contains(expected), person.toString());
+			assertTrue(alertViewRepository.getResidentsByLastName(person.getLastName()).contains(expected), person.toString());
+		}
+		assertEquals(persons.size(), persons.stream().map(Person::getAddress).distinct()
+				.mapToInt(address -> alertViewRepository.getResidentsByAddress(address).size()).sum());
+	}
+}
@@ -0,0 +1,130 @@
+package com.safetynetalerts.safetynet.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.safetynetalerts.safetynet.model.FireStation;
+import com.safetynetalerts.safetynet.model.MedicalRecord;
+import com.safetynetalerts.safetynet.model.Person;
+import com.safetynetalerts.safetynet.repository.Mutation.Operation;
+
+public class BatchRepositoryImplTest {
+
+	@TempDir
+	private Path tempDir;
+
+	private Path dataFile;
+	private DataStore dataStore;
+	private BatchRepositoryImpl batchRepository;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		dataFile = tempDir.resolve("data.json");
+		Files.copy(Path.of("src/main/resources/data.json"), dataFile);
+		dataStore = new DataStore(dataFile.toString());
+		batchRepository = new BatchRepositoryImpl(dataStore);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		dataStore.close();
+	}
+
+	private static Mutation deletePerson(String firstName, String lastName, boolean cascade) {
+		Person person = new Person();
+		person.setFirstName(firstName);
+		person.setLastName(lastName);
+		return new Mutation(Operation.DELETE, person, null, null, cascade);
+	}
+
+	@Test
+	public void testCascadeDeleteIsOneVersionAndOneJournalLine() throws IOException {
+		//ARRANGE
+		long version = dataStore.getSnapshot().getVersion();
+
+		//ACT
+		batchRepository.applyBatch(List.of(deletePerson("John", "Boyd", true),
+				new Mutation(Operation.ADD, null, new FireStation("1 New St", "9"), null, false)));
+
+		//ASSERT
+		DataSnapshot snapshot = dataStore.getSnapshot();
+		assertEquals(version + 1, snapshot.getVersion());
+		assertEquals(snapshot.getVersion(), snapshot.getPersonsVersion());
+		assertEquals(snapshot.getVersion(), snapshot.getMedicalRecordsVersion());
+		assertEquals(snapshot.getVersion(), snapshot.getFireStationsVersion());
+		assertNull(dataStore.find(DataStore.PERSONS, DataStore.key("John", "Boyd")));
+		assertNull(dataStore.find(DataStore.MEDICALRECORDS, DataStore.key("John", "Boyd")));
+		assertEquals(1, Files.readAllLines(tempDir.resolve("data.json.journal")).size());
+
+		DataStore reloaded = new DataStore(dataFile.toString());
+		assertNull(reloaded.find(DataStore.MEDICALRECORDS, DataStore.key("John", "Boyd")));
+		assertNotNull(reloaded.find(DataStore.FIRESTATIONS, DataStore.key("1 New St", "9")));
+		reloaded.close();
+	}
+
+	@Test
+	public void testFailingMutationAppliesNothing() {
+		//ARRANGE
+		long version = dataStore.getSnapshot().getVersion();
+		MedicalRecord missing = new MedicalRecord("Jane", "Doe", "01/01/2000", List.of(), List.of());
+
+		//ACT
+		IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+				() -> batchRepository.applyBatch(List.of(deletePerson("John", "Boyd", true),
+						new Mutation(Operation.UPDATE, null, null, missing, false))));
+
+		//ASSERT
+		assertEquals("Mutation 1: Medical record not found", exception.getMessage());
+		assertEquals(version, dataStore.getSnapshot().getVersion());
+		assertNotNull(dataStore.find(DataStore.PERSONS, DataStore.key("John", "Boyd")));
+		assertTrue(Files.notExists(tempDir.resolve("data.json.journal")));
+	}
+
+	@Test
+	public void testAddingAnExistingPersonAppliesNothing() {
+		//ARRANGE
+		long version = dataStore.getSnapshot().getVersion();
+		Person namesake = new Person("John", "Boyd", "29 15th St", "Culver", "97451", "841-874-6513", "jboyd@email.com");
+
+		//ACT
+		IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+				() -> batchRepository.applyBatch(List.of(new Mutation(Operation.ADD, namesake, null, null, false))));
+
+		//ASSERT
+		assertEquals("Mutation 0: Person already exists", exception.getMessage());
+		assertEquals(version, dataStore.getSnapshot().getVersion());
+		assertEquals("1509 Culver St", dataStore.<Person>find(DataStore.PERSONS, DataStore.key("John", "Boyd")).getAddress());
+	}
+
+	@Test
+	public void testTornBatchIsDroppedWholeOnReplay() throws IOException {
+		//ARRANGE
+		batchRepository.applyBatch(List.of(deletePerson("John", "Boyd", true)));
+		byte[] journal = Files.readAllBytes(tempDir.resolve("data.json.journal"));
+		Path replayDir = Files.createDirectory(tempDir.resolve("replay"));
+		Files.copy(Path.of("src/main/resources/data.json"), replayDir.resolve("data.json"));
+		Files.write(replayDir.resolve("data.json.journal"), Arrays.copyOf(journal, journal.length - 20));
+
+		//ACT
+		DataStore replayed = new DataStore(replayDir.resolve("data.json").toString());
+
+		//ASSERT
+		assertNotNull(replayed.find(DataStore.PERSONS, DataStore.key("John", "Boyd")));
+		assertNotNull(replayed.find(DataStore.MEDICALRECORDS, DataStore.key("John", "Boyd")));
+		replayed.close();
+	}
+}
@@ -0,0 +1,161 @@
+package com.safetynetalerts.safetynet.repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynetalerts.safetynet.model.FireStation;
+import com.safetynetalerts.safetynet.model.MedicalRecord;
+import com.safetynetalerts.safetynet.model.Person;
+import com.safetynetalerts.safetynet.model.Resident;
+
+/**
+ * JMH comparison of the startup load of the data file:
+ * the former path (each repository calls readTree, then toString on its section, then readValue)
+ * against the single streaming pass of the {@link DataStore}, and the time from startup to the
+ * first /fire lookup when loading the JSON text against loading the {@link BinarySnapshot}
+ *
+ * Every benchmark and parameter runs in its own fork, so the peak heap and the peak RSS (VmHWM)
+ * printed after each iteration belong to a single loader.
+ *
+ * Not part of the test suite, run it with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.safetynetalerts.safetynet.repository.DataLoadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class DataLoadBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int residents;
+
+    private File dataFile;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Setup(Level.Trial)
+    public void writeDataFile() throws IOException {
+        dataFile = Files.createTempFile("data", ".json").toFile();
+        dataFile.deleteOnExit();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(dataFile, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart(DataStore.PERSONS);
+            for (int i = 0; i < residents; i++) {
+                objectMapper.writeValue(generator, new Person("First" + i, "Last" + i, (i / 4) + " Culver St", "Culver",
+                        "97451", "841-874-" + (i % 10000), "first" + i + "@email.com"));
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart(DataStore.FIRESTATIONS);
+            for (int i = 0; i < residents / 4; i++) {
+                objectMapper.writeValue(generator, new FireStation(i + " Culver St", String.valueOf(i % 50)));
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart(DataStore.MEDICALRECORDS);
+            for (int i = 0; i < residents; i++) {
+                objectMapper.writeValue(generator, new MedicalRecord("First" + i, "Last" + i, "03/06/1984",
+                        List.of("aznol:350mg", "hydrapermazol:100mg"), List.of("nillacilan")));
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        BinarySnapshot.pathOf(dataFile.toPath()).toFile().deleteOnExit();
+        open(true).close();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeakUsage() {
+        System.gc();
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    @TearDown(Level.Iteration)
+    public void printPeakUsage() throws IOException {
+        long peakHeap = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+        System.out.printf("%n  peak heap: %d MB, peak RSS: %s%n", peakHeap >> 20, peakResidentSetSize());
+    }
+
+    @Benchmark
+    public void treeLoad(Blackhole blackhole) throws IOException {
+        blackhole.consume(readSection(DataStore.PERSONS, new TypeReference<List<Person>>() {}));
+        blackhole.consume(readSection(DataStore.FIRESTATIONS, new TypeReference<List<FireStation>>() {}));
+        blackhole.consume(readSection(DataStore.MEDICALRECORDS, new TypeReference<List<MedicalRecord>>() {}));
+    }
+
+    @Benchmark
+    public DataStore streamingLoad() {
+        return new DataStore(dataFile.getPath());
+    }
+
+    @Benchmark
+    public List<Resident> jsonStartupToFirstFire() {
+        return new AlertViewRepositoryImpl(open(false)).getResidentsByAddress("0 Culver St");
+    }
+
+    @Benchmark
+    public List<Resident> snapshotStartupToFirstFire() {
+        return new AlertViewRepositoryImpl(open(true)).getResidentsByAddress("0 Culver St");
+    }
+
+    private DataStore open(boolean snapshotEnabled) {
+        return new DataStore(dataFile.getPath(), DataStore.DEFAULT_COMPACTION_THRESHOLD, false, Duration.ZERO, 1, snapshotEnabled);
+    }
+
+    private <T> List<T> readSection(String section, TypeReference<List<T>> type) throws IOException {
+        JsonNode rootNode = objectMapper.readTree(dataFile);
+        JsonNode sectionNode = rootNode.path(section);
+        return objectMapper.readValue(sectionNode.toString(), type);
+    }
+
+    private static String peakResidentSetSize() throws IOException {
+        Path status = Path.of("/proc/self/status");
+        if (!Files.exists(status)) {
+            return "n/a";
+        }
+        return Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("VmHWM:"))
+                .map(line -> line.substring("VmHWM:".length()).trim())
+                .findFirst().orElse("n/a");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DataLoadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
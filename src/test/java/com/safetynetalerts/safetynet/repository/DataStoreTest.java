@@ -0,0 +1,518 @@
+package com.safetynetalerts.safetynet.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynetalerts.safetynet.model.FireStation;
+import com.safetynetalerts.safetynet.model.MedicalRecord;
+import com.safetynetalerts.safetynet.model.Person;
+import com.safetynetalerts.safetynet.util.TermDictionary;
+
+public class DataStoreTest {
+
+	private static final String DATA = """
+			{"persons":[{"firstName":"John","lastName":"Boyd","address":"1509 Culver St","city":"Culver","zip":"97451","phone":"841-874-6512","email":"jaboyd@email.com"}],
+			 "firestations":[{"address":"1509 Culver St","station":"3"}],
+			 "medicalrecords":[{"firstName":"John","lastName":"Boyd","birthdate":"03/06/1984","medications":["aznol:350mg"],"allergies":["nillacilan"]}],
+			 "notes":{"source":"county"}}
+			""";
+
+	@TempDir
+	private Path tempDir;
+	
+	private File dataFile;
+	
+	private ObjectMapper objectMapper = new ObjectMapper();
+	
+	@BeforeEach
+	public void setUp() throws IOException {
+		dataFile = tempDir.resolve("data.json").toFile();
+		Files.writeString(dataFile.toPath(), DATA);
+	}
+	
+	@Test
+	public void testLoadAllSections() {
+		//ACT
+		DataStore dataStore = new DataStore(dataFile.getPath());
+		
+		//ASSERT
+		assertEquals(1, dataStore.getPersons().size());
+		assertEquals("Boyd", dataStore.getPersons().get(0).getLastName());
+		assertEquals("3", dataStore.getFireStations().get(0).getStation());
+		assertEquals(List.of("aznol:350mg"), dataStore.getMedicalRecords().get(0).getMedications());
+	}
+	
+	@Test
+	public void testMalformedBirthdateFailsTheLoadAndLeavesTheFileAsItIs() throws IOException {
+		//ARRANGE
+		String malformed = DATA.replace("03/06/1984", "1984-03-06");
+		Files.writeString(dataFile.toPath(), malformed);
+		
+		//ACT & ASSERT
+		assertThrows(IllegalStateException.class, () -> new DataStore(dataFile.getPath(), 1, false, Duration.ZERO, 1, true));
+		assertEquals(malformed, Files.readString(dataFile.toPath()));
+		assertFalse(Files.exists(tempDir.resolve("data.json.snapshot")));
+		assertFalse(Files.exists(tempDir.resolve("data.json.journal")));
+	}
+	
+	@Test
+	public void testStationsWrittenDifferentlyAreOneMapping() throws IOException {
+		//ARRANGE
+		Files.writeString(dataFile.toPath(), DATA.replace("{\"address\":\"1509 Culver St\",\"station\":\"3\"}",
+				"{\"address\":\"1509 Culver St\",\"station\":\"3\"},{\"address\":\"1509 Culver St\",\"station\":\" 03\"}"));
+		DataStore dataStore = new DataStore(dataFile.getPath());
+		FireStationRepositoryImpl repository = new FireStationRepositoryImpl(dataStore);
+		
+		//ACT
+		List<FireStation> loaded = dataStore.getFireStations();
+		repository.deleteFireStation("1509 Culver St");
+		
+		//ASSERT
+		assertEquals(1, loaded.size());
+		assertEquals("3", loaded.get(0).getStation());
+		assertEquals(List.of(), repository.getAddressesByStation(3));
+		assertEquals(List.of(), dataStore.getFireStations());
+		dataStore.close();
+	}
+	
+	@Test
+	public void testTwoDifferentPersonsWithTheSameNamesFailTheLoad() throws IOException {
+		//ARRANGE
+		String namesakes = DATA.replace("\"persons\":[", "\"persons\":[{\"firstName\":\"John\",\"lastName\":\"Boyd\",\"address\":\"29 15th St\",\"city\":\"Culver\",\"zip\":\"97451\",\"phone\":\"841-874-6513\",\"email\":\"jboyd@email.com\"},");
+		Files.writeString(dataFile.toPath(), namesakes);
+		
+		//ACT & ASSERT
+		assertThrows(IllegalStateException.class, () -> new DataStore(dataFile.getPath(), 1, false, Duration.ZERO, 1, true));
+		assertEquals(namesakes, Files.readString(dataFile.toPath()));
+	}
+	
+	@Test
+	public void testWriteAfterATornJournalLineSurvivesTheNextRestart() throws IOException {
+		//ARRANGE
+		PersonRepositoryImpl crashed = new PersonRepositoryImpl(new DataStore(dataFile.getPath()));
+		crashed.insertPerson(new Person("Jacob","Boyd","1509 Culver St","Culver","97451","841-874-6513","drk@email.com"));
+		Path journal = tempDir.resolve("data.json.journal");
+		Files.writeString(journal, "{\"section\":\"persons\",\"key\":\"Tenley", StandardOpenOption.APPEND);
+		
+		//ACT
+		PersonRepositoryImpl restarted = new PersonRepositoryImpl(new DataStore(dataFile.getPath()));
+		restarted.insertPerson(new Person("Tenley","Boyd","1509 Culver St","Culver","97451","841-874-6512","tenz@email.com"));
+		DataStore again = new DataStore(dataFile.getPath());
+		
+		//ASSERT
+		assertEquals(3, again.getPersons().size());
+		assertEquals("tenz@email.com", again.<Person>find(DataStore.PERSONS, DataStore.key("Tenley", "Boyd")).getEmail());
+		assertEquals(2, Files.readAllLines(journal).size());
+		again.close();
+	}
+	
+	@Test
+	public void testCompactionFoldsTheJournalOfAnUnfinishedOne() throws IOException {
+		//ARRANGE
+		new PersonRepositoryImpl(new DataStore(dataFile.getPath()))
+				.insertPerson(new Person("Jacob","Boyd","1509 Culver St","Culver","97451","841-874-6513","drk@email.com"));
+		Path journal = tempDir.resolve("data.json.journal");
+		Files.move(journal, tempDir.resolve("data.json.journal.compacting"));
+		DataStore dataStore = new DataStore(dataFile.getPath());
+		new PersonRepositoryImpl(dataStore)
+				.insertPerson(new Person("Tenley","Boyd","1509 Culver St","Culver","97451","841-874-6512","tenz@email.com"));
+		
+		//ACT
+		dataStore.compact();
+		
+		//ASSERT
+		assertFalse(Files.exists(journal));
+		assertFalse(Files.exists(tempDir.resolve("data.json.journal.compacting")));
+		assertEquals(3, objectMapper.readTree(dataFile).get("persons").size());
+		assertEquals(3, new DataStore(dataFile.getPath()).getPersons().size());
+	}
+	
+	@Test
+	public void testRepeatedValuesShareOneInstance() {
+		//ACT
+		DataStore dataStore = new DataStore(dataFile.getPath());
+		DataStore other = new DataStore(dataFile.getPath());
+		
+		//ASSERT
+		assertSame(dataStore.getPersons().get(0).getAddress(), dataStore.getFireStations().get(0).getAddress());
+		assertSame(dataStore.getPersons().get(0).getCity(), other.getPersons().get(0).getCity());
+	}
+	
+	@Test
+	public void testSavePersonsIsJournaledAndReplayed() throws IOException {
+		//ARRANGE
+		DataStore dataStore = new DataStore(dataFile.getPath());
+		List<Person> persons = new ArrayList<>(dataStore.getPersons());
+		persons.add(new Person("Jacob","Boyd","1509 Culver St","Culver","97451","841-874-6513","drk@email.com"));
+		
+		//ACT
+		dataStore.savePersons(persons);
+		
+		//ASSERT
+		assertEquals(DATA, Files.readString(dataFile.toPath()));
+		List<String> journal = Files.readAllLines(tempDir.resolve("data.json.journal"));
+		assertEquals(1, journal.size());
+		assertTrue(journal.get(0).contains("drk@email.com"));
+		
+		DataStore reloaded = new DataStore(dataFile.getPath());
+		assertEquals(2, reloaded.getPersons().size());
+		assertEquals("Jacob", reloaded.getPersons().get(1).getFirstName());
+		dataStore.close();
+		reloaded.close();
+	}
+	
+	@Test
+	public void testSnapshotIsNotAffectedByLaterSaves() {
+		//ARRANGE
+		DataStore dataStore = new DataStore(dataFile.getPath());
+		DataSnapshot before = dataStore.getSnapshot();
+		List<Person> persons = new ArrayList<>(before.getPersons());
+		persons.add(new Person("Jacob","Boyd","1509 Culver St","Culver","97451","841-874-6513","drk@email.com"));
+		
+		//ACT
+		dataStore.savePersons(persons);
+		
+		//ASSERT
+		assertEquals(1, before.getPersons().size());
+		assertEquals(2, dataStore.getPersons().size());
+		assertTrue(dataStore.getSnapshot().getVersion() > before.getVersion());
+		assertThrows(UnsupportedOperationException.class, () -> dataStore.getPersons().add(persons.get(1)));
+		dataStore.close();
+	}
+	
+	@Test
+	public void testDeleteIsJournaledAndReplayed() {
+		//ARRANGE
+		DataStore dataStore = new DataStore(dataFile.getPath());
+		
+		//ACT
+		dataStore.saveMedicalRecords(new ArrayList<>());
+		
+		//ASSERT
+		assertTrue(new DataStore(dataFile.getPath()).getMedicalRecords().isEmpty());
+		assertEquals(1, new DataStore(dataFile.getPath()).getPersons().size());
+	}
+	
+	@Test
+	public void testCompactionKeepsOtherSectionsAndClearsJournal() throws IOException {
+		//ARRANGE
+		DataStore dataStore = new DataStore(dataFile.getPath());
+		List<Person> persons = new ArrayList<>(dataStore.getPersons());
+		persons.add(new Person("Jacob","Boyd","1509 Culver St","Culver","97451","841-874-6513","drk@email.com"));
+		dataStore.savePersons(persons);
+		
+		//ACT
+		dataStore.compact();
+		
+		//ASSERT
+		JsonNode rootNode = objectMapper.readTree(dataFile);
+		assertEquals(2, rootNode.path("persons").size());
+		assertEquals(1, rootNode.path("firestations").size());
+		assertEquals(1, rootNode.path("medicalrecords").size());
+		assertEquals("county", rootNode.path("notes").path("source").asText());
+		assertFalse(Files.exists(tempDir.resolve("data.json.journal")));
+		assertFalse(Files.exists(tempDir.resolve("data.json.journal.compacting")));
+		assertEquals(2, new DataStore(dataFile.getPath()).getPersons().size());
+		dataStore.close();
+	}
+	
+	@Test
+	public void testCompactionDropsTheTermsOfDeletedRecords() {
+		//ARRANGE
+		DataStore dataStore = new DataStore(dataFile.getPath());
+		List<MedicalRecord> medicalRecords = new ArrayList<>(dataStore.getMedicalRecords());
+		medicalRecords.add(new MedicalRecord("Jacob","Boyd","03/06/1989", List.of("DataStoreTest dropped"), List.of()));
+		dataStore.saveMedicalRecords(medicalRecords);
+		dataStore.saveMedicalRecords(medicalRecords.subList(0, 1));
+		
+		//ACT
+		dataStore.compact();
+		
+		//ASSERT
+		assertEquals(TermDictionary.NULL, TermDictionary.current().find("DataStoreTest dropped"));
+		assertNotEquals(TermDictionary.NULL, TermDictionary.current().find("aznol:350mg"));
+		assertEquals(List.of("aznol:350mg"), dataStore.getMedicalRecords().get(0).getMedications());
+		dataStore.close();
+	}
+	
+	@Test
+	public void testCompactionIsTriggeredByThreshold() throws Exception {
+		//ARRANGE
+		DataStore dataStore = new DataStore(dataFile.getPath(), 2);
+		
+		//ACT
+		dataStore.saveFireStations(List.of(new FireStation("1509 Culver St", "4"), new FireStation("29 15th St", "2")));
+		dataStore.close();
+		
+		//ASSERT
+		JsonNode rootNode = objectMapper.readTree(dataFile);
+		assertEquals(2, rootNode.path("firestations").size());
+		assertEquals("4", rootNode.path("firestations").get(0).path("station").asText());
+	}
+	
+	@Test
+	public void testConcurrentSavesOfDifferentSectionsAreNotLost() throws Exception {
+		//ARRANGE
+		DataStore dataStore = new DataStore(dataFile.getPath());
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		
+		//ACT
+		for (int i = 0; i < 20; i++) {
+			int round = i;
+			executor.execute(() -> dataStore.savePersons(List.of(
+					new Person("John","Boyd","1509 Culver St","Culver","97451","841-874-6512","jaboyd" + round + "@email.com"))));
+			executor.execute(() -> dataStore.saveFireStations(List.of(
+					new FireStation("1509 Culver St", "3"), new FireStation("29 15th St", "2"))));
+			executor.execute(() -> dataStore.saveMedicalRecords(List.of(
+					new MedicalRecord("John","Boyd","03/06/1984", List.of(), List.of()),
+					new MedicalRecord("Jacob","Boyd","03/06/1989", List.of(), List.of()))));
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+		
+		//ASSERT
+		DataStore reloaded = new DataStore(dataFile.getPath());
+		assertEquals(1, reloaded.getPersons().size());
+		assertEquals(2, reloaded.getFireStations().size());
+		assertEquals(2, reloaded.getMedicalRecords().size());
+	}
+	
+	@Test
+	public void testWriteBehindSavesAreFlushedOnClose() throws IOException {
+		//ARRANGE
+		DataStore dataStore = new DataStore(dataFile.getPath(), 1000, true, Duration.ofMinutes(1), 100);
+		
+		//ACT
+		dataStore.saveFireStations(List.of(new FireStation("1509 Culver St", "4")));
+		dataStore.saveFireStations(List.of(new FireStation("1509 Culver St", "5")));
+		
+		//ASSERT
+		assertEquals("5", dataStore.getFireStations().get(0).getStation());
+		assertEquals(2, dataStore.getPendingSaves());
+		assertFalse(Files.exists(tempDir.resolve("data.json.journal")));
+		
+		dataStore.close();
+		assertEquals(0, dataStore.getPendingSaves());
+		assertEquals(1, dataStore.getFlushCount());
+		assertEquals("5", new DataStore(dataFile.getPath()).getFireStations().get(0).getStation());
+	}
+	
+	@Test
+	public void testWriteBehindFlushesOneBatchWhenFull() throws Exception {
+		//ARRANGE
+		DataStore dataStore = new DataStore(dataFile.getPath(), 1000, true, Duration.ofMinutes(1), 2);
+		
+		//ACT
+		dataStore.saveFireStations(List.of(new FireStation("1509 Culver St", "4")));
+		dataStore.savePersons(new ArrayList<>());
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (dataStore.getFlushCount() == 0 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		
+		//ASSERT
+		assertEquals(1, dataStore.getFlushCount());
+		assertEquals(3, Files.readAllLines(tempDir.resolve("data.json.journal")).size());
+		DataStore reloaded = new DataStore(dataFile.getPath());
+		assertTrue(reloaded.getPersons().isEmpty());
+		assertEquals("4", reloaded.getFireStations().get(0).getStation());
+		dataStore.close();
+	}
+	
+	@Test
+	public void testSnapshotIsWrittenOnCloseAndLoadedOnStartup() {
+		//ARRANGE
+		DataStore dataStore = openWithSnapshot();
+		assertFalse(dataStore.isLoadedFromSnapshot());
+		
+		//ACT
+		dataStore.close();
+		DataStore reloaded = openWithSnapshot();
+		
+		//ASSERT
+		assertTrue(Files.exists(tempDir.resolve("data.json.snapshot")));
+		assertTrue(reloaded.isLoadedFromSnapshot());
+		assertEquals(dataStore.getPersons(), reloaded.getPersons());
+		assertEquals(dataStore.getFireStations(), reloaded.getFireStations());
+		assertEquals(dataStore.getMedicalRecords(), reloaded.getMedicalRecords());
+		assertEquals(dataStore.getMedicalRecords().get(0).getBirthEpochDay(), reloaded.getMedicalRecords().get(0).getBirthEpochDay());
+		reloaded.close();
+	}
+	
+	@Test
+	public void testCompactionRefreshesTheSnapshot() throws IOException {
+		//ARRANGE
+		DataStore dataStore = openWithSnapshot();
+		List<Person> persons = new ArrayList<>(dataStore.getPersons());
+		persons.add(new Person("Jacob","Boyd","1509 Culver St","Culver","97451","841-874-6513","drk@email.com"));
+		dataStore.savePersons(persons);
+		
+		//ACT
+		dataStore.compact();
+		
+		//ASSERT
+		DataStore reloaded = openWithSnapshot();
+		assertTrue(reloaded.isLoadedFromSnapshot());
+		assertEquals(2, reloaded.getPersons().size());
+		reloaded.close();
+		JsonNode rootNode = objectMapper.readTree(dataFile);
+		assertEquals("county", rootNode.path("notes").path("source").asText());
+	}
+	
+	@Test
+	public void testSnapshotOfAnOtherDataFileIsIgnored() throws IOException {
+		//ARRANGE
+		openWithSnapshot().close();
+		Files.writeString(dataFile.toPath(), DATA.replace("\"3\"", "\"12\""));
+		
+		//ACT
+		DataStore dataStore = openWithSnapshot();
+		
+		//ASSERT
+		assertFalse(dataStore.isLoadedFromSnapshot());
+		assertEquals("12", dataStore.getFireStations().get(0).getStation());
+		dataStore.close();
+		assertTrue(openWithSnapshot().isLoadedFromSnapshot());
+	}
+	
+	@Test
+	public void testUnreadableSnapshotFallsBackToJson() throws IOException {
+		//ARRANGE
+		Files.writeString(tempDir.resolve("data.json.snapshot"), "not a snapshot");
+		
+		//ACT
+		DataStore dataStore = openWithSnapshot();
+		
+		//ASSERT
+		assertFalse(dataStore.isLoadedFromSnapshot());
+		assertEquals(1, dataStore.getPersons().size());
+	}
+	
+	@Test
+	public void testChangesSinceAVersion() {
+		//ARRANGE
+		DataStore dataStore = new DataStore(dataFile.getPath());
+		PersonRepositoryImpl repository = new PersonRepositoryImpl(dataStore);
+		long since = repository.getVersion();
+		Person jane = new Person("Jane","Doe","1509 Culver St","Culver","97451","123-456-7890","janedoe@email.com");
+		Person john = dataStore.getPersons().get(0);
+		
+		//ACT
+		repository.insertPerson(jane);
+		repository.insertPerson(new Person("Jim","Doe","1509 Culver St","Culver","97451","123-456-7890","jimdoe@email.com"));
+		repository.deletePerson("Jim", "Doe");
+		repository.deletePerson("John", "Boyd");
+		new FireStationRepositoryImpl(dataStore).insertFireStation(new FireStation("29 15th St", "2"));
+		Changes<Person> changes = repository.getChangesSince(since);
+		
+		//ASSERT
+		assertFalse(changes.isResync());
+		assertEquals(repository.getVersion(), changes.getVersion());
+		assertEquals(List.of(jane), changes.getUpserted());
+		assertEquals("Jim", changes.getDeleted().get(0).getFirstName());
+		assertEquals(List.of(john), changes.getDeleted().subList(1, 2));
+		assertTrue(repository.getChangesSince(changes.getVersion()).getUpserted().isEmpty());
+		assertTrue(repository.getChangesSince(changes.getVersion()).getDeleted().isEmpty());
+	}
+	
+	@Test
+	public void testChangesResyncWhenTheLogDoesNotReachBack() {
+		//ARRANGE
+		DataStore dataStore = new DataStore(dataFile.getPath(), 1000, false, Duration.ZERO, 1, false, 2);
+		PersonRepositoryImpl repository = new PersonRepositoryImpl(dataStore);
+		long since = repository.getVersion();
+		
+		//ACT
+		repository.insertPerson(new Person("Jane","Doe","1509 Culver St","Culver","97451","123-456-7890","janedoe@email.com"));
+		long afterFirst = repository.getVersion();
+		repository.insertPerson(new Person("Jim","Doe","1509 Culver St","Culver","97451","123-456-7890","jimdoe@email.com"));
+		repository.insertPerson(new Person("Joe","Doe","1509 Culver St","Culver","97451","123-456-7890","joedoe@email.com"));
+		
+		//ASSERT
+		Changes<Person> resync = repository.getChangesSince(since);
+		assertTrue(resync.isResync());
+		assertEquals(dataStore.getPersons(), resync.getUpserted());
+		assertEquals(repository.getVersion(), resync.getVersion());
+		assertFalse(repository.getChangesSince(afterFirst).isResync());
+		assertEquals(2, repository.getChangesSince(afterFirst).getUpserted().size());
+		assertTrue(repository.getChangesSince(repository.getVersion() + 1).isResync());
+	}
+	
+	@Test
+	public void testVersionsAreNotReusedAfterARestart() throws InterruptedException {
+		//ARRANGE
+		DataStore dataStore = new DataStore(dataFile.getPath());
+		PersonRepositoryImpl repository = new PersonRepositoryImpl(dataStore);
+		repository.insertPerson(new Person("Jane","Doe","1509 Culver St","Culver","97451","123-456-7890","janedoe@email.com"));
+		long beforeRestart = repository.getVersion();
+		dataStore.close();
+		//Versions start from the start time, in milliseconds
+		Thread.sleep(2);
+		
+		//ACT
+		PersonRepositoryImpl restarted = new PersonRepositoryImpl(new DataStore(dataFile.getPath()));
+		
+		//ASSERT
+		assertTrue(restarted.getVersion() > beforeRestart);
+		assertTrue(restarted.getChangesSince(beforeRestart).isResync());
+	}
+	
+	@Test
+	public void testPagesWalkTheSectionInKeyOrder() {
+		//ARRANGE
+		DataStore dataStore = new DataStore(dataFile.getPath());
+		PersonRepositoryImpl repository = new PersonRepositoryImpl(dataStore);
+		for (String firstName : List.of("Zoe", "Adam", "Mia", "Eli")) {
+			repository.insertPerson(new Person(firstName,"Doe","1509 Culver St","Culver","97451","123-456-7890","doe@email.com"));
+		}
+		
+		//ACT
+		List<String> firstNames = new ArrayList<>();
+		List<Integer> sizes = new ArrayList<>();
+		String after = null;
+		do {
+			Page<Person> page = repository.getPersonsPage(after, 2);
+			page.getItems().forEach(person -> firstNames.add(person.getFirstName()));
+			sizes.add(page.getItems().size());
+			after = page.getNextKey();
+			if (after != null && sizes.size() == 1) {
+				//A person inserted before the cursor does not shift the next pages
+				repository.insertPerson(new Person("Abe","Doe","1509 Culver St","Culver","97451","123-456-7890","doe@email.com"));
+			}
+		} while (after != null);
+		
+		//ASSERT
+		assertEquals(List.of("Adam", "Eli", "John", "Mia", "Zoe"), firstNames);
+		assertEquals(List.of(2, 2, 1), sizes);
+		assertTrue(repository.getPersonsPage(DataStore.key("Zoe", "Doe"), 2).getItems().isEmpty());
+		assertEquals(null, repository.getPersonsPage(null, 6).getNextKey());
+		repository.deletePerson("Eli", "Doe");
+		assertEquals("John", repository.getPersonsPage(DataStore.key("Adam", "Doe"), 1).getItems().get(0).getFirstName());
+	}
+	
+	private DataStore openWithSnapshot() {
+		return new DataStore(dataFile.getPath(), 1000, false, Duration.ZERO, 1, true);
+	}
+}
@@ -1,9 +1,11 @@
 package com.safetynetalerts.safetynet.repository;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -11,6 +13,8 @@ import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -20,6 +24,9 @@ import com.safetynetalerts.safetynet.service.FireStationServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -38,8 +45,14 @@ public class FireStationRepositoryImplTest {
 	@InjectMocks
 	private FireStationServiceImpl fireStationService;
 	
+	@Captor
+	private ArgumentCaptor<FireStation> fireStationCaptor;
+	
 	private ObjectMapper objectMapper = new ObjectMapper();
 	
+	@TempDir
+	private Path tempDir;
+	
 	@BeforeEach
 	public void setUp() {
 		MockitoAnnotations.openMocks(this);
@@ -47,17 +60,11 @@ public class FireStationRepositoryImplTest {
 	
 	@Test
 	public void testSaveAllFireStationsDoesNotAffectOtherSections() throws IOException {
-		//ARRANGE
-		List<FireStation> fireStations = new ArrayList<>();
-		fireStations.add(new FireStation("1509 Culver St", "3"));
-		
-		when(fireStationRepository.getAllFireStations()).thenReturn(fireStations);
-		
 		//ACT
 		fireStationService.addFireStation(new FireStationDTO("1509 Culver St", "3"));
 		
 		//ASSERT
-		verify(fireStationRepository, times(1)).saveAllFireStations(anyList());
+		verify(fireStationRepository, times(1)).insertFireStation(any(FireStation.class));
 		
 		//Check if any other section has not be change by the action
 		JsonNode rootNode = objectMapper.readTree(new File("src/main/resources/data.json"));
@@ -92,23 +99,17 @@ public class FireStationRepositoryImplTest {
 		firestationDTO.setAddress("1234 Newaddress Nw");
 		firestationDTO.setStation("5");
 		
-		List<FireStation> fireStations = new ArrayList<>();
-		when(fireStationRepository.getAllFireStations()).thenReturn(fireStations);
-		
 		//ACT
 		fireStationService.addFireStation(firestationDTO);
 		
 		//ASSERT
-		verify(fireStationRepository, times(1)).saveAllFireStations(anyList());
+		verify(fireStationRepository, times(1)).insertFireStation(any(FireStation.class));
 	}
 	
 	@Test
 	public void testUpdateFireStation() {
 		//ARRANGE
-		List<FireStation> fireStations = new ArrayList<>();
-		fireStations.add(new FireStation("1509 Culver St", "3"));
-		
-		when(fireStationRepository.getAllFireStations()).thenReturn(fireStations);
+		when(fireStationRepository.updateFireStation(any(FireStation.class))).thenReturn(true);
 		
 		FireStationDTO updatedFirestationDTO = new FireStationDTO("1509 Culver St", "4");
 		
@@ -116,24 +117,21 @@ public class FireStationRepositoryImplTest {
 		fireStationService.updateFireStation(updatedFirestationDTO);
 		
 		//ASSERT
-		verify(fireStationRepository, times(1)).saveAllFireStations(anyList());
-		assertEquals("4", fireStations.get(0).getStation());
+		verify(fireStationRepository, times(1)).updateFireStation(fireStationCaptor.capture());
+		assertEquals("4", fireStationCaptor.getValue().getStation());
 	}
 	
 	@Test
 	public void testDeleteFireStation() {
 		//ARRANGE
-		List<FireStation> fireStations = new ArrayList<>();
-		fireStations.add(new FireStation("1509 Culver St", "3"));
-		
-		when(fireStationRepository.getAllFireStations()).thenReturn(fireStations);
+		when(fireStationRepository.deleteFireStation("1509 Culver St")).thenReturn(true);
 		
 		//ACT
 		fireStationService.deleteFireStation("1509 Culver St");
 		
 		//ASSERT
-		verify(fireStationRepository, times(1)).saveAllFireStations(anyList());
-		assertTrue(fireStations.isEmpty());
+		verify(fireStationRepository, times(1)).deleteFireStation("1509 Culver St");
+		verify(fireStationRepository, times(0)).saveAllFireStations(anyList());
 	}
 	
 	@Test
@@ -151,8 +149,7 @@ public class FireStationRepositoryImplTest {
 	@Test
 	public void testUpdateNonExistingFireStation() {
 		//ARRANGE
-		List<FireStation> fireStations = new ArrayList<>();
-		when(fireStationRepository.getAllFireStations()).thenReturn(fireStations);
+		when(fireStationRepository.updateFireStation(any(FireStation.class))).thenReturn(false);
 		
 		FireStationDTO updatedFirestationDTO = new FireStationDTO("NonExisting address", "5");
 		
@@ -164,21 +161,20 @@ public class FireStationRepositoryImplTest {
 		//ADDITIONNAL ASSERT
 		assertEquals("FireStation not found", exception.getMessage());
 		
-		verify(fireStationRepository, times(1)).getAllFireStations();
+		verify(fireStationRepository, times(1)).updateFireStation(any(FireStation.class));
 		verify(fireStationRepository, times(0)).saveAllFireStations(anyList());
 	}
 	
 	@Test
 	public void testDeleteNonExistingFireStation() {
 		//ARRANGE
-		List<FireStation> fireStations = new ArrayList<>();
-		when(fireStationRepository.getAllFireStations()).thenReturn(fireStations);
+		when(fireStationRepository.deleteFireStation("NonExisting address")).thenReturn(false);
 		
 		//ACT
 		fireStationService.deleteFireStation("NonExisting address");
 		
 		//ASSERT
-		verify(fireStationRepository, times(1)).getAllFireStations();
+		verify(fireStationRepository, times(1)).deleteFireStation("NonExisting address");
 		verify(fireStationRepository, times(0)).saveAllFireStations(anyList());
 	}
 	
@@ -225,4 +221,26 @@ public class FireStationRepositoryImplTest {
 		assertEquals("1509 Culver St", result.get(0).getAddress());
 		assertEquals("29 15th St", result.get(1).getAddress());
 	}
+	
+	@Test
+	public void testUpdateReplacesEveryMappingOfTheAddress() throws IOException {
+		//ARRANGE
+		Path dataFile = tempDir.resolve("data.json");
+		Files.copy(Path.of("src/main/resources/data.json"), dataFile);
+		DataStore dataStore = new DataStore(dataFile.toString());
+		FireStationRepositoryImpl repository = new FireStationRepositoryImpl(dataStore);
+		repository.insertFireStation(new FireStation("1509 Culver St", "5"));
+		
+		//ACT
+		boolean updated = repository.updateFireStation(new FireStation("1509 Culver St", "7"));
+		
+		//ASSERT
+		assertTrue(updated);
+		assertEquals(List.of(new FireStation("1509 Culver St", "7")), repository.findFireStations("1509 Culver St"));
+		assertEquals(1, repository.getAllFireStations().stream().filter(f -> f.getAddress().equals("1509 Culver St")).count());
+		assertTrue(repository.deleteFireStation("1509 Culver St"));
+		assertFalse(repository.updateFireStation(new FireStation("1509 Culver St", "3")));
+		assertTrue(new FireStationRepositoryImpl(new DataStore(dataFile.toString())).findFireStations("1509 Culver St").isEmpty());
+		dataStore.close();
+	}
 }
@@ -0,0 +1,66 @@
+package com.safetynetalerts.safetynet.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.safetynetalerts.safetynet.model.MedicalRecord;
+
+public class MedicalRecordIndexTest {
+
+	@Test
+	public void testGetIgnoresCase() {
+		//ARRANGE
+		MedicalRecord johnBoyd = new MedicalRecord("John","Boyd","03/06/1984", new ArrayList<>(), new ArrayList<>());
+		MedicalRecordIndex index = MedicalRecordIndex.of(List.of(johnBoyd));
+		
+		//ACT & ASSERT
+		assertSame(johnBoyd, index.get("John", "Boyd"));
+		assertSame(johnBoyd, index.get("JOHN", "boyd"));
+	}
+	
+	@Test
+	public void testGetKeepsFirstRecordOnDuplicateNames() {
+		//ARRANGE
+		MedicalRecord first = new MedicalRecord("John","Boyd","03/06/1984", new ArrayList<>(), new ArrayList<>());
+		MedicalRecord second = new MedicalRecord("john","BOYD","01/01/1990", new ArrayList<>(), new ArrayList<>());
+		
+		//ACT
+		MedicalRecord result = MedicalRecordIndex.of(List.of(first, second)).get("John", "Boyd");
+		
+		//ASSERT
+		assertEquals("03/06/1984", result.getBirthdate());
+	}
+	
+	@Test
+	public void testGetNonExistentOrNullNames() {
+		//ARRANGE
+		MedicalRecordIndex index = MedicalRecordIndex.of(List.of(new MedicalRecord("John","Boyd","03/06/1984", new ArrayList<>(), new ArrayList<>())));
+		
+		//ACT & ASSERT
+		assertNull(index.get("Jane", "Boyd"));
+		assertNull(index.get("JohnBoyd", ""));
+		assertNull(index.get(null, "Boyd"));
+	}
+	
+	@Test
+	public void testChangedFallsBackToNextRecordWithSameNames() {
+		//ARRANGE
+		MedicalRecord first = new MedicalRecord("John","Boyd","03/06/1984", new ArrayList<>(), new ArrayList<>());
+		MedicalRecord second = new MedicalRecord("john","BOYD","01/01/1990", new ArrayList<>(), new ArrayList<>());
+		MedicalRecordIndex index = MedicalRecordIndex.of(List.of(first, second));
+		
+		//ACT
+		MedicalRecordIndex changed = index.changed(first, null);
+		
+		//ASSERT
+		assertSame(second, changed.get("John", "Boyd"));
+		assertSame(first, index.get("John", "Boyd"));
+		assertNull(changed.changed(second, null).get("John", "Boyd"));
+	}
+}
@@ -0,0 +1,91 @@
+package com.safetynetalerts.safetynet.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.safetynetalerts.safetynet.model.MedicalRecord;
+
+/**
+ * JMH comparison of the medical record lookup by name:
+ * the former linear scan with equalsIgnoreCase against the {@link MedicalRecordIndex}
+ *
+ * Not part of the test suite, run it with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.safetynetalerts.safetynet.repository.MedicalRecordLookupBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MedicalRecordLookupBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int records;
+
+    private List<MedicalRecord> medicalRecords;
+    private MedicalRecordIndex medicalRecordIndex;
+    private String[][] names;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        medicalRecords = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            medicalRecords.add(new MedicalRecord("First" + i, "Last" + i, "03/06/1984", List.of(), List.of()));
+        }
+        medicalRecordIndex = MedicalRecordIndex.of(medicalRecords);
+
+        // Looked up names are spread over the whole list and use a different case than the stored ones
+        names = new String[1024][];
+        for (int i = 0; i < names.length; i++) {
+            int row = (int) ((long) i * records / names.length);
+            names[i] = new String[] {"FIRST" + row, "last" + row};
+        }
+    }
+
+    @Benchmark
+    public MedicalRecord scan() {
+        String[] name = nextName();
+        Optional<MedicalRecord> medicalRecord = medicalRecords.stream()
+                .filter(rec -> rec.getFirstName().equalsIgnoreCase(name[0]) && rec.getLastName().equalsIgnoreCase(name[1]))
+                .findFirst();
+        return medicalRecord.orElse(null);
+    }
+
+    @Benchmark
+    public MedicalRecord index() {
+        String[] name = nextName();
+        return medicalRecordIndex.get(name[0], name[1]);
+    }
+
+    private String[] nextName() {
+        next = (next + 1) & (names.length - 1);
+        return names[next];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MedicalRecordLookupBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
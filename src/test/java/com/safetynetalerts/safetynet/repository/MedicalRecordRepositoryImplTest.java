@@ -4,7 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.times;
@@ -19,6 +19,8 @@ import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -38,6 +40,9 @@ public class MedicalRecordRepositoryImplTest {
 	
 	@InjectMocks
 	private MedicalRecordServiceImpl medicalRecordService;
+	
+	@Captor
+	private ArgumentCaptor<MedicalRecord> medicalRecordCaptor;
 
 	private ObjectMapper objectMapper = new ObjectMapper();
 	
@@ -49,16 +54,13 @@ public class MedicalRecordRepositoryImplTest {
 	@Test
 	public void testSaveAllMedicalRecordsDoesNotAffectOtherSections() throws IOException {
 		//ARRANGE
-		List<MedicalRecord> medicalRecords = new ArrayList<>();
-		medicalRecords.add(new MedicalRecord("John","Doe","03/06/1984", new ArrayList<>(), new ArrayList<>()));
-		
-		when(medicalRecordRepository.getAllMedicalRecords()).thenReturn(medicalRecords);
+		when(medicalRecordRepository.insertMedicalRecord(any(MedicalRecord.class))).thenReturn(true);
 		
 		//ACT
 		medicalRecordService.addMedicalRecord(new MedicalRecordDTO("John","Doe","03/06/1984", new ArrayList<>(), new ArrayList<>()));
 		
 		//ASSERT
-		verify(medicalRecordRepository, times(1)).saveAllMedicalRecords(anyList());
+		verify(medicalRecordRepository, times(1)).insertMedicalRecord(any(MedicalRecord.class));
 		
 		//Check if any other section has not be change by the action
 		JsonNode rootNode = objectMapper.readTree(new File("src/main/resources/data.json"));
@@ -91,21 +93,19 @@ public class MedicalRecordRepositoryImplTest {
 	public void testAddMedicalRecord() {
 		//ARRANGE
 		MedicalRecordDTO medicalRecordDTO = new MedicalRecordDTO("Jane", "Doe", "01/01/1990", new ArrayList<>(), new ArrayList<>());
+		when(medicalRecordRepository.insertMedicalRecord(any(MedicalRecord.class))).thenReturn(true);
 		
 		//ACT
 		medicalRecordService.addMedicalRecord(medicalRecordDTO);
 		
 		//ASSERT
-		verify(medicalRecordRepository, times(1)).saveAllMedicalRecords(anyList());
+		verify(medicalRecordRepository, times(1)).insertMedicalRecord(any(MedicalRecord.class));
 	}
 	
 	@Test
 	public void testUpdateMedicalRecord() {
 		//ARRANGE
-		List<MedicalRecord> medicalRecords = new ArrayList<>();
-		medicalRecords.add(new MedicalRecord("John","Doe","03/06/1984", new ArrayList<>(), new ArrayList<>()));
-		
-		when(medicalRecordRepository.getAllMedicalRecords()).thenReturn(medicalRecords);
+		when(medicalRecordRepository.updateMedicalRecord(any(MedicalRecord.class))).thenReturn(true);
 		
 		MedicalRecordDTO updatedMedicalRecordDTO = new MedicalRecordDTO("John","Doe","03/06/1985", new ArrayList<>(), new ArrayList<>()); 
 		
@@ -113,24 +113,21 @@ public class MedicalRecordRepositoryImplTest {
 		medicalRecordService.updatePerson(updatedMedicalRecordDTO);
 		
 		//ASSERT
-		verify(medicalRecordRepository, times(1)).saveAllMedicalRecords(anyList());
-		assertEquals("03/06/1985", medicalRecords.get(0).getBirthdate());
+		verify(medicalRecordRepository, times(1)).updateMedicalRecord(medicalRecordCaptor.capture());
+		assertEquals("03/06/1985", medicalRecordCaptor.getValue().getBirthdate());
 	}
 	
 	@Test
 	public void testDeleteMedicalRecord() {
 		//ARRANGE
-		List<MedicalRecord> medicalRecords = new ArrayList<>();
-		medicalRecords.add(new MedicalRecord("John","Doe","03/06/1984", new ArrayList<>(), new ArrayList<>()));
-		
-		when(medicalRecordRepository.getAllMedicalRecords()).thenReturn(medicalRecords);
+		when(medicalRecordRepository.deleteMedicalRecord("John", "Doe")).thenReturn(true);
 		
 		//ACT
 		medicalRecordService.deleteMedicalRecord("John", "Doe");
 		
 		//ASSERT
-		verify(medicalRecordRepository, times(1)).saveAllMedicalRecords(anyList());
-		assertTrue(medicalRecords.isEmpty());
+		verify(medicalRecordRepository, times(1)).deleteMedicalRecord("John", "Doe");
+		verify(medicalRecordRepository, times(0)).saveAllMedicalRecords(anyList());
 	}
 	
 	@Test
@@ -180,22 +177,20 @@ public class MedicalRecordRepositoryImplTest {
 	@Test
 	public void testDeleteNonExistingMedicalRecord() {
 		//ARRANGE
-		List<MedicalRecord> medicalRecords = new ArrayList<>();
-		when(medicalRecordRepository.getAllMedicalRecords()).thenReturn(medicalRecords);
+		when(medicalRecordRepository.deleteMedicalRecord("NonExisting", "Person")).thenReturn(false);
 		
 		//ACT
 		medicalRecordService.deleteMedicalRecord("NonExisting", "Person");
 		
 		//ASSERT
-		verify(medicalRecordRepository, times(1)).getAllMedicalRecords();
+		verify(medicalRecordRepository, times(1)).deleteMedicalRecord("NonExisting", "Person");
 		verify(medicalRecordRepository, times(0)).saveAllMedicalRecords(anyList());
 	}
 	
 	@Test
 	public void testUpdateNonExistingMedicalRecord() {
 	    //ARRANGE
-	    List<MedicalRecord> medicalRecords = new ArrayList<>();
-	    when(medicalRecordRepository.getAllMedicalRecords()).thenReturn(medicalRecords);
+	    when(medicalRecordRepository.updateMedicalRecord(any(MedicalRecord.class))).thenReturn(false);
 
 	    MedicalRecordDTO nonExistentMedicalRecordDTO = new MedicalRecordDTO("NonExistent", "Person", "01/01/2000", new ArrayList<>(), new ArrayList<>());
 
@@ -208,7 +203,7 @@ public class MedicalRecordRepositoryImplTest {
 	    assertEquals("Medical record not found", exception.getMessage());
 
 	    // VERIFY INTERACTIONS WITH REPOSITORY
-	    verify(medicalRecordRepository, times(1)).getAllMedicalRecords();
+	    verify(medicalRecordRepository, times(1)).updateMedicalRecord(any(MedicalRecord.class));
 	    verify(medicalRecordRepository, times(0)).saveAllMedicalRecords(anyList());
 	}
 	
@@ -262,4 +257,16 @@ public class MedicalRecordRepositoryImplTest {
 		assertEquals("Jake", result.get(1).getFirstName());
 	}
 	
+	@Test
+	public void testCountMedicalRecordsWithMedication() {
+		//ARRANGE
+		MedicalRecordRepositoryImpl repository = new MedicalRecordRepositoryImpl(new DataStore("src/main/resources/data.json"));
+		
+		//ACT & ASSERT
+		for (String medication : List.of("aznol:350mg", "hydrapermazol:100mg", "noxidian:100mg", "unknown:1mg")) {
+			assertEquals(repository.getAllMedicalRecords().stream().filter(record -> record.getMedications().contains(medication)).count(),
+					repository.countMedicalRecordsWithMedication(medication), medication);
+		}
+		assertEquals(0, repository.countMedicalRecordsWithMedication(null));
+	}
 }
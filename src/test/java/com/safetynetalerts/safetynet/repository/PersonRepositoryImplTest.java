@@ -1,8 +1,12 @@
 package com.safetynetalerts.safetynet.repository;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -11,14 +15,18 @@ import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -27,6 +35,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.safetynetalerts.safetynet.dto.PersonDTO;
+import com.safetynetalerts.safetynet.model.FireStation;
 import com.safetynetalerts.safetynet.model.Person;
 import com.safetynetalerts.safetynet.service.PersonServiceImpl;
 
@@ -39,8 +48,14 @@ public class PersonRepositoryImplTest {
 	@InjectMocks
 	private PersonServiceImpl personService;
 	
+	@Captor
+	private ArgumentCaptor<Person> personCaptor;
+	
 	private ObjectMapper objectMapper = new ObjectMapper();
 	
+	@TempDir
+	private Path tempDir;
+	
 	@BeforeEach
 	public void setUp() {
 		MockitoAnnotations.openMocks(this);
@@ -54,16 +69,13 @@ public class PersonRepositoryImplTest {
 	@Test
 	public void testSaveAllPersonsDoesNotAffectOtherSections() throws IOException {
 		//ARRANGE
-		List<Person> persons = new ArrayList<>();
-		persons.add(new Person("John","Doe","112 Culver St","Culver","97451","123-456-7890","jdoe@email.com"));
-		
-		when(personRepository.getAllPersons()).thenReturn(persons);
+		when(personRepository.insertPerson(any(Person.class))).thenReturn(true);
 		
 		//ACT
 		personService.addPerson(new PersonDTO("John","Doe","112 Culver St","Culver","97451","123-456-7890","jdoe@email.com"));
 		
 		//ASSERT
-		verify(personRepository, times(1)).saveAllPersons(anyList());
+		verify(personRepository, times(1)).insertPerson(any(Person.class));
 		
 		//Check if any other section has not be change by the action
 		JsonNode rootNode = objectMapper.readTree(new File("src/main/resources/data.json"));
@@ -95,23 +107,17 @@ public class PersonRepositoryImplTest {
 	@Test
 	public void testUpdatePerson() {
 		//ARRANGE
-		List<Person> persons = new ArrayList<>();
-		Person johnDoe = new Person("John","Doe","112 Culver St","Culver","97451","123-456-7890","jdoe@email.com");
-		persons.add(johnDoe);
-		
-		when(personRepository.getAllPersons()).thenReturn(persons);
+		when(personRepository.updatePerson(any(Person.class))).thenReturn(true);
 		
 		//ACT
 		personService.updatePerson(new PersonDTO("John","Doe","834 Binoc Ave", "Culver", "97451", "987-654-3210","john.new@email.com" ));
 		
 		
 		//ASSERT
-		verify(personRepository, times(1)).saveAllPersons(anyList());
+		verify(personRepository, times(1)).updatePerson(personCaptor.capture());
 		
 		//Verify that the person's details have been updated
-		Person updatedPerson = personRepository.getAllPersons().stream()
-				.filter(p -> p.getFirstName().equals("John") 
-						&& p.getLastName().equals("Doe")).findFirst().get();
+		Person updatedPerson = personCaptor.getValue();
 		
 		assertEquals("834 Binoc Ave", updatedPerson.getAddress());
 		assertEquals("987-654-3210", updatedPerson.getPhone());
@@ -122,23 +128,14 @@ public class PersonRepositoryImplTest {
 	@Test
 	public void testDeletePerson() {
 		//ARRANGE
-		List<Person> persons = new ArrayList<>();
-		Person johnDoe = new Person("John","Doe","112 Culver St","Culver","97451","123-456-7890","jdoe@email.com");
-		persons.add(johnDoe);
-		
-		when(personRepository.getAllPersons()).thenReturn(persons);
+		when(personRepository.deletePerson("John", "Doe")).thenReturn(true);
 		
 		//ACT
 		personService.deletePerson("John", "Doe");
 		
 		//ASSERT
-		verify(personRepository, times(1)).saveAllPersons(anyList());
-		
-		//Verify that the person has been deleted successfully
-		Optional<Person> deletedPerson = personRepository.getAllPersons().stream()
-				.filter(p -> p.getFirstName().equals("John") 
-						&& p.getLastName().equals("Doe")).findFirst();
-		assertEquals(Optional.empty(), deletedPerson);
+		verify(personRepository, times(1)).deletePerson("John", "Doe");
+		verify(personRepository, times(0)).saveAllPersons(anyList());
 	}
 	
 	@Test
@@ -166,22 +163,20 @@ public class PersonRepositoryImplTest {
 	@Test
 	public void testUpdateNonExistingPerson() {
 		//ARRANGE
-		List<Person> persons = new ArrayList<>();
-		when(personRepository.getAllPersons()).thenReturn(persons);
+		when(personRepository.updatePerson(any(Person.class))).thenReturn(false);
 		
 		//ACT
 		personService.updatePerson(new PersonDTO("NonExisting", "Person", "NoAddress", "NoCity", "00000", "111-222-333-4444", "noEmail@nomail.com"));
 		
 		//ASSERT
-		verify(personRepository, times(1)).getAllPersons();
+		verify(personRepository, times(1)).updatePerson(any(Person.class));
 		verify(personRepository, times(0)).saveAllPersons(anyList());
 	}
 	
 	@Test
 	public void testDeleteNonExistingPerson() {
 		//ARRANGE
-		List<Person> persons = new ArrayList<>();
-		when(personRepository.getAllPersons()).thenReturn(persons);
+		when(personRepository.deletePerson("NonExisting", "Person")).thenReturn(false);
 		
 		//ACT & ASSERT
 		IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -190,12 +185,63 @@ public class PersonRepositoryImplTest {
 		
 		//ADDITIONAL ASSERT
 		assertEquals("Person not found", exception.getMessage());
-		verify(personRepository, times(1)).getAllPersons();
+		verify(personRepository, times(1)).deletePerson("NonExisting", "Person");
 		verify(personRepository, times(0)).saveAllPersons(anyList());
 	}
 	
+	@Test
+	public void testKeyedOperationsChangeOnlyTheirPerson() throws IOException {
+		//ARRANGE
+		Path dataFile = tempDir.resolve("data.json");
+		Files.copy(Path.of("src/main/resources/data.json"), dataFile);
+		DataStore dataStore = new DataStore(dataFile.toString());
+		PersonRepositoryImpl repository = new PersonRepositoryImpl(dataStore);
+		
+		//ACT
+		boolean inserted = repository.insertPerson(new Person("Jane","Doe","112 Culver St","Culver","97451","123-456-7890","janedoe@email.com"));
+		boolean insertedTwice = repository.insertPerson(new Person("Jane","Doe","29 15th St","Culver","97451","841-874-6513","jdoe@email.com"));
+		boolean updated = repository.updatePerson(new Person("John","Boyd","834 Binoc Ave","Culver","97451","841-874-6512","jaboyd@email.com"));
+		boolean deleted = repository.deletePerson("Jacob", "Boyd");
+		
+		//ASSERT
+		assertTrue(inserted);
+		assertFalse(insertedTwice);
+		assertEquals("janedoe@email.com", repository.findPerson("Jane", "Doe").getEmail());
+		assertTrue(updated);
+		assertTrue(deleted);
+		assertFalse(repository.deletePerson("Jacob", "Boyd"));
+		assertFalse(repository.updatePerson(new Person("NonExisting","Person","NoAddress","NoCity","00000","111-222-333-4444","noEmail@nomail.com")));
+		assertEquals("834 Binoc Ave", repository.findPerson("John", "Boyd").getAddress());
+		assertNull(repository.findPerson("Jacob", "Boyd"));
+		
+		List<Person> allPersons = repository.getAllPersons();
+		assertEquals(dataStore.getPersons(), allPersons);
+		assertTrue(allPersons.contains(repository.findPerson("John", "Boyd")));
+		assertEquals("112 Culver St", repository.findPerson("Jane", "Doe").getAddress());
+		assertEquals(allPersons.size(), new DataStore(dataFile.toString()).getPersons().size());
+		dataStore.close();
+	}
+	
+	@Test
+	public void testVersionIncreasesOnlyWithPersonChanges() throws IOException {
+		//ARRANGE
+		Path dataFile = tempDir.resolve("data.json");
+		Files.copy(Path.of("src/main/resources/data.json"), dataFile);
+		DataStore dataStore = new DataStore(dataFile.toString());
+		PersonRepositoryImpl repository = new PersonRepositoryImpl(dataStore);
+		long initial = repository.getVersion();
+		
+		//ACT
+		repository.insertPerson(new Person("Jane","Doe","112 Culver St","Culver","97451","123-456-7890","janedoe@email.com"));
+		long afterInsert = repository.getVersion();
+		boolean updated = repository.updatePerson(new Person("NonExisting","Person","NoAddress","NoCity","00000","111-222-333-4444","noEmail@nomail.com"));
+		new FireStationRepositoryImpl(dataStore).insertFireStation(new FireStation("112 Culver St", "9"));
+		
+		//ASSERT
+		assertFalse(updated);
+		assertTrue(afterInsert > initial);
+		assertEquals(afterInsert, repository.getVersion());
+		dataStore.close();
+	}
+	
 }
-
-
-
-
@@ -0,0 +1,56 @@
+package com.safetynetalerts.safetynet.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.safetynetalerts.safetynet.model.FireStation;
+
+public class StationIndexTest {
+
+	@Test
+	public void testLookupsInBothDirections() {
+		//ARRANGE
+		StationIndex index = StationIndex.of(List.of(
+				new FireStation("1509 Culver St", "3"),
+				new FireStation("29 15th St", "2"),
+				new FireStation("834 Binoc Ave", "3"),
+				new FireStation("29 15th St", "4")));
+		
+		//ACT & ASSERT
+		assertEquals(List.of("1509 Culver St", "834 Binoc Ave"), index.addresses(3));
+		assertEquals(List.of(2, 4), index.stations("29 15th St"));
+		assertTrue(index.addresses(9).isEmpty());
+		assertTrue(index.stations("Unknown address").isEmpty());
+	}
+	
+	@Test
+	public void testChangedMovesAddressToNewStation() {
+		//ARRANGE
+		FireStation previous = new FireStation("1509 Culver St", "3");
+		FireStation current = new FireStation("1509 Culver St", "1");
+		StationIndex index = StationIndex.of(List.of(previous, new FireStation("834 Binoc Ave", "3")));
+		
+		//ACT
+		StationIndex changed = index.changed(previous, current);
+		
+		//ASSERT
+		assertEquals(List.of("834 Binoc Ave"), changed.addresses(3));
+		assertEquals(List.of("1509 Culver St"), changed.addresses(1));
+		assertEquals(List.of(1), changed.stations("1509 Culver St"));
+		assertEquals(List.of(3), index.stations("1509 Culver St"));
+		assertTrue(changed.changed(current, null).stations("1509 Culver St").isEmpty());
+	}
+	
+	@Test
+	public void testNonNumericStationIsNotIndexed() {
+		//ACT
+		StationIndex index = StationIndex.of(List.of(new FireStation("1509 Culver St", "three")));
+		
+		//ASSERT
+		assertTrue(index.stations("1509 Culver St").isEmpty());
+	}
+}
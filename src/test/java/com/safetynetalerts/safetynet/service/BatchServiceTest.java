@@ -0,0 +1,73 @@
+package com.safetynetalerts.safetynet.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.safetynetalerts.safetynet.dto.FireStationDTO;
+import com.safetynetalerts.safetynet.dto.MutationDTO;
+import com.safetynetalerts.safetynet.dto.PersonDTO;
+import com.safetynetalerts.safetynet.repository.BatchRepository;
+import com.safetynetalerts.safetynet.repository.Mutation;
+import com.safetynetalerts.safetynet.repository.Mutation.Operation;
+
+@ExtendWith(MockitoExtension.class)
+public class BatchServiceTest {
+
+	@Mock
+	private BatchRepository batchRepository;
+
+	@InjectMocks
+	private BatchServiceImpl batchService;
+
+	@Captor
+	private ArgumentCaptor<List<Mutation>> mutations;
+
+	@Test
+	public void testApplyBatchConvertsTheMutationsInOrder() {
+		//ARRANGE
+		PersonDTO person = new PersonDTO("John", "Boyd", null, null, null, null, null);
+		FireStationDTO fireStation = new FireStationDTO("1 New St", "9");
+
+		//ACT
+		batchService.applyBatch(List.of(new MutationDTO("DELETE", person, null, null, true),
+				new MutationDTO("add", null, fireStation, null, false)));
+
+		//ASSERT
+		verify(batchRepository, times(1)).applyBatch(mutations.capture());
+		assertEquals(2, mutations.getValue().size());
+		assertEquals(Operation.DELETE, mutations.getValue().get(0).getOperation());
+		assertEquals("Boyd", mutations.getValue().get(0).getPerson().getLastName());
+		assertTrue(mutations.getValue().get(0).isCascade());
+		assertEquals("9", mutations.getValue().get(1).getFireStation().getStation());
+	}
+
+	@Test
+	public void testInvalidMutationRejectsTheBatch() {
+		//ARRANGE
+		PersonDTO person = new PersonDTO("John", "Boyd", null, null, null, null, null);
+		FireStationDTO fireStation = new FireStationDTO("1 New St", "nine");
+
+		//ACT
+		IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+				() -> batchService.applyBatch(List.of(new MutationDTO("delete", person, null, null, true),
+						new MutationDTO("add", null, fireStation, null, false))));
+
+		//ASSERT
+		assertEquals("Mutation 1: Station must be a number", exception.getMessage());
+		verifyNoInteractions(batchRepository);
+	}
+}
@@ -1,11 +1,17 @@
 package com.safetynetalerts.safetynet.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,8 +24,12 @@ import com.safetynetalerts.safetynet.dto.ChildAlertDTO;
 import com.safetynetalerts.safetynet.dto.HouseHoldMemberDTO;
 import com.safetynetalerts.safetynet.model.MedicalRecord;
 import com.safetynetalerts.safetynet.model.Person;
-import com.safetynetalerts.safetynet.repository.MedicalRecordRepository;
-import com.safetynetalerts.safetynet.repository.PersonRepository;
+import com.safetynetalerts.safetynet.model.Resident;
+import com.safetynetalerts.safetynet.repository.AlertViewRepository;
+import com.safetynetalerts.safetynet.repository.DataSnapshot;
+import com.safetynetalerts.safetynet.repository.DataStore;
+import com.safetynetalerts.safetynet.repository.ResidentRepository;
+import com.safetynetalerts.safetynet.util.AgeCalculator;
 
 @ExtendWith(MockitoExtension.class)
 public class ChildAlertServiceTest {
@@ -28,14 +38,25 @@ public class ChildAlertServiceTest {
 	private ChildAlertServiceImpl childAlertService;
 	
 	@Mock
-	private PersonRepository personRepository;
+	private DataStore dataStore;
 	
 	@Mock
-	private MedicalRecordRepository medicalRecordRepository;
+	private ResidentRepository residentRepository;
+	
+	@Mock
+	private AlertViewRepository alertViewRepository;
 	
 	@BeforeEach
 	public void setUp() {
 		MockitoAnnotations.openMocks(this);
+		when(dataStore.readConsistently(any())).thenAnswer(invocation ->
+				invocation.<Function<DataSnapshot, Object>>getArgument(0).apply(null));
+		AgeCalculator.setClock(Clock.fixed(Instant.parse("2024-10-01T10:00:00Z"), ZoneOffset.UTC));
+	}
+	
+	@AfterEach
+	public void tearDown() {
+		AgeCalculator.setClock(Clock.systemDefaultZone());
 	}
 	
 	@Test
@@ -43,17 +64,14 @@ public class ChildAlertServiceTest {
 		//ARRANGE
 		String address = "1509 Culver St";
 		
-		List<Person> persons = new ArrayList<>();
-		persons.add(new Person("John","Boyd","1509 Culver St","Culver","97451","841-874-6512","jaboyd@email.com"));
-		persons.add(new Person("Tenley","Boyd","1509 Culver St","Culver","97451","841-874-6512","tenz@email.com"));
-	
-		List<MedicalRecord> medicalRecords = new ArrayList<>();
-		medicalRecords.add(new MedicalRecord("John","Boyd","03/06/1984", new ArrayList<>(), new ArrayList<>()));
-		medicalRecords.add(new MedicalRecord("Tenley","Boyd", "02/18/2012",new ArrayList<>(), new ArrayList<>()));
+		List<Resident> residents = new ArrayList<>();
+		residents.add(new Resident(new Person("John","Boyd","1509 Culver St","Culver","97451","841-874-6512","jaboyd@email.com"),
+				new MedicalRecord("John","Boyd","03/06/1984", new ArrayList<>(), new ArrayList<>()), List.of(3)));
+		residents.add(new Resident(new Person("Tenley","Boyd","1509 Culver St","Culver","97451","841-874-6512","tenz@email.com"),
+				new MedicalRecord("Tenley","Boyd", "02/18/2012",new ArrayList<>(), new ArrayList<>()), List.of(3)));
 	
-		when(personRepository.getAllPersons()).thenReturn(persons);
-		when(medicalRecordRepository.getMedicalRecord("John","Boyd")).thenReturn(medicalRecords.get(0));
-		when(medicalRecordRepository.getMedicalRecord("Tenley","Boyd")).thenReturn(medicalRecords.get(1));
+		when(residentRepository.getResidentsByAddress(address)).thenReturn(residents);
+		when(alertViewRepository.getResidentsByAge(address, 0, 18)).thenReturn(List.of(residents.get(1)));
 	
 		//ACT
 		List<ChildAlertDTO> children = childAlertService.getChildrenByAddress(address);
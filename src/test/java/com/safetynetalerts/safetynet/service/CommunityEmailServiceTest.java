@@ -3,7 +3,6 @@ package com.safetynetalerts.safetynet.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.when;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -14,14 +13,13 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import com.safetynetalerts.safetynet.model.Person;
-import com.safetynetalerts.safetynet.repository.PersonRepository;
+import com.safetynetalerts.safetynet.repository.AlertViewRepository;
 
 @ExtendWith(MockitoExtension.class)
 public class CommunityEmailServiceTest {
 	
 	@Mock
-	private PersonRepository personRepository;
+	private AlertViewRepository alertViewRepository;
 	
 	@InjectMocks
 	private CommunityEmailServiceImpl communityEmailService;
@@ -36,11 +34,7 @@ public class CommunityEmailServiceTest {
 		//ARRANGE
 		String city = "Culver";
 		
-		List<Person> persons = new ArrayList<>();
-		persons.add(new Person("John", "Boyd", "1509 Culver St", city, "97451", "841-874-6512", "jaboyd@email.com"));
-		persons.add(new Person("Jacob", "Boyd", "1509 Culver St", city, "97451", "841-874-6513", "drk@email.com"));
-	
-		when(personRepository.getAllPersons()).thenReturn(persons);
+		when(alertViewRepository.getEmailsByCity(city)).thenReturn(List.of("jaboyd@email.com", "drk@email.com"));
 		
 		//ACT
 		List<String> emails = communityEmailService.getEmailsByCity(city);
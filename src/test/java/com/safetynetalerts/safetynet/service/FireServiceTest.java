@@ -3,9 +3,13 @@ package com.safetynetalerts.safetynet.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.when;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,21 +21,15 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import com.safetynetalerts.safetynet.dto.FireDTO;
 import com.safetynetalerts.safetynet.model.MedicalRecord;
 import com.safetynetalerts.safetynet.model.Person;
-import com.safetynetalerts.safetynet.repository.FireStationRepository;
-import com.safetynetalerts.safetynet.repository.MedicalRecordRepository;
-import com.safetynetalerts.safetynet.repository.PersonRepository;
+import com.safetynetalerts.safetynet.model.Resident;
+import com.safetynetalerts.safetynet.repository.ResidentRepository;
+import com.safetynetalerts.safetynet.util.AgeCalculator;
 
 @ExtendWith(MockitoExtension.class)
 public class FireServiceTest {
 
 	@Mock
-	private FireStationRepository fireStationRepository;
-	
-	@Mock
-	private PersonRepository personRepository;
-	
-	@Mock
-	private MedicalRecordRepository medicalRecordRepository;
+	private ResidentRepository residentRepository;
 	
 	@InjectMocks
 	private FireServiceImpl fireService;
@@ -39,6 +37,12 @@ public class FireServiceTest {
 	@BeforeEach
 	public void setUp() {
 		MockitoAnnotations.openMocks(this);
+		AgeCalculator.setClock(Clock.fixed(Instant.parse("2024-10-01T10:00:00Z"), ZoneOffset.UTC));
+	}
+	
+	@AfterEach
+	public void tearDown() {
+		AgeCalculator.setClock(Clock.systemDefaultZone());
 	}
 	
 	@Test
@@ -46,15 +50,11 @@ public class FireServiceTest {
 		//ARRANGE
 		String address = "1509 Culver St";
 		
-		List<Person> persons = new ArrayList<>();
-		persons.add(new Person("John", "Boyd", address , "Culver", "97451", "841-874-6512", "jaboyd@email.com"));
-		
-		List<MedicalRecord> medicalRecords = new ArrayList<>();	
-		medicalRecords.add(new MedicalRecord("John", "Boyd","03/06/1984", new ArrayList<>(), new ArrayList<>()));
+		List<Resident> residents = new ArrayList<>();
+		residents.add(new Resident(new Person("John", "Boyd", address , "Culver", "97451", "841-874-6512", "jaboyd@email.com"),
+				new MedicalRecord("John", "Boyd","03/06/1984", new ArrayList<>(), new ArrayList<>()), List.of(3)));
 		
-		when(personRepository.getAllPersons()).thenReturn(persons);
-		when(fireStationRepository.getAllFireStations()).thenReturn(new ArrayList<>());
-		when(medicalRecordRepository.getMedicalRecord("John", "Boyd")).thenReturn(medicalRecords.get(0));
+		when(residentRepository.getResidentsByAddress(address)).thenReturn(residents);
 		
 		//ACT
 		List<FireDTO> fireDTO = fireService.getPersonsByAddress(address);
@@ -63,6 +63,7 @@ public class FireServiceTest {
 		assertEquals(1, fireDTO.size());
 		assertEquals("John", fireDTO.get(0).getFirstName());
 		assertEquals(40, fireDTO.get(0).getAge());
+		assertEquals("3", fireDTO.get(0).getStationNumber());
 	}
 	
 }
@@ -2,10 +2,12 @@ package com.safetynetalerts.safetynet.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
@@ -23,11 +25,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import com.safetynetalerts.safetynet.dto.FireStationCoverageDTO;
 import com.safetynetalerts.safetynet.dto.FireStationDTO;
 import com.safetynetalerts.safetynet.model.FireStation;
-import com.safetynetalerts.safetynet.model.MedicalRecord;
 import com.safetynetalerts.safetynet.model.Person;
+import com.safetynetalerts.safetynet.model.Resident;
+import com.safetynetalerts.safetynet.model.StationCoverage;
+import com.safetynetalerts.safetynet.repository.AlertViewRepository;
 import com.safetynetalerts.safetynet.repository.FireStationRepository;
-import com.safetynetalerts.safetynet.repository.MedicalRecordRepository;
-import com.safetynetalerts.safetynet.repository.PersonRepository;
 
 @ExtendWith(MockitoExtension.class)
 public class FireStationServiceTest {
@@ -36,10 +38,7 @@ public class FireStationServiceTest {
 	private FireStationRepository fireStationRepository;
 	
 	@Mock
-	private PersonRepository personRepository;
-	
-	@Mock
-	private MedicalRecordRepository medicalRecordRepository;
+	private AlertViewRepository alertViewRepository;
 	
 	@InjectMocks
 	private FireStationServiceImpl fireStationService;
@@ -74,16 +73,30 @@ public class FireStationServiceTest {
 		firestationDTO.setAddress("1509 Culver St");
 		firestationDTO.setStation("4");
 		
-		List<FireStation> fireStations = new ArrayList<>();
-		fireStations.add(new FireStation("29 15th St", "1"));
+		//ACT
+		fireStationService.addFireStation(firestationDTO);
 		
-		when(fireStationRepository.getAllFireStations()).thenReturn(fireStations);
+		//ASSERT
+		ArgumentCaptor<FireStation> captor = ArgumentCaptor.forClass(FireStation.class);
+		verify(fireStationRepository, times(1)).insertFireStation(captor.capture());
+		assertEquals("1509 Culver St", captor.getValue().getAddress());
+		assertEquals("4", captor.getValue().getStation());
+	}
+	
+	@Test
+	public void testAddFireStationStoresTheStationNumber() {
+		//ARRANGE
+		FireStationDTO firestationDTO = new FireStationDTO();
+		firestationDTO.setAddress("1509 Culver St");
+		firestationDTO.setStation(" 03");
 		
 		//ACT
 		fireStationService.addFireStation(firestationDTO);
 		
 		//ASSERT
-		verify(fireStationRepository, times(1)).saveAllFireStations(anyList());
+		ArgumentCaptor<FireStation> captor = ArgumentCaptor.forClass(FireStation.class);
+		verify(fireStationRepository, times(1)).insertFireStation(captor.capture());
+		assertEquals("3", captor.getValue().getStation());
 	}
 	
 	@Test
@@ -93,21 +106,16 @@ public class FireStationServiceTest {
 		firestationDTO.setAddress("29 15th St");
 		firestationDTO.setStation("1");
 		
-		List<FireStation> fireStations = new ArrayList<>();
-		fireStations.add(new FireStation("29 15th St", "4"));
-		
-		when(fireStationRepository.getAllFireStations()).thenReturn(fireStations);
+		when(fireStationRepository.updateFireStation(any(FireStation.class))).thenReturn(true);
 		
 		//ACT
 		fireStationService.updateFireStation(firestationDTO);
 		
 		//ASSERT
-		ArgumentCaptor<List<FireStation>> captor = ArgumentCaptor.forClass(List.class);
-		verify(fireStationRepository, times(1)).saveAllFireStations(captor.capture());
-		
-		List<FireStation> updatedFireStations = captor.getValue();
-		assertEquals(1, updatedFireStations.size());
-		assertEquals("1", updatedFireStations.get(0).getStation());
+		ArgumentCaptor<FireStation> captor = ArgumentCaptor.forClass(FireStation.class);
+		verify(fireStationRepository, times(1)).updateFireStation(captor.capture());
+		assertEquals("29 15th St", captor.getValue().getAddress());
+		assertEquals("1", captor.getValue().getStation());
 	}
 	
 	
@@ -118,10 +126,7 @@ public class FireStationServiceTest {
 		firestationDTO.setAddress("1509 NonExistingAddress St");
 		firestationDTO.setStation("1");
 		
-		List<FireStation> fireStations = new ArrayList<>();
-		fireStations.add(new FireStation("29 15th St", "4"));
-		
-		when(fireStationRepository.getAllFireStations()).thenReturn(fireStations);
+		when(fireStationRepository.updateFireStation(any(FireStation.class))).thenReturn(false);
 		
 		//ACT & ASSERT
 		IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -141,22 +146,14 @@ public class FireStationServiceTest {
 		//ARRANGE
 		String address = "748 Townings Dr";
 		
-		List<FireStation> fireStations = new ArrayList<>();
-		fireStations.add(new FireStation("748 Townings Dr","3"));
-		fireStations.add(new FireStation("947 E. Rose Dr", "1"));
-		
-		when(fireStationRepository.getAllFireStations()).thenReturn(fireStations);
+		when(fireStationRepository.deleteFireStation(address)).thenReturn(true);
 		
 		//ACT
 		fireStationService.deleteFireStation(address);
 		
 		//ASSERT
-		ArgumentCaptor<List<FireStation>> captor = ArgumentCaptor.forClass(List.class);
-		verify(fireStationRepository, times(1)).saveAllFireStations(captor.capture());
-		
-		List<FireStation> updatedFireStations = captor.getValue();
-		assertEquals(1, updatedFireStations.size());
-		assertEquals("947 E. Rose Dr", updatedFireStations.get(0).getAddress());
+		verify(fireStationRepository, times(1)).deleteFireStation(address);
+		verify(fireStationRepository, never()).saveAllFireStations(anyList());
 	}
 	
 	
@@ -165,16 +162,13 @@ public class FireStationServiceTest {
 		//ARRANGE
 		String address = "1234 NonExisting Ad";
 		
-		List<FireStation> fireStations = new ArrayList<>();
-		fireStations.add(new FireStation("748 Townings Dr", "3"));
-		fireStations.add(new FireStation("947 E. Rose Dr", "1"));
-		
-		when(fireStationRepository.getAllFireStations()).thenReturn(fireStations);
+		when(fireStationRepository.deleteFireStation(address)).thenReturn(false);
 		
 		//ACT
 		fireStationService.deleteFireStation(address);
 		
 		//ASSERT
+		verify(fireStationRepository, times(1)).deleteFireStation(address);
 		verify(fireStationRepository, never()).saveAllFireStations(anyList());
 	}
 	
@@ -191,25 +185,12 @@ public class FireStationServiceTest {
 		//ARRANGE
 		int stationNumber = 3;
 		
-		List<Person> persons = new ArrayList<>();
-		persons.add(new Person("John","Boyd","1509 Culver St","Culver","97451","841-874-6512","jaboyd@email.com"));
-		persons.add(new Person("Jacob","Boyd","1509 Culver St","Culver","97451","841-874-6513","drk@email.com"));
-		persons.add(new Person("Tenley","Boyd","1509 Culver St","Culver","97451","841-874-6512","tenz@email.com"));
-		
-		List<FireStation> fireStations = new ArrayList<>();
-		fireStations.add(new FireStation("1509 Culver St", "3"));
-		fireStations.add(new FireStation("29 15th St", "2"));
-		
-		List<MedicalRecord> medicalRecords = new ArrayList<>();
-		medicalRecords.add(new MedicalRecord("John","Boyd","03/06/1984", new ArrayList<>(), new ArrayList<>()));
-		medicalRecords.add(new MedicalRecord("Jacob","Boyd","03/06/1989",new ArrayList<>(), new ArrayList<>()));
-		medicalRecords.add(new MedicalRecord("Tenley","Boyd", "02/18/2012",new ArrayList<>(), new ArrayList<>()));
+		List<Resident> residents = new ArrayList<>();
+		residents.add(new Resident(new Person("John","Boyd","1509 Culver St","Culver","97451","841-874-6512","jaboyd@email.com"), null, List.of(3)));
+		residents.add(new Resident(new Person("Jacob","Boyd","1509 Culver St","Culver","97451","841-874-6513","drk@email.com"), null, List.of(3)));
+		residents.add(new Resident(new Person("Tenley","Boyd","1509 Culver St","Culver","97451","841-874-6512","tenz@email.com"), null, List.of(3)));
 		
-		when(personRepository.getAllPersons()).thenReturn(persons);
-		when(fireStationRepository.getAllFireStations()).thenReturn(fireStations);
-		when(medicalRecordRepository.getMedicalRecord("John","Boyd")).thenReturn(medicalRecords.get(0));
-		when(medicalRecordRepository.getMedicalRecord("Jacob","Boyd")).thenReturn(medicalRecords.get(1));
-		when(medicalRecordRepository.getMedicalRecord("Tenley","Boyd")).thenReturn(medicalRecords.get(2));
+		when(alertViewRepository.getCoverage(stationNumber)).thenReturn(new StationCoverage(residents, 2, 1));
 		
 		//ACT
 		FireStationCoverageDTO coverage = fireStationService.getCoverageByStationNumber(stationNumber);
@@ -220,4 +201,48 @@ public class FireStationServiceTest {
 		assertEquals(1, coverage.getNumberOfChildren()); //1 Child: Tenley Boyd 02/18/20212
 	}
 	
+	@Test
+	public void testGetCoverageByStationNumberWithinAgeRange() {
+		//ARRANGE
+		int stationNumber = 3;
+		Person tenley = new Person("Tenley","Boyd","1509 Culver St","Culver","97451","841-874-6512","tenz@email.com");
+		
+		when(alertViewRepository.getCoverage(stationNumber, 0, 18)).thenReturn(new StationCoverage(List.of(new Resident(tenley, null, List.of(3))), 0, 1));
+		
+		//ACT
+		FireStationCoverageDTO coverage = fireStationService.getCoverageByStationNumber(stationNumber, 0, 18);
+		
+		//ASSERT
+		assertEquals(1, coverage.getPersons().size());
+		assertEquals("Tenley", coverage.getPersons().get(0).getFirstName());
+		assertEquals(1, coverage.getNumberOfChildren());
+	}
+	
+	@Test
+	public void testGetCoverageByStationNumberWithInvalidAgeRange() {
+		//ACT & ASSERT
+		IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+			fireStationService.getCoverageByStationNumber(3, 30, 18);
+		});
+		
+		//ADDITIONNAL ASSERT
+		assertEquals("Invalid age range", exception.getMessage());
+		verifyNoInteractions(alertViewRepository);
+	}
+	
+	@Test
+	public void testAddFireStationWithNonNumericStation() {
+		//ARRANGE
+		FireStationDTO fireStationDTO = new FireStationDTO("1509 Culver St", "three");
+		
+		//ACT & ASSERT
+		IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+			fireStationService.addFireStation(fireStationDTO);
+		});
+		
+		//ADDITIONNAL ASSERT
+		assertEquals("Station must be a number", exception.getMessage());
+		verify(fireStationRepository, never()).insertFireStation(any(FireStation.class));
+	}
+	
 }
@@ -1,10 +1,14 @@
 package com.safetynetalerts.safetynet.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,24 +19,25 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.safetynetalerts.safetynet.dto.FloodDTO;
-import com.safetynetalerts.safetynet.model.FireStation;
 import com.safetynetalerts.safetynet.model.MedicalRecord;
 import com.safetynetalerts.safetynet.model.Person;
+import com.safetynetalerts.safetynet.model.Resident;
+import com.safetynetalerts.safetynet.repository.DataSnapshot;
+import com.safetynetalerts.safetynet.repository.DataStore;
 import com.safetynetalerts.safetynet.repository.FireStationRepository;
-import com.safetynetalerts.safetynet.repository.MedicalRecordRepository;
-import com.safetynetalerts.safetynet.repository.PersonRepository;
+import com.safetynetalerts.safetynet.repository.ResidentRepository;
 
 @ExtendWith(MockitoExtension.class)
 public class FloodServiceTest {
 	
 	@Mock
-	private FireStationRepository fireStationRepository;
+	private DataStore dataStore;
 	
 	@Mock
-	private PersonRepository personRepository;
+	private FireStationRepository fireStationRepository;
 	
 	@Mock
-	private MedicalRecordRepository medicalRecordRepository;
+	private ResidentRepository residentRepository;
 	
 	@InjectMocks
 	private FloodServiceImpl floodService;
@@ -40,6 +45,7 @@ public class FloodServiceTest {
 	@BeforeEach
 	public void setUp() {
 		MockitoAnnotations.openMocks(this);
+		floodService.start();
 	}
 	
 	@Test
@@ -48,18 +54,14 @@ public class FloodServiceTest {
 		List<Integer> stationNumbers = new ArrayList<>();
 		stationNumbers.add(1);
 		
-		List<FireStation> fireStations = new ArrayList<>();
-		fireStations.add(new FireStation("1509 Culver St","1"));
-		
-		List<Person> persons = new ArrayList<>();
-		persons.add(new Person ("John","Boyd","1509 Culver St","Culver","97451","841-874-6512","jaboyd@email.com"));
+		List<Resident> residents = new ArrayList<>();
+		residents.add(new Resident(new Person ("John","Boyd","1509 Culver St","Culver","97451","841-874-6512","jaboyd@email.com"),
+				new MedicalRecord("John","Boyd","03/06/1984", new ArrayList<>(), new ArrayList<>()), List.of(1)));
 		
-		List<MedicalRecord> medicalRecords = new ArrayList<>();	
-		medicalRecords.add(new MedicalRecord("John","Boyd","03/06/1984", new ArrayList<>(), new ArrayList<>()));
-		
-		when(fireStationRepository.getAllFireStations()).thenReturn(fireStations);
-		when(personRepository.getAllPersons()).thenReturn(persons);
-		when(medicalRecordRepository.getMedicalRecord("John","Boyd")).thenReturn(medicalRecords.get(0));
+		when(fireStationRepository.getAddressesByStation(1)).thenReturn(List.of("1509 Culver St"));
+		when(residentRepository.getHouseholds()).thenReturn(address -> "1509 Culver St".equals(address) ? residents : List.of());
+		when(dataStore.readConsistently(any())).thenAnswer(invocation ->
+				invocation.<Function<DataSnapshot, Object>>getArgument(0).apply(null));
 		
 		//ACT
 		List<FloodDTO> floodDTO = floodService.getFloodInformation(stationNumbers);
@@ -69,6 +71,27 @@ public class FloodServiceTest {
 		assertEquals("1509 Culver St", floodDTO.get(0).getAddress());
 		assertEquals(1, floodDTO.get(0).getResidents().size());
 		assertEquals("John", floodDTO.get(0).getResidents().get(0).getFirstName());
+		assertEquals("1", floodDTO.get(0).getResidents().get(0).getStationNumber());
+	}
+	
+	@Test
+	public void testLargeFloodKeepsTheAddressOrderWhenBuiltInParallel() {
+		//ARRANGE
+		List<String> addresses = IntStream.range(0, 500).mapToObj(i -> i + " Flood St").collect(Collectors.toList());
+		when(fireStationRepository.getAddressesByStation(1)).thenReturn(addresses.subList(0, 300));
+		when(fireStationRepository.getAddressesByStation(2)).thenReturn(addresses.subList(200, 500));
+		when(residentRepository.getHouseholds()).thenReturn(address -> List.of());
+		when(dataStore.readConsistently(any())).thenAnswer(invocation ->
+				invocation.<Function<DataSnapshot, Object>>getArgument(0).apply(null));
+		
+		//ACT
+		List<FloodDTO> built = floodService.getFloodInformation(List.of(1, 2));
+		List<FloodDTO> streamed = floodService.streamFloodInformation(List.of(1, 2)).collect(Collectors.toList());
+		floodService.close();
+		
+		//ASSERT
+		assertEquals(addresses, built.stream().map(FloodDTO::getAddress).collect(Collectors.toList()));
+		assertEquals(addresses, streamed.stream().map(FloodDTO::getAddress).collect(Collectors.toList()));
 	}
 	
 
@@ -0,0 +1,175 @@
+package com.safetynetalerts.safetynet.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.safetynetalerts.safetynet.dto.ImportReportDTO;
+import com.safetynetalerts.safetynet.model.FireStation;
+import com.safetynetalerts.safetynet.model.MedicalRecord;
+import com.safetynetalerts.safetynet.model.Person;
+import com.safetynetalerts.safetynet.repository.FireStationRepository;
+import com.safetynetalerts.safetynet.repository.MedicalRecordRepository;
+import com.safetynetalerts.safetynet.repository.PersonRepository;
+import com.safetynetalerts.safetynet.service.ImportService.Format;
+
+@ExtendWith(MockitoExtension.class)
+public class ImportServiceTest {
+
+	@Mock
+	private PersonRepository personRepository;
+
+	@Mock
+	private FireStationRepository fireStationRepository;
+
+	@Mock
+	private MedicalRecordRepository medicalRecordRepository;
+
+	@InjectMocks
+	private ImportServiceImpl importService;
+
+	@Captor
+	private ArgumentCaptor<Collection<Person>> persons;
+
+	@Captor
+	private ArgumentCaptor<Collection<FireStation>> fireStations;
+
+	@Captor
+	private ArgumentCaptor<Collection<MedicalRecord>> medicalRecords;
+
+	@BeforeEach
+	public void setUp() {
+		importService.start();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		importService.close();
+	}
+
+	private static InputStream body(String... lines) {
+		return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testImportPersonsKeepsTheLastRecordOfEachName() throws IOException {
+		//ARRANGE
+		InputStream body = body(
+				"{\"firstName\":\"John\",\"lastName\":\"Boyd\",\"address\":\"1509 Culver St\",\"city\":\"Culver\",\"zip\":\"97451\",\"phone\":\"841-874-6512\",\"email\":\"jaboyd@email.com\"}",
+				"{\"firstName\":\"Jane\",\"lastName\":\"Doe\",\"address\":\"1 New St\",\"city\":\"Culver\",\"zip\":\"97451\",\"phone\":\"123-456-7890\",\"email\":\"jane@email.com\"}",
+				"",
+				"{\"firstName\":\"John\",\"lastName\":\"Boyd\",\"address\":\"2 Other St\",\"city\":\"Culver\",\"zip\":\"97451\",\"phone\":\"841-874-6512\",\"email\":\"jaboyd@email.com\"}");
+
+		//ACT
+		ImportReportDTO report = importService.importRecords("persons", Format.NDJSON, body);
+
+		//ASSERT
+		verify(personRepository, times(1)).insertPersons(persons.capture());
+		List<Person> imported = new ArrayList<>(persons.getValue());
+		assertEquals(2, imported.size());
+		assertEquals("2 Other St", imported.get(0).getAddress());
+		assertEquals("Jane", imported.get(1).getFirstName());
+		assertEquals(3, report.getReceived());
+		assertEquals(0, report.getRejected());
+		assertEquals(1, report.getDuplicates());
+		assertEquals(2, report.getImported());
+	}
+
+	@Test
+	public void testImportFireStationsRejectsInvalidLines() throws IOException {
+		//ARRANGE
+		InputStream body = body(
+				"{\"address\":\"1 New St\",\"station\":\"9\"}",
+				"{\"address\":\"2 New St\",\"station\":\"nine\"}",
+				"{\"address\":\"3 New St\"",
+				"{\"station\":\"4\"}");
+
+		//ACT
+		ImportReportDTO report = importService.importRecords("firestations", Format.NDJSON, body);
+
+		//ASSERT
+		verify(fireStationRepository, times(1)).insertFireStations(fireStations.capture());
+		assertEquals(List.of(new FireStation("1 New St", "9")), new ArrayList<>(fireStations.getValue()));
+		assertEquals(4, report.getReceived());
+		assertEquals(3, report.getRejected());
+		assertEquals(1, report.getImported());
+		assertEquals(3, report.getErrors().size());
+		assertEquals("line 2: Station must be a number", report.getErrors().get(0));
+		assertTrue(report.getErrors().get(1).startsWith("line 3: "));
+		assertEquals("line 4: Address and station cannot be null", report.getErrors().get(2));
+	}
+
+	@Test
+	public void testImportMedicalRecordsFromCsv() throws IOException {
+		//ARRANGE
+		InputStream body = body(
+				"firstName,lastName,birthdate,medications,allergies",
+				"John,Boyd,03/06/1984,aznol:350mg|hydrapermazol:100mg,nillacilan",
+				"\"Doe, Jr\",Jane,,,",
+				"Tenley,Boyd,02/18/2012");
+
+		//ACT
+		ImportReportDTO report = importService.importRecords("medicalrecords", Format.CSV, body);
+
+		//ASSERT
+		verify(medicalRecordRepository, times(1)).insertMedicalRecords(medicalRecords.capture());
+		List<MedicalRecord> imported = new ArrayList<>(medicalRecords.getValue());
+		assertEquals(2, imported.size());
+		assertEquals(List.of("aznol:350mg", "hydrapermazol:100mg"), imported.get(0).getMedications());
+		assertEquals(List.of("nillacilan"), imported.get(0).getAllergies());
+		assertEquals("Doe, Jr", imported.get(1).getFirstName());
+		assertEquals(List.of(), imported.get(1).getMedications());
+		assertEquals(List.of("line 4: Expected 5 fields, found 3"), report.getErrors());
+	}
+
+	@Test
+	public void testImportOfMoreChunksThanTheWindowKeepsTheBodyOrder() throws IOException {
+		//ARRANGE
+		String[] lines = new String[10_500];
+		for (int i = 0; i < lines.length; i++) {
+			lines[i] = "{\"address\":\"" + i + " New St\",\"station\":\"" + (i % 4 + 1) + "\"}";
+		}
+
+		//ACT
+		ImportReportDTO report = importService.importRecords("firestations", Format.NDJSON, body(lines));
+
+		//ASSERT
+		verify(fireStationRepository, times(1)).insertFireStations(fireStations.capture());
+		List<FireStation> imported = new ArrayList<>(fireStations.getValue());
+		assertEquals(lines.length, imported.size());
+		assertEquals("0 New St", imported.get(0).getAddress());
+		assertEquals("10499 New St", imported.get(lines.length - 1).getAddress());
+		assertEquals(lines.length, report.getImported());
+	}
+
+	@Test
+	public void testImportRejectsUnknownSectionAndColumns() {
+		//ACT & ASSERT
+		assertThrows(IllegalArgumentException.class,
+				() -> importService.importRecords("children", Format.NDJSON, body("{}")));
+		assertThrows(IllegalArgumentException.class,
+				() -> importService.importRecords("persons", Format.CSV, body("firstName,age", "John,40")));
+		verifyNoInteractions(personRepository);
+	}
+}
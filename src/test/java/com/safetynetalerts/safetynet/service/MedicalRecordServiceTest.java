@@ -2,6 +2,7 @@ package com.safetynetalerts.safetynet.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -66,17 +67,25 @@ public class MedicalRecordServiceTest {
 		medicalRecordDTO.setBirthdate("03/06/1984");
 		medicalRecordDTO.setMedications(new ArrayList<>());
 		medicalRecordDTO.setAllergies(new ArrayList<>());
-		
-		List<MedicalRecord> medicalRecords = new ArrayList<>();
-		medicalRecords.add(new MedicalRecord("Jane", "Doe", "06/03/1989", new ArrayList<>(), new ArrayList<>()));
-		
-		when(medicalRecordRepository.getAllMedicalRecords()).thenReturn(medicalRecords);
+		when(medicalRecordRepository.insertMedicalRecord(any(MedicalRecord.class))).thenReturn(true);
 		
 		//ACT
 		medicalRecordService.addMedicalRecord(medicalRecordDTO);
 		
 		//ASSERT
-		verify(medicalRecordRepository, times(1)).saveAllMedicalRecords(anyList());
+		ArgumentCaptor<MedicalRecord> captor = ArgumentCaptor.forClass(MedicalRecord.class);
+		verify(medicalRecordRepository, times(1)).insertMedicalRecord(captor.capture());
+		assertEquals("03/06/1984", captor.getValue().getBirthdate());
+	}
+	
+	@Test
+	public void testAddMedicalRecordWithTheNamesOfAnExistingOne() {
+		//ARRANGE
+		MedicalRecordDTO medicalRecordDTO = new MedicalRecordDTO("John", "Doe", "03/06/1984", new ArrayList<>(), new ArrayList<>());
+		when(medicalRecordRepository.insertMedicalRecord(any(MedicalRecord.class))).thenReturn(false);
+		
+		//ACT & ASSERT
+		assertThrows(IllegalStateException.class, () -> medicalRecordService.addMedicalRecord(medicalRecordDTO));
 	}
 	
 	@Test
@@ -90,22 +99,18 @@ public class MedicalRecordServiceTest {
 		medicalRecordDTO.setMedications(new ArrayList<>());
 		medicalRecordDTO.setAllergies(new ArrayList<>());
 		
-		List<MedicalRecord> medicalRecords = new ArrayList<>();
-		medicalRecords.add(new MedicalRecord("John", "Doe", "03/06/1984", new ArrayList<>(), new ArrayList<>()));
-		
-		when(medicalRecordRepository.getAllMedicalRecords()).thenReturn(medicalRecords);
+		when(medicalRecordRepository.updateMedicalRecord(any(MedicalRecord.class))).thenReturn(true);
 		
 		//ACT
 		medicalRecordService.updatePerson(medicalRecordDTO);
 		
 		//ASSERT
-		ArgumentCaptor<List<MedicalRecord>> captor = ArgumentCaptor.forClass(List.class);
-		verify(medicalRecordRepository, times(1)).saveAllMedicalRecords(captor.capture());
+		ArgumentCaptor<MedicalRecord> captor = ArgumentCaptor.forClass(MedicalRecord.class);
+		verify(medicalRecordRepository, times(1)).updateMedicalRecord(captor.capture());
 		
-		List<MedicalRecord> updatedMedicalRecords = captor.getValue();
-		assertEquals(1, updatedMedicalRecords.size());
-		assertEquals("John", updatedMedicalRecords.get(0).getFirstName());
-		assertEquals("Doe", updatedMedicalRecords.get(0).getLastName());
+		MedicalRecord updatedMedicalRecord = captor.getValue();
+		assertEquals("John", updatedMedicalRecord.getFirstName());
+		assertEquals("Doe", updatedMedicalRecord.getLastName());
 	}
 	
 	
@@ -120,10 +125,7 @@ public class MedicalRecordServiceTest {
 		medicalRecordDTO.setMedications(new ArrayList<>());
 		medicalRecordDTO.setAllergies(new ArrayList<>());
 		
-		List<MedicalRecord> medicalRecords = new ArrayList<>();
-		medicalRecords.add(new MedicalRecord("Jane", "Doe", "06/03/1989", new ArrayList<>(), new ArrayList<>()));
-		
-		when(medicalRecordRepository.getAllMedicalRecords()).thenReturn(medicalRecords);
+		when(medicalRecordRepository.updateMedicalRecord(any(MedicalRecord.class))).thenReturn(false);
 		
 		//ACT & ASSERT
 		IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -134,7 +136,7 @@ public class MedicalRecordServiceTest {
 		assertEquals("Medical record not found", exception.getMessage());
 		
 		//VERIFY NO INTERACTIONS WITH SAVEALLMEDICALRECORDS
-		verify(medicalRecordRepository, times(1)).getAllMedicalRecords();
+		verify(medicalRecordRepository, times(1)).updateMedicalRecord(any(MedicalRecord.class));
 		verify(medicalRecordRepository, times(0)).saveAllMedicalRecords(anyList());
 	}
 	
@@ -144,17 +146,13 @@ public class MedicalRecordServiceTest {
 		String firstName = "John";
 		String lastName = "Doe";
 		
-		List<MedicalRecord> medicalRecords = new ArrayList<>();	
-		medicalRecords.add(new MedicalRecord("John","Doe","03/06/1984", new ArrayList<>(), new ArrayList<>()));
-		medicalRecords.add(new MedicalRecord("Jane","Doe","03/06/1989",new ArrayList<>(), new ArrayList<>()));
-		
-		when(medicalRecordRepository.getAllMedicalRecords()).thenReturn(medicalRecords);
+		when(medicalRecordRepository.deleteMedicalRecord(firstName, lastName)).thenReturn(true);
 		
 		//ACT
 		medicalRecordService.deleteMedicalRecord(firstName, lastName);
 		
 		//ASSERT
-		verify(medicalRecordRepository, times(1)).saveAllMedicalRecords(anyList());
+		verify(medicalRecordRepository, times(1)).deleteMedicalRecord(firstName, lastName);
 	}
 	
 	@Test
@@ -163,15 +161,13 @@ public class MedicalRecordServiceTest {
 		String firstName = "John";
 		String lastName = "Nonexisting";
 		
-		List<MedicalRecord> medicalRecords = new ArrayList<>();
-		medicalRecords.add(new MedicalRecord("Jane","Doe","03/06/1989",new ArrayList<>(), new ArrayList<>()));
-		
-		when(medicalRecordRepository.getAllMedicalRecords()).thenReturn(medicalRecords);
+		when(medicalRecordRepository.deleteMedicalRecord(firstName, lastName)).thenReturn(false);
 		
 		//ACT
 		medicalRecordService.deleteMedicalRecord(firstName, lastName);
 		
 		//ASSERT
+		verify(medicalRecordRepository, times(1)).deleteMedicalRecord(firstName, lastName);
 		verify(medicalRecordRepository, never()).saveAllMedicalRecords(anyList());
 		
 	}
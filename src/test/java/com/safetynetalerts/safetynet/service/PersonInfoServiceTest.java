@@ -1,6 +1,7 @@
 package com.safetynetalerts.safetynet.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
@@ -17,17 +18,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import com.safetynetalerts.safetynet.dto.PersonInfoDTO;
 import com.safetynetalerts.safetynet.model.MedicalRecord;
 import com.safetynetalerts.safetynet.model.Person;
-import com.safetynetalerts.safetynet.repository.MedicalRecordRepository;
-import com.safetynetalerts.safetynet.repository.PersonRepository;
+import com.safetynetalerts.safetynet.model.Resident;
+import com.safetynetalerts.safetynet.repository.ResidentRepository;
 
 @ExtendWith(MockitoExtension.class)
 public class PersonInfoServiceTest {
 	
 	@Mock
-	private PersonRepository personRepository;
-	
-	@Mock
-	private MedicalRecordRepository medicalRecordRepository;
+	private ResidentRepository residentRepository;
 	
 	@InjectMocks
 	private PersonInfoServiceImpl personInfoService;
@@ -42,14 +40,11 @@ public class PersonInfoServiceTest {
 		//ARRANGE
 		String lastName = "Boyd";
 		
-		List<Person> persons = new ArrayList<>();
-		persons.add(new Person("John","Boyd","1509 Culver St","Culver","97451","841-874-6512","jaboyd@email.com"));
+		List<Resident> residents = new ArrayList<>();
+		residents.add(new Resident(new Person("John","Boyd","1509 Culver St","Culver","97451","841-874-6512","jaboyd@email.com"),
+				new MedicalRecord("John","Boyd","03/06/1984", new ArrayList<>(), new ArrayList<>()), List.of(3)));
 		
-		List<MedicalRecord> medicalRecords = new ArrayList<>();	
-		medicalRecords.add(new MedicalRecord("John","Boyd","03/06/1984", new ArrayList<>(), new ArrayList<>()));
-		
-		when(personRepository.getAllPersons()).thenReturn(persons);
-		when(medicalRecordRepository.getMedicalRecord("John","Boyd")).thenReturn(medicalRecords.get(0));
+		when(residentRepository.getResidentsByLastName(lastName)).thenReturn(residents);
 		
 		//ACT
 		List<PersonInfoDTO> personInfoDTO = personInfoService.getPersonsInfoByLastName(lastName);
@@ -59,4 +54,24 @@ public class PersonInfoServiceTest {
 		assertEquals("John", personInfoDTO.get(0).getFirstName());
 		assertEquals("Boyd", personInfoDTO.get(0).getLastName());
 	}
+	
+	@Test
+	public void testGetPersonsInfoByLastNameWithoutMedicalRecord() {
+		//ARRANGE
+		String lastName = "Boyd";
+		
+		List<Resident> residents = new ArrayList<>();
+		residents.add(new Resident(new Person("John","Boyd","1509 Culver St","Culver","97451","841-874-6512","jaboyd@email.com"),
+				null, List.of(3)));
+		
+		when(residentRepository.getResidentsByLastName(lastName)).thenReturn(residents);
+		
+		//ACT
+		List<PersonInfoDTO> personInfoDTO = personInfoService.getPersonsInfoByLastName(lastName);
+		
+		//ASSERT
+		assertEquals(1, personInfoDTO.size());
+		assertEquals("jaboyd@email.com", personInfoDTO.get(0).getEmail());
+		assertNull(personInfoDTO.get(0).getMedications());
+	}
 }
@@ -1,6 +1,7 @@
 package com.safetynetalerts.safetynet.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -67,17 +68,26 @@ public class PersonServiceTest {
 		personDTO.setZip("97451");
 		personDTO.setPhone("123-456-7890");
 		personDTO.setEmail("jdoe@email.com");
-		
-		List<Person> persons = new ArrayList<>();
-		persons.add(new Person("Jane","Doe","112 Culver St","Culver","97451","123-456-7890","janedoe@email.com"));
-		
-		when(personRepository.getAllPersons()).thenReturn(persons);
+		when(personRepository.insertPerson(any(Person.class))).thenReturn(true);
 		
 		//ACT
 		personService.addPerson(personDTO);
 		
 		//ASSERT
-		verify(personRepository, times(1)).saveAllPersons(anyList());
+		ArgumentCaptor<Person> captor = ArgumentCaptor.forClass(Person.class);
+		verify(personRepository, times(1)).insertPerson(captor.capture());
+		assertEquals("John", captor.getValue().getFirstName());
+		assertEquals("jdoe@email.com", captor.getValue().getEmail());
+	}
+	
+	@Test
+	public void testAddPersonWithTheNamesOfAnExistingPerson() {
+		//ARRANGE
+		PersonDTO personDTO = new PersonDTO("John","Doe","112 Culver St","Culver","97451","123-456-7890","jdoe@email.com");
+		when(personRepository.insertPerson(any(Person.class))).thenReturn(false);
+		
+		//ACT & ASSERT
+		assertThrows(IllegalStateException.class, () -> personService.addPerson(personDTO));
 	}
 	
 	@Test
@@ -112,16 +122,16 @@ public class PersonServiceTest {
 		personDTO.setPhone("098-765-4321");
 		personDTO.setEmail("johnd@email.com");
 		
-		List<Person> persons = new ArrayList<>();
-		persons.add(new Person ("John","Doe","112 Culver St","Culver","97451","123-456-7890","jdoe@email.com"));
-		
-		when(personRepository.getAllPersons()).thenReturn(persons);
+		when(personRepository.updatePerson(any(Person.class))).thenReturn(true);
 		
 		//ACT
 		personService.updatePerson(personDTO);
 		
 		//ASSERT
-		verify(personRepository, times(1)).saveAllPersons(anyList());
+		ArgumentCaptor<Person> captor = ArgumentCaptor.forClass(Person.class);
+		verify(personRepository, times(1)).updatePerson(captor.capture());
+		assertEquals("834 Binoc Ave", captor.getValue().getAddress());
+		verify(personRepository, never()).saveAllPersons(anyList());
 	}
 	
 	@Test
@@ -137,12 +147,13 @@ public class PersonServiceTest {
 		personDTO.setPhone("123-456-7890");
 		personDTO.setEmail("elinonexistentperson@email.com");
 		
-		when(personRepository.getAllPersons()).thenReturn(new ArrayList<>());
+		when(personRepository.updatePerson(any(Person.class))).thenReturn(false);
 		
 		//ACT
 		personService.updatePerson(personDTO);
 		
 		//ASSERT
+		verify(personRepository, times(1)).updatePerson(any(Person.class));
 		verify(personRepository, never()).saveAllPersons(anyList());
 	}
 	
@@ -153,31 +164,20 @@ public class PersonServiceTest {
 		String firstName= "John";
 		String lastName = "Doe";
 		
-		List<Person> persons = new ArrayList<>();
-		persons.add(new Person("John","Doe","112 Culver St","Culver","97451","123-456-7890","jdoe@email.com"));
-		persons.add(new Person("Jane","Doe","112 Culver St","Culver","97451","123-456-7890","janedoe@email.com"));
-		
-		when(personRepository.getAllPersons()).thenReturn(persons);
+		when(personRepository.deletePerson(firstName, lastName)).thenReturn(true);
 		
 		//ACT
 		personService.deletePerson(firstName, lastName);
 		
 		//ASSERT
-		ArgumentCaptor<List<Person>> captor = ArgumentCaptor.forClass(List.class);
-		verify(personRepository, times(1)).saveAllPersons(captor.capture());
-		
-		//Cheking if the person was delete successfully,implies that the other one is updated in json file
-		List<Person> updatedPersons = captor.getValue();
-		assertEquals(1, updatedPersons.size());
-		assertEquals("Jane", updatedPersons.get(0).getFirstName());
-		assertEquals("Doe", updatedPersons.get(0).getLastName());
+		verify(personRepository, times(1)).deletePerson(firstName, lastName);
+		verify(personRepository, never()).saveAllPersons(anyList());
 	}
 	
 	@Test
 	public void testDeleteNonExistingPerson() {
 		//ARRANGE
-		List<Person> persons = new ArrayList<>();
-		when(personRepository.getAllPersons()).thenReturn(persons);
+		when(personRepository.deletePerson("NonExistent", "PersonName")).thenReturn(false);
 		
 		//ACT & ASSERT
 		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> { 
@@ -0,0 +1,153 @@
+package com.safetynetalerts.safetynet.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.safetynetalerts.safetynet.dto.QueryResultDTO;
+import com.safetynetalerts.safetynet.dto.SubQueryDTO;
+import com.safetynetalerts.safetynet.repository.DataSnapshot;
+import com.safetynetalerts.safetynet.repository.DataStore;
+
+@ExtendWith(MockitoExtension.class)
+public class QueryServiceTest {
+
+	@Mock
+	private DataStore dataStore;
+
+	@Mock
+	private DataSnapshot snapshot;
+
+	@Mock
+	private FireService fireService;
+
+	@Mock
+	private PhoneAlertService phoneAlertService;
+
+	@Mock
+	private FloodService floodService;
+
+	@InjectMocks
+	private QueryServiceImpl queryService;
+
+	@BeforeEach
+	public void setUp() {
+		ReflectionTestUtils.setField(queryService, "parallelism", 2);
+		queryService.start();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		queryService.close();
+	}
+
+	private void readAt(long version) {
+		when(snapshot.getVersion()).thenReturn(version);
+		when(dataStore.readConsistently(any())).thenAnswer(invocation ->
+				invocation.<Function<DataSnapshot, Object>>getArgument(0).apply(snapshot));
+	}
+
+	@Test
+	public void testRunQueriesAgainstOneSnapshot() {
+		//ARRANGE
+		readAt(42L);
+		when(phoneAlertService.getPhoneNumbersByFireStation(3)).thenReturn(List.of("841-874-6512"));
+		when(floodService.getFloodInformation(List.of(1, 2))).thenReturn(List.of());
+
+		//ACT
+		QueryResultDTO result = queryService.runQueries(List.of(
+				new SubQueryDTO("phones", "phoneAlert", Map.of("fireStation", "3")),
+				new SubQueryDTO("flood", "flood", Map.of("stations", "1, 2"))));
+
+		//ASSERT
+		assertEquals(42L, result.getVersion());
+		assertEquals(List.of("phones", "flood"), List.copyOf(result.getResults().keySet()));
+		assertEquals(List.of("841-874-6512"), result.getResults().get("phones").getResult());
+		assertNull(result.getResults().get("phones").getError());
+		assertEquals(List.of(), result.getResults().get("flood").getResult());
+	}
+
+	@Test
+	public void testFailingSubQueryOnlyFailsItself() {
+		//ARRANGE
+		readAt(42L);
+		when(fireService.getPersonsByAddress("1509 Culver St")).thenThrow(new NullPointerException());
+		when(phoneAlertService.getPhoneNumbersByFireStation(3)).thenReturn(List.of("841-874-6512"));
+
+		//ACT
+		QueryResultDTO result = queryService.runQueries(List.of(
+				new SubQueryDTO("fire", "fire", Map.of("address", "1509 Culver St")),
+				new SubQueryDTO("phones", "phoneAlert", Map.of("fireStation", "3"))));
+
+		//ASSERT
+		assertNull(result.getResults().get("fire").getResult());
+		assertEquals("Internal error", result.getResults().get("fire").getError());
+		assertEquals(List.of("841-874-6512"), result.getResults().get("phones").getResult());
+	}
+
+	@Test
+	public void testSlowSubQueryTimesOutWithoutHoldingTheOthers() throws InterruptedException {
+		//ARRANGE
+		ReflectionTestUtils.setField(queryService, "timeout", Duration.ofMillis(100));
+		readAt(42L);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		when(floodService.getFloodInformation(List.of(1))).thenAnswer(invocation -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				interrupted.countDown();
+			}
+			return List.of();
+		});
+		when(phoneAlertService.getPhoneNumbersByFireStation(3)).thenReturn(List.of("841-874-6512"));
+
+		//ACT
+		QueryResultDTO result;
+		try {
+			result = queryService.runQueries(List.of(
+					new SubQueryDTO("flood", "flood", Map.of("stations", "1")),
+					new SubQueryDTO("phones", "phoneAlert", Map.of("fireStation", "3"))));
+		} finally {
+			release.countDown();
+		}
+
+		//ASSERT
+		assertNull(result.getResults().get("flood").getResult());
+		assertEquals("Timed out after 100 ms", result.getResults().get("flood").getError());
+		assertEquals(List.of("841-874-6512"), result.getResults().get("phones").getResult());
+		assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testInvalidSubQueryRunsNothing() {
+		//ACT & ASSERT
+		assertThrows(IllegalArgumentException.class, () -> queryService.runQueries(List.of(
+				new SubQueryDTO("fire", "fire", Map.of("address", "1509 Culver St")),
+				new SubQueryDTO("phones", "phoneAlert", Map.of("fireStation", "three")))));
+		assertThrows(IllegalArgumentException.class, () -> queryService.runQueries(List.of(
+				new SubQueryDTO("fire", "fire", Map.of("address", "1509 Culver St")),
+				new SubQueryDTO("fire", "childAlert", Map.of("address", "1509 Culver St")))));
+		verifyNoInteractions(dataStore, fireService);
+	}
+}
@@ -0,0 +1,120 @@
+package com.safetynetalerts.safetynet.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynetalerts.safetynet.model.MedicalRecord;
+
+public class AgeCalculatorTest {
+	
+	@AfterEach
+	public void tearDown() {
+		AgeCalculator.setClock(Clock.systemDefaultZone());
+	}
+	
+	@Test
+	public void testAgeMatchesPeriodBetween() {
+		//ARRANGE
+		LocalDate today = LocalDate.of(2024, 2, 29);
+		AgeCalculator.setClock(Clock.fixed(today.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC));
+		
+		//ACT & ASSERT
+		for (LocalDate birthDate = LocalDate.of(1895, 1, 1); birthDate.isBefore(today); birthDate = birthDate.plusDays(3)) {
+			assertEquals(Period.between(birthDate, today).getYears(), AgeCalculator.getAge(birthDate.toEpochDay()), birthDate.toString());
+		}
+	}
+	
+	@Test
+	public void testLatestBirthEpochDayIsTheLastDayGivingTheAge() {
+		for (LocalDate today = LocalDate.of(2023, 12, 1); today.isBefore(LocalDate.of(2024, 4, 1)); today = today.plusDays(1)) {
+			//ARRANGE
+			AgeCalculator.setClock(Clock.fixed(today.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC));
+			
+			//ACT
+			long latest = AgeCalculator.latestBirthEpochDay(19);
+			
+			//ASSERT
+			assertEquals(19, AgeCalculator.getAge(latest), today.toString());
+			assertEquals(18, AgeCalculator.getAge(latest + 1), today.toString());
+		}
+	}
+	
+	@Test
+	public void testTodayRollsOverAtMidnight() {
+		//ARRANGE
+		MutableClock clock = new MutableClock(Instant.parse("2024-03-05T23:59:59Z"));
+		AgeCalculator.setClock(clock);
+		long birthEpochDay = AgeCalculator.parseBirthdate("03/06/1984");
+		
+		//ACT
+		int ageBeforeMidnight = AgeCalculator.getAge(birthEpochDay);
+		clock.instant = Instant.parse("2024-03-06T00:00:00Z");
+		int ageAfterMidnight = AgeCalculator.getAge(birthEpochDay);
+		
+		//ASSERT
+		assertEquals(39, ageBeforeMidnight);
+		assertEquals(40, ageAfterMidnight);
+	}
+	
+	@Test
+	public void testInvalidBirthdateIsRejected() {
+		//ACT & ASSERT
+		IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+			new MedicalRecord("John", "Boyd", "1984-03-06", null, null);
+		});
+		
+		//ADDITIONNAL ASSERT
+		assertEquals("Invalid birthdate: 1984-03-06, expected MM/dd/yyyy", exception.getMessage());
+		assertThrows(IllegalArgumentException.class, () -> AgeCalculator.getAge(new MedicalRecord().getBirthEpochDay()));
+	}
+	
+	@Test
+	public void testBirthEpochDayIsParsedFromJsonAndNotSerialized() throws Exception {
+		//ARRANGE
+		ObjectMapper objectMapper = new ObjectMapper();
+		
+		//ACT
+		MedicalRecord medicalRecord = objectMapper.readValue("{\"firstName\":\"John\",\"lastName\":\"Boyd\",\"birthdate\":\"03/06/1984\"}", MedicalRecord.class);
+		String json = objectMapper.writeValueAsString(medicalRecord);
+		
+		//ASSERT
+		assertEquals(LocalDate.of(1984, 3, 6).toEpochDay(), medicalRecord.getBirthEpochDay());
+		assertFalse(json.contains("birthEpochDay"));
+	}
+	
+	private static final class MutableClock extends Clock {
+		
+		private Instant instant;
+		
+		private MutableClock(Instant instant) {
+			this.instant = instant;
+		}
+		
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+		
+		@Override
+		public Clock withZone(ZoneId zone) {
+			throw new UnsupportedOperationException();
+		}
+		
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+}
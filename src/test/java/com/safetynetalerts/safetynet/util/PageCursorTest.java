@@ -0,0 +1,37 @@
+package com.safetynetalerts.safetynet.util;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class PageCursorTest {
+	
+	@Test
+	public void testCursorGivesBackTheKey() {
+		//ARRANGE
+		String key = "Zoé\u0000Boyd";
+		
+		//ACT
+		String cursor = PageCursor.encode(key);
+		
+		//ASSERT
+		assertTrue(cursor.matches("[A-Za-z0-9_-]+"));
+		assertEquals(key, PageCursor.decode(cursor));
+		assertNull(PageCursor.encode(null));
+		assertNull(PageCursor.decode(null));
+		assertNull(PageCursor.decode(""));
+	}
+	
+	@Test
+	public void testInvalidCursorAndLimitAreRejected() {
+		//ACT & ASSERT
+		assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not a cursor!"));
+		assertThrows(IllegalArgumentException.class, () -> PageCursor.checkLimit(0, 500));
+		assertThrows(IllegalArgumentException.class, () -> PageCursor.checkLimit(501, 500));
+		assertDoesNotThrow(() -> PageCursor.checkLimit(500, 500));
+	}
+}
@@ -0,0 +1,52 @@
+package com.safetynetalerts.safetynet.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class StringPoolTest {
+	
+	@Test
+	public void testEqualValuesShareTheFirstInstance() {
+		//ARRANGE
+		String first = new String("StringPoolTest 1509 Culver St");
+		String second = new String("StringPoolTest 1509 Culver St");
+		assertNotSame(first, second);
+		long deduplicated = StringPool.getDeduplicated();
+		
+		//ACT
+		String pooledFirst = StringPool.canonical(first);
+		String pooledSecond = StringPool.canonical(second);
+		String pooledAgain = StringPool.canonical(first);
+		
+		//ASSERT
+		assertSame(first, pooledFirst);
+		assertSame(first, pooledSecond);
+		assertSame(first, pooledAgain);
+		assertEquals(deduplicated + 1, StringPool.getDeduplicated());
+	}
+	
+	@Test
+	public void testSavedBytesCountOnlyTheSharedOccurrences() {
+		//ARRANGE
+		String shared = new String("StringPoolTest 1509 Culver St");
+		String copy = new String("StringPoolTest 1509 Culver St");
+		
+		//ACT
+		long savedBytes = StringPool.savedBytes(List.of(shared, shared, shared, copy, "Culver"));
+		
+		//ASSERT
+		assertEquals(2 * 72, savedBytes); //40 bytes of overhead and 29 latin-1 characters, aligned on 8
+	}
+	
+	@Test
+	public void testNullIsNotPooled() {
+		//ACT & ASSERT
+		assertNull(StringPool.canonical(null));
+	}
+}
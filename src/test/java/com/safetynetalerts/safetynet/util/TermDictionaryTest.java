@@ -0,0 +1,107 @@
+package com.safetynetalerts.safetynet.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynetalerts.safetynet.model.MedicalRecord;
+
+public class TermDictionaryTest {
+	
+	@Test
+	public void testEqualTermsShareOneCode() {
+		//ARRANGE
+		TermDictionary dictionary = TermDictionary.current();
+		List<String> medications = new ArrayList<>(List.of("aznol:350mg", "hydrapermazol:100mg"));
+		
+		//ACT
+		int[] first = dictionary.encode(medications);
+		int[] second = dictionary.encode(List.of(new String("hydrapermazol:100mg"), new String("aznol:350mg")));
+		
+		//ASSERT
+		assertEquals(first[0], second[1]);
+		assertEquals(first[1], second[0]);
+		assertEquals(medications, dictionary.decode(first));
+		assertEquals(first[0], dictionary.find("aznol:350mg"));
+		assertEquals(TermDictionary.NULL, dictionary.find("TermDictionaryTest unknown"));
+	}
+	
+	@Test
+	public void testEmptyAndNullLists() {
+		//ARRANGE
+		TermDictionary dictionary = TermDictionary.current();
+		
+		//ACT & ASSERT
+		assertSame(dictionary.encode(List.of()), dictionary.encode(new ArrayList<>()));
+		assertSame(dictionary.decode(dictionary.encode(new ArrayList<>())), dictionary.decode(new int[0]));
+		assertNull(dictionary.encode(null));
+		assertNull(dictionary.decode(null));
+		assertEquals(Arrays.asList("nillacilan", null), dictionary.decode(dictionary.encode(Arrays.asList("nillacilan", null))));
+	}
+	
+	@Test
+	public void testDictionaryGrowsPastItsInitialCapacity() {
+		//ARRANGE
+		List<String> terms = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			terms.add("TermDictionaryTest term " + i);
+		}
+		TermDictionary dictionary = TermDictionary.current();
+		
+		//ACT
+		int[] codes = dictionary.encode(terms);
+		
+		//ASSERT
+		assertEquals(terms, dictionary.decode(codes));
+	}
+	
+	@Test
+	public void testRenewedDictionaryOnlyHoldsTheTermsOfTheRecordsEncodedAgain() {
+		//ARRANGE
+		MedicalRecord live = new MedicalRecord("John","Boyd","03/06/1984", List.of("TermDictionaryTest live"), List.of("nillacilan"));
+		MedicalRecord deleted = new MedicalRecord("Jacob","Boyd","03/06/1989", List.of("TermDictionaryTest deleted"), List.of());
+		MedicalRecord copy = new MedicalRecord("John","Boyd","03/06/1984", List.of("TermDictionaryTest live"), List.of("nillacilan"));
+		
+		//ACT
+		TermDictionary.renew();
+		live.recode();
+		
+		//ASSERT
+		TermDictionary renewed = TermDictionary.current();
+		assertEquals(2, renewed.size());
+		assertEquals(TermDictionary.NULL, renewed.find("TermDictionaryTest deleted"));
+		assertEquals(List.of("TermDictionaryTest live"), live.getMedications());
+		assertEquals(List.of("TermDictionaryTest deleted"), deleted.getMedications());
+		assertEquals(copy, live);
+		assertEquals(copy.hashCode(), live.hashCode());
+		assertTrue(live.hasMedication(new TermDictionary.Term("TermDictionaryTest live")));
+		assertTrue(copy.hasMedication(new TermDictionary.Term("TermDictionaryTest live")));
+		assertFalse(live.hasMedication(new TermDictionary.Term("TermDictionaryTest deleted")));
+	}
+	
+	@Test
+	public void testMedicalRecordJsonKeepsItsLists() throws Exception {
+		//ARRANGE
+		ObjectMapper objectMapper = new ObjectMapper();
+		MedicalRecord medicalRecord = new MedicalRecord("John","Boyd","03/06/1984", List.of("aznol:350mg"), List.of("nillacilan"));
+		
+		//ACT
+		String json = objectMapper.writeValueAsString(medicalRecord);
+		MedicalRecord read = objectMapper.readValue(json, MedicalRecord.class);
+		
+		//ASSERT
+		assertEquals("{\"firstName\":\"John\",\"lastName\":\"Boyd\",\"birthdate\":\"03/06/1984\",\"medications\":[\"aznol:350mg\"],\"allergies\":[\"nillacilan\"]}", json);
+		assertEquals(medicalRecord, read);
+		assertArrayEquals(new String[] {"nillacilan"}, read.getAllergies().toArray());
+	}
+}